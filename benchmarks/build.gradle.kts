@@ -0,0 +1,30 @@
+plugins {
+    id("me.champeau.jmh") version "0.7.1"
+    id("checkstyle")
+}
+
+checkstyle {
+    toolVersion = "10.12.2"
+}
+
+dependencies {
+    jmh(project(":core"))
+}
+
+jmh {
+    jmhVersion.set("1.36")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    resultFormat.set("JSON")
+
+    // 仮想スレッドはJava21以降でのみ使用できるため、それより前のJavaでは通常のスレッドのみ計測する
+    if (JavaVersion.current().majorVersion.toInt() < 21) {
+        benchmarkParameters.put("executorType", project.objects.listProperty(String::class.java).value(listOf("platform")))
+    }
+
+    // -PjmhInclude=AhoCorasick のように実行するベンチマークを絞り込む
+    if (project.hasProperty("jmhInclude")) {
+        includes.set(listOf(project.property("jmhInclude").toString()))
+    }
+}
@@ -0,0 +1,117 @@
+package dev.felnull.itts.benchmark;
+
+import dev.felnull.itts.core.ITTSRuntime;
+import dev.felnull.itts.core.ITTSRuntimeContext;
+import dev.felnull.itts.core.cache.GlobalCacheAccess;
+import dev.felnull.itts.core.config.ConfigContext;
+import dev.felnull.itts.core.log.LogContext;
+import dev.felnull.itts.core.savedata.SaveDataAccess;
+import org.apache.logging.log4j.LogManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * ベンチマーク用のランタイム<br/>
+ * BOTは起動せず、セーブデータはメモリ上のみで扱う
+ *
+ * @author MORIMORI0317
+ */
+public final class BenchmarkRuntime {
+
+    /**
+     * ベンチマークで使用するサーバーID
+     */
+    public static final long GUILD_ID = 1145141919810L;
+
+    /**
+     * サーバー辞書のリソース
+     */
+    private static final String SERVER_DICT = "server_dict.tsv";
+
+    /**
+     * グローバル辞書のリソース
+     */
+    private static final String GLOBAL_DICT = "global_dict.tsv";
+
+    /**
+     * ランタイム
+     */
+    private static ITTSRuntime runtime;
+
+    private BenchmarkRuntime() {
+    }
+
+    /**
+     * ランタイムを取得する<br/>
+     * 初回呼び出し時にランタイムを作成し、コーパスの辞書を登録する
+     *
+     * @return ランタイム
+     */
+    @NotNull
+    public static ITTSRuntime getRuntime() {
+        return getRuntime(false);
+    }
+
+    /**
+     * ランタイムを取得する<br/>
+     * ランタイムは1つしか作成できないため、仮想スレッドを使用するかどうかは初回呼び出し時のみ反映される
+     *
+     * @param virtualThreads 非同期処理に仮想スレッドを使用するかどうか
+     * @return ランタイム
+     */
+    @NotNull
+    public static synchronized ITTSRuntime getRuntime(boolean virtualThreads) {
+        if (runtime == null) {
+            InMemorySaveDataAccess saveDataAccess = new InMemorySaveDataAccess();
+            runtime = ITTSRuntime.newRuntime(new Context(saveDataAccess, virtualThreads));
+
+            for (Map.Entry<String, String> entry : ChatCorpus.loadDictionary(SERVER_DICT).entrySet()) {
+                saveDataAccess.addServerDictData(GUILD_ID, entry.getKey(), entry.getValue());
+            }
+
+            for (Map.Entry<String, String> entry : ChatCorpus.loadDictionary(GLOBAL_DICT).entrySet()) {
+                saveDataAccess.addGlobalDictData(entry.getKey(), entry.getValue());
+            }
+        }
+
+        return runtime;
+    }
+
+    /**
+     * ベンチマーク用のランタイムコンテキスト
+     *
+     * @param saveDataAccess セーブデータへのアクセス
+     * @param virtualThreads 非同期処理に仮想スレッドを使用するかどうか
+     * @author MORIMORI0317
+     */
+    private record Context(InMemorySaveDataAccess saveDataAccess, boolean virtualThreads) implements ITTSRuntimeContext {
+
+        @Override
+        public @NotNull ConfigContext getConfigContext() {
+            return () -> null;
+        }
+
+        @Override
+        public @NotNull SaveDataAccess getSaveDataAccess() {
+            return saveDataAccess;
+        }
+
+        @Override
+        public @Nullable Supplier<GlobalCacheAccess> getGlobalCacheAccessFactory() {
+            return null;
+        }
+
+        @Override
+        public @NotNull LogContext getLogContext() {
+            return () -> LogManager.getLogger(BenchmarkRuntime.class);
+        }
+
+        @Override
+        public boolean isVirtualThreads() {
+            return virtualThreads;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package dev.felnull.itts.benchmark;
+
+import dev.felnull.itts.core.audio.loader.VoiceTrackLoader;
+import dev.felnull.itts.core.tts.SynthesisTicket;
+import dev.felnull.itts.core.voice.Voice;
+import dev.felnull.itts.core.voice.VoiceType;
+
+/**
+ * ベンチマーク用の声<br/>
+ * 音声の読み込みは行わず、最大読み上げ文字数のみを扱う
+ *
+ * @param readLimit 最大読み上げ文字数
+ * @author MORIMORI0317
+ */
+public record BenchmarkVoice(int readLimit) implements Voice {
+
+    @Override
+    public boolean isAvailable() {
+        return true;
+    }
+
+    @Override
+    public VoiceTrackLoader createVoiceTrackLoader(String text, SynthesisTicket ticket) {
+        throw new UnsupportedOperationException("Voice loading is not supported in benchmarks");
+    }
+
+    @Override
+    public VoiceType getVoiceType() {
+        return null;
+    }
+
+    @Override
+    public int getReadLimit() {
+        return readLimit;
+    }
+}
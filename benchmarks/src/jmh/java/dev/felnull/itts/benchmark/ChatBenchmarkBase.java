@@ -0,0 +1,48 @@
+package dev.felnull.itts.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+/**
+ * チャットメッセージを1件ずつ処理するベンチマークの基底クラス<br/>
+ * 呼び出しごとにコーパスのメッセージを順番に返す
+ *
+ * @author MORIMORI0317
+ */
+@State(Scope.Thread)
+public abstract class ChatBenchmarkBase {
+
+    /**
+     * チャットメッセージ
+     */
+    private List<String> messages;
+
+    /**
+     * 次に返すメッセージの位置
+     */
+    private int index;
+
+    /**
+     * コーパスを読み込む
+     */
+    @Setup(Level.Trial)
+    public void setupMessages() {
+        messages = ChatCorpus.loadMessages();
+        index = 0;
+    }
+
+    /**
+     * 次のメッセージを取得する
+     *
+     * @return メッセージ
+     */
+    protected String nextMessage() {
+        String message = messages.get(index);
+        index = (index + 1) % messages.size();
+        return message;
+    }
+}
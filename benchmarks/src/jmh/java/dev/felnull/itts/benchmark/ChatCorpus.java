@@ -0,0 +1,122 @@
+package dev.felnull.itts.benchmark;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ベンチマーク用のチャットメッセージのコーパス<br/>
+ * 日本語と英語が混ざった実際のチャットに近いメッセージを扱う
+ *
+ * @author MORIMORI0317
+ */
+public final class ChatCorpus {
+
+    /**
+     * コーパスのリソースのパス
+     */
+    private static final String CORPUS_PATH = "/corpus/";
+
+    /**
+     * チャットメッセージのリソース
+     */
+    private static final String CHAT_MESSAGES = "chat.txt";
+
+    /**
+     * チャットメッセージ中のメンションと置き換え後の文字列
+     */
+    private static final Map<String, String> MENTIONS = ImmutableMap.<String, String>builder()
+            .put("<@284775094348660736>", "@いきすぎ太郎")
+            .put("<@!284775094348660736>", "@いきすぎ太郎")
+            .put("<@325594311393476610>", "@MORIMORI")
+            .put("<@!325594311393476610>", "@MORIMORI")
+            .put("<:kusa:1023456789012345678>", ":kusa:")
+            .put("<#1010101010101010101>", "#雑談")
+            .build();
+
+    private ChatCorpus() {
+    }
+
+    /**
+     * チャットメッセージを読み込む<br/>
+     * メッセージ中の"\n"は改行として扱う
+     *
+     * @return チャットメッセージのリスト
+     */
+    @NotNull
+    @Unmodifiable
+    public static List<String> loadMessages() {
+        return readLines(CHAT_MESSAGES).stream()
+                .map(line -> line.replace("\\n", "\n"))
+                .collect(ImmutableList.toImmutableList());
+    }
+
+    /**
+     * 辞書を読み込む<br/>
+     * 1行ごとに置き換え対象と読みをタブで区切る
+     *
+     * @param name リソース名
+     * @return 置き換え対象と読みのマップ
+     */
+    @NotNull
+    public static Map<String, String> loadDictionary(@NotNull String name) {
+        Map<String, String> dict = new LinkedHashMap<>();
+
+        for (String line : readLines(name)) {
+            String[] entry = line.split("\t", 2);
+
+            if (entry.length == 2) {
+                dict.put(entry[0], entry[1]);
+            }
+        }
+
+        return dict;
+    }
+
+    /**
+     * チャットメッセージ中のメンションと置き換え後の文字列のマップを取得する
+     *
+     * @return メンションと置き換え後の文字列のマップ
+     */
+    @NotNull
+    @Unmodifiable
+    public static Map<String, String> getMentions() {
+        return MENTIONS;
+    }
+
+    private static List<String> readLines(String name) {
+        List<String> lines = new ArrayList<>();
+
+        try (InputStream stream = ChatCorpus.class.getResourceAsStream(CORPUS_PATH + name)) {
+            if (stream == null) {
+                throw new IllegalStateException("Corpus not found: " + name);
+            }
+
+            BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                // 空行と#から始まる行は無視
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    lines.add(line);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return lines;
+    }
+}
@@ -0,0 +1,310 @@
+package dev.felnull.itts.benchmark;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import dev.felnull.itts.core.savedata.BotStateData;
+import dev.felnull.itts.core.savedata.DictData;
+import dev.felnull.itts.core.savedata.DictUseData;
+import dev.felnull.itts.core.savedata.SaveDataAccess;
+import dev.felnull.itts.core.savedata.ServerData;
+import dev.felnull.itts.core.savedata.ServerUserData;
+import org.apache.commons.lang3.tuple.Pair;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ベンチマーク用のメモリ上のみで完結するセーブデータ<br/>
+ * ファイルへの保存は行わない
+ *
+ * @author MORIMORI0317
+ */
+public class InMemorySaveDataAccess implements SaveDataAccess {
+
+    /**
+     * サーバーデータ
+     */
+    private final Map<Long, ServerData> serverData = new ConcurrentHashMap<>();
+
+    /**
+     * 辞書使用データ
+     */
+    private final Map<Pair<Long, String>, DictUseData> dictUseData = new ConcurrentHashMap<>();
+
+    /**
+     * サーバー辞書データ
+     */
+    private final Map<Long, Map<String, DictData>> serverDictData = new ConcurrentHashMap<>();
+
+    /**
+     * グローバル辞書データ
+     */
+    private final Map<String, DictData> globalDictData = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean init() {
+        return true;
+    }
+
+    @Override
+    public @NotNull ServerData getServerData(long guildId) {
+        return serverData.computeIfAbsent(guildId, id -> new ServerDataImpl());
+    }
+
+    @Override
+    public @NotNull ServerUserData getServerUserData(long guildId, long userId) {
+        throw new UnsupportedOperationException("Server user data is not used in benchmarks");
+    }
+
+    @Override
+    public @NotNull DictUseData getDictUseData(long guildId, @NotNull String dictId) {
+        return dictUseData.computeIfAbsent(Pair.of(guildId, dictId), key -> new DictUseDataImpl(dictId, DictUseData.initPriority(dictId)));
+    }
+
+    @Override
+    public @NotNull BotStateData getBotStateData(long guildId) {
+        throw new UnsupportedOperationException("Bot state data is not used in benchmarks");
+    }
+
+    @Override
+    public @NotNull @Unmodifiable Map<Long, BotStateData> getAllBotStateData() {
+        return ImmutableMap.of();
+    }
+
+    @Override
+    public @NotNull @Unmodifiable List<DictData> getAllServerDictData(long guildId) {
+        Map<String, DictData> dict = serverDictData.get(guildId);
+
+        if (dict == null) {
+            return ImmutableList.of();
+        }
+
+        return ImmutableList.copyOf(dict.values());
+    }
+
+    @Override
+    public @Nullable DictData getServerDictData(long guildId, @NotNull String target) {
+        Map<String, DictData> dict = serverDictData.get(guildId);
+
+        if (dict == null) {
+            return null;
+        }
+
+        return dict.get(target);
+    }
+
+    @Override
+    public void addServerDictData(long guildId, @NotNull String target, @NotNull String read) {
+        serverDictData.computeIfAbsent(guildId, id -> new ConcurrentHashMap<>())
+                .put(target, new DictDataImpl(target, read));
+    }
+
+    @Override
+    public void removeServerDictData(long guildId, @NotNull String target) {
+        Map<String, DictData> dict = serverDictData.get(guildId);
+
+        if (dict != null) {
+            dict.remove(target);
+        }
+    }
+
+    @Override
+    public @NotNull @Unmodifiable List<DictData> getAllGlobalDictData() {
+        return ImmutableList.copyOf(globalDictData.values());
+    }
+
+    @Override
+    public @Nullable DictData getGlobalDictData(@NotNull String target) {
+        return globalDictData.get(target);
+    }
+
+    @Override
+    public void addGlobalDictData(@NotNull String target, @NotNull String read) {
+        globalDictData.put(target, new DictDataImpl(target, read));
+    }
+
+    @Override
+    public void removeGlobalDictData(@NotNull String target) {
+        globalDictData.remove(target);
+    }
+
+    @Override
+    public @NotNull @Unmodifiable List<Long> getAllDenyUser(long guildId) {
+        return ImmutableList.of();
+    }
+
+    /**
+     * 辞書データの実装
+     *
+     * @param target 置き換え対象の文字列
+     * @param read   置き換え後の文字列
+     * @author MORIMORI0317
+     */
+    private record DictDataImpl(@NotNull String target, @NotNull String read) implements DictData {
+
+        @Override
+        public @NotNull String getTarget() {
+            return target;
+        }
+
+        @Override
+        public @NotNull String getRead() {
+            return read;
+        }
+    }
+
+    /**
+     * 辞書使用データの実装
+     *
+     * @author MORIMORI0317
+     */
+    private static final class DictUseDataImpl implements DictUseData {
+
+        /**
+         * 辞書ID
+         */
+        private final String dictId;
+
+        /**
+         * 優先度
+         */
+        private volatile int priority;
+
+        private DictUseDataImpl(String dictId, int priority) {
+            this.dictId = dictId;
+            this.priority = priority;
+        }
+
+        @Override
+        public @NotNull String getDictId() {
+            return dictId;
+        }
+
+        @Override
+        public int getPriority() {
+            return priority;
+        }
+
+        @Override
+        public void setPriority(int priority) {
+            this.priority = priority;
+        }
+    }
+
+    /**
+     * サーバーデータの実装
+     *
+     * @author MORIMORI0317
+     */
+    private static final class ServerDataImpl implements ServerData {
+
+        /**
+         * デフォルトの音声タイプ
+         */
+        private volatile String defaultVoiceType = INIT_DEFAULT_VOICE_TYPE;
+
+        /**
+         * 無視する正規表現
+         */
+        private volatile String ignoreRegex = INIT_IGNORE_REGEX;
+
+        /**
+         * 参加時のみ読み上げを行うかどうか
+         */
+        private volatile boolean needJoin = INIT_NEED_JOIN;
+
+        /**
+         * 読み上げを上書きするかどうか
+         */
+        private volatile boolean overwriteAloud = INIT_OVERWRITE_ALOUD;
+
+        /**
+         * 参加時に読み上げるかどうか
+         */
+        private volatile boolean notifyMove = INIT_NOTIFY_MOVE;
+
+        /**
+         * 読み上げ数
+         */
+        private volatile int readLimit = INIT_READ_LIMIT;
+
+        /**
+         * 名前読み上げ数
+         */
+        private volatile int nameReadLimit = INIT_NAME_READ_LIMIT;
+
+        @Override
+        public @Nullable String getDefaultVoiceType() {
+            return defaultVoiceType;
+        }
+
+        @Override
+        public void setDefaultVoiceType(@Nullable String voiceType) {
+            this.defaultVoiceType = voiceType;
+        }
+
+        @Override
+        public @Nullable String getIgnoreRegex() {
+            return ignoreRegex;
+        }
+
+        @Override
+        public void setIgnoreRegex(@Nullable String ignoreRegex) {
+            this.ignoreRegex = ignoreRegex;
+        }
+
+        @Override
+        public boolean isNeedJoin() {
+            return needJoin;
+        }
+
+        @Override
+        public void setNeedJoin(boolean needJoin) {
+            this.needJoin = needJoin;
+        }
+
+        @Override
+        public boolean isOverwriteAloud() {
+            return overwriteAloud;
+        }
+
+        @Override
+        public void setOverwriteAloud(boolean overwriteAloud) {
+            this.overwriteAloud = overwriteAloud;
+        }
+
+        @Override
+        public boolean isNotifyMove() {
+            return notifyMove;
+        }
+
+        @Override
+        public void setNotifyMove(boolean notifyMove) {
+            this.notifyMove = notifyMove;
+        }
+
+        @Override
+        public int getReadLimit() {
+            return readLimit;
+        }
+
+        @Override
+        public void setReadLimit(int readLimit) {
+            this.readLimit = readLimit;
+        }
+
+        @Override
+        public int getNameReadLimit() {
+            return nameReadLimit;
+        }
+
+        @Override
+        public void setNameReadLimit(int nameReadLimit) {
+            this.nameReadLimit = nameReadLimit;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package dev.felnull.itts.benchmark;
+
+import dev.felnull.itts.core.dict.DictionaryManager;
+import dev.felnull.itts.core.util.DiscordUtils;
+import dev.felnull.itts.core.util.TTSUtils;
+import dev.felnull.itts.core.voice.Voice;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * チャットメッセージから読み上げテキストを作成するまでの処理全体のベンチマーク<br/>
+ * メンションの置き換え、辞書の適用、文字数制限の順に行う
+ *
+ * @author MORIMORI0317
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TextPipelineBenchmark extends ChatBenchmarkBase {
+
+    /**
+     * 辞書マネージャー
+     */
+    private DictionaryManager dictionaryManager;
+
+    /**
+     * 声
+     */
+    private Voice voice;
+
+    /**
+     * メンションと置き換え後の文字列
+     */
+    private Map<String, String> mentions;
+
+    /**
+     * ランタイムを用意する
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        dictionaryManager = BenchmarkRuntime.getRuntime().getDictionaryManager();
+        voice = new BenchmarkVoice(Integer.MAX_VALUE);
+        mentions = ChatCorpus.getMentions();
+    }
+
+    /**
+     * 1メッセージ分の処理
+     *
+     * @return 読み上げテキスト
+     */
+    @Benchmark
+    public String message() {
+        String text = DiscordUtils.replaceMentions(nextMessage(), mentions);
+        text = dictionaryManager.applyDict(text, BenchmarkRuntime.GUILD_ID);
+        return TTSUtils.roundText(voice, BenchmarkRuntime.GUILD_ID, text, false);
+    }
+}
@@ -0,0 +1,124 @@
+package dev.felnull.itts.benchmark.dict;
+
+import dev.felnull.itts.core.dict.AhoCorasickReplacer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * 文字列リテラルの辞書置き換えのベンチマーク<br/>
+ * 辞書エントリごとに正規表現で置き換える従来の処理と、Aho-Corasick法で一括で置き換える処理を比較する
+ *
+ * @author MORIMORI0317
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AhoCorasickReplacerBenchmark {
+
+    /**
+     * 単語生成用の文字
+     */
+    private static final String WORD_CHARS = "あいうえおかきくけこさしすせそたちつてとアイウエオカキクケコサシスセソabcdefghijklmnopqrstuvwxyz漢字辞書読上";
+
+    /**
+     * 辞書エントリ数
+     */
+    @Param({"10", "100", "1000", "10000"})
+    private int entryCount;
+
+    /**
+     * 置き換え対象のテキスト
+     */
+    private String text;
+
+    /**
+     * 正規表現と置き換え後の文字列
+     */
+    private List<Map.Entry<Pattern, String>> regexReplaces;
+
+    /**
+     * Aho-Corasick法での置き換え
+     */
+    private AhoCorasickReplacer ahoCorasickReplacer;
+
+    /**
+     * 準備
+     */
+    @Setup
+    public void setup() {
+        Random random = new Random(114514);
+        Map<String, String> replaces = new LinkedHashMap<>();
+
+        while (replaces.size() < entryCount) {
+            replaces.put(randomWord(random, 2 + random.nextInt(6)), randomWord(random, 3 + random.nextInt(6)));
+        }
+
+        List<String> targets = new ArrayList<>(replaces.keySet());
+        StringBuilder sb = new StringBuilder();
+
+        while (sb.length() < 200) {
+            if (random.nextInt(4) == 0) {
+                sb.append(targets.get(random.nextInt(targets.size())));
+            } else {
+                sb.append(randomWord(random, 1 + random.nextInt(4)));
+            }
+        }
+
+        this.text = sb.toString();
+        this.regexReplaces = replaces.entrySet().stream()
+                .map(it -> Map.entry(Pattern.compile(it.getKey()), it.getValue()))
+                .toList();
+        this.ahoCorasickReplacer = new AhoCorasickReplacer(replaces);
+    }
+
+    private static String randomWord(Random random, int length) {
+        StringBuilder sb = new StringBuilder(length);
+
+        for (int i = 0; i < length; i++) {
+            sb.append(WORD_CHARS.charAt(random.nextInt(WORD_CHARS.length())));
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * 辞書エントリごとに正規表現で置き換える
+     *
+     * @return 置き換え済みテキスト
+     */
+    @Benchmark
+    public String regexLoop() {
+        String ret = text;
+
+        for (Map.Entry<Pattern, String> replace : regexReplaces) {
+            String read = replace.getValue();
+            ret = replace.getKey().matcher(ret).replaceAll(res -> read);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Aho-Corasick法で一括で置き換える
+     *
+     * @return 置き換え済みテキスト
+     */
+    @Benchmark
+    public String ahoCorasick() {
+        return ahoCorasickReplacer.replace(text);
+    }
+}
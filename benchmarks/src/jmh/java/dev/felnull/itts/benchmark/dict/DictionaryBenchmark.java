@@ -0,0 +1,151 @@
+package dev.felnull.itts.benchmark.dict;
+
+import dev.felnull.itts.benchmark.BenchmarkRuntime;
+import dev.felnull.itts.benchmark.ChatBenchmarkBase;
+import dev.felnull.itts.core.dict.CompiledDictionary;
+import dev.felnull.itts.core.dict.Dictionary;
+import dev.felnull.itts.core.dict.DictionaryManager;
+import dev.felnull.itts.core.dict.RegexUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 辞書のベンチマーク<br/>
+ * 辞書ごとの適用処理と、全ての辞書を優先度順に適用する処理を計測する
+ *
+ * @author MORIMORI0317
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DictionaryBenchmark extends ChatBenchmarkBase {
+
+    /**
+     * 辞書マネージャー
+     */
+    private DictionaryManager dictionaryManager;
+
+    /**
+     * グローバル辞書
+     */
+    private CompiledDictionary globalDictionary;
+
+    /**
+     * サーバー辞書
+     */
+    private CompiledDictionary serverDictionary;
+
+    /**
+     * 省略辞書
+     */
+    private Dictionary abbreviationDictionary;
+
+    /**
+     * 単位辞書
+     */
+    private Dictionary unitDictionary;
+
+    /**
+     * ローマ字読み辞書
+     */
+    private Dictionary romajiDictionary;
+
+    /**
+     * 正規表現関係
+     */
+    private RegexUtil regexUtil;
+
+    /**
+     * 辞書を用意する
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        dictionaryManager = BenchmarkRuntime.getRuntime().getDictionaryManager();
+        globalDictionary = getDictionary("global").compile(BenchmarkRuntime.GUILD_ID);
+        serverDictionary = getDictionary("server").compile(BenchmarkRuntime.GUILD_ID);
+        abbreviationDictionary = getDictionary("abbreviation");
+        unitDictionary = getDictionary("unit");
+        romajiDictionary = getDictionary("romaji");
+        regexUtil = new RegexUtil();
+    }
+
+    private Dictionary getDictionary(String id) {
+        return Objects.requireNonNull(dictionaryManager.getDictionary(id, BenchmarkRuntime.GUILD_ID));
+    }
+
+    /**
+     * 有効な全ての辞書を優先度順に適用
+     *
+     * @return 適用済みテキスト
+     */
+    @Benchmark
+    public String applyDict() {
+        return dictionaryManager.applyDict(nextMessage(), BenchmarkRuntime.GUILD_ID);
+    }
+
+    /**
+     * グローバル辞書
+     *
+     * @return 適用済みテキスト
+     */
+    @Benchmark
+    public String global() {
+        return globalDictionary.apply(nextMessage());
+    }
+
+    /**
+     * サーバー辞書
+     *
+     * @return 適用済みテキスト
+     */
+    @Benchmark
+    public String server() {
+        return serverDictionary.apply(nextMessage());
+    }
+
+    /**
+     * 省略辞書
+     *
+     * @return 適用済みテキスト
+     */
+    @Benchmark
+    public String abbreviation() {
+        return abbreviationDictionary.apply(nextMessage(), BenchmarkRuntime.GUILD_ID);
+    }
+
+    /**
+     * 単位辞書
+     *
+     * @return 適用済みテキスト
+     */
+    @Benchmark
+    public String unit() {
+        return unitDictionary.apply(nextMessage(), BenchmarkRuntime.GUILD_ID);
+    }
+
+    /**
+     * ローマ字読み辞書
+     *
+     * @return 適用済みテキスト
+     */
+    @Benchmark
+    public String romaji() {
+        return romajiDictionary.apply(nextMessage(), BenchmarkRuntime.GUILD_ID);
+    }
+
+    /**
+     * URLやIPアドレスの省略
+     *
+     * @return 置き換え済みテキスト
+     */
+    @Benchmark
+    public String regexUtil() {
+        return regexUtil.replaceText(nextMessage());
+    }
+}
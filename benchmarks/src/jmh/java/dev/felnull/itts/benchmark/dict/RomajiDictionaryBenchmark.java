@@ -0,0 +1,58 @@
+package dev.felnull.itts.benchmark.dict;
+
+import com.ibm.icu.text.Transliterator;
+import dev.felnull.itts.benchmark.ChatBenchmarkBase;
+import dev.felnull.itts.core.dict.RomajiDictionary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ローマ字読み辞書のベンチマーク<br/>
+ * メッセージごとにTransliteratorを作成する従来の処理と、作成済みのTransliteratorを使いまわす処理を比較する
+ *
+ * @author MORIMORI0317
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RomajiDictionaryBenchmark extends ChatBenchmarkBase {
+
+    /**
+     * ローマ字読み辞書
+     */
+    private RomajiDictionary romajiDictionary;
+
+    /**
+     * 辞書を用意する
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        romajiDictionary = new RomajiDictionary();
+    }
+
+    /**
+     * メッセージごとにTransliteratorを作成する
+     *
+     * @return 変換済みテキスト
+     */
+    @Benchmark
+    public String createEachMessage() {
+        Transliterator transliterator = Transliterator.getInstance("Latin-Hiragana");
+        return transliterator.transliterate(nextMessage());
+    }
+
+    /**
+     * 作成済みのTransliteratorを使いまわす
+     *
+     * @return 変換済みテキスト
+     */
+    @Benchmark
+    public String pooled() {
+        return romajiDictionary.apply(nextMessage(), 0);
+    }
+}
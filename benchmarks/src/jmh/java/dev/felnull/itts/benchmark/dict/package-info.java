@@ -0,0 +1,4 @@
+/**
+ * 辞書関係のベンチマーク
+ */
+package dev.felnull.itts.benchmark.dict;
@@ -0,0 +1,4 @@
+/**
+ * JMHによるベンチマーク
+ */
+package dev.felnull.itts.benchmark;
@@ -0,0 +1,106 @@
+package dev.felnull.itts.benchmark.util;
+
+import dev.felnull.itts.benchmark.BenchmarkRuntime;
+import dev.felnull.itts.core.util.ApoptosisObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ApoptosisObject}のベンチマーク<br/>
+ * メッセージごとにセーブデータを取得する場合のように、多数のオブジェクトの生存時間を延長し続ける<br/>
+ * 生存時間の延長で新たなオブジェクトを作成していないことは、{@code -prof gc}を指定して実行し、gc.alloc.rate.normで確認する
+ *
+ * @author MORIMORI0317
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ApoptosisObjectBenchmark {
+
+    /**
+     * ベンチマーク中に期限切れにならない生存時間
+     */
+    private static final long LIFE_TIME = TimeUnit.HOURS.toMillis(1);
+
+    /**
+     * オブジェクトの数
+     */
+    @Param({"10000"})
+    private int objectCount;
+
+    /**
+     * オブジェクト
+     */
+    private TestObject[] objects;
+
+    /**
+     * 次に延長するオブジェクトの位置
+     */
+    private int index;
+
+    /**
+     * オブジェクトを用意する
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkRuntime.getRuntime();
+
+        objects = new TestObject[objectCount];
+        for (int i = 0; i < objectCount; i++) {
+            objects[i] = new TestObject();
+        }
+    }
+
+    /**
+     * オブジェクトを破棄する
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        for (TestObject object : objects) {
+            object.broke();
+        }
+    }
+
+    /**
+     * 生存時間の延長
+     */
+    @Benchmark
+    public void extensionLife() {
+        objects[index].extensionLife();
+        index = (index + 1) % objectCount;
+    }
+
+    /**
+     * オブジェクトの作成と破棄
+     */
+    @Benchmark
+    public void createAndBroke() {
+        new TestObject().broke();
+    }
+
+    /**
+     * ベンチマーク用のオブジェクト
+     *
+     * @author MORIMORI0317
+     */
+    private static final class TestObject extends ApoptosisObject {
+
+        private TestObject() {
+            super(LIFE_TIME);
+        }
+
+        @Override
+        protected void lifeEnd(boolean force) {
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package dev.felnull.itts.benchmark.util;
+
+import dev.felnull.itts.benchmark.ChatBenchmarkBase;
+import dev.felnull.itts.benchmark.ChatCorpus;
+import dev.felnull.itts.core.util.DiscordUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link DiscordUtils}のベンチマーク
+ *
+ * @author MORIMORI0317
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DiscordUtilsBenchmark extends ChatBenchmarkBase {
+
+    /**
+     * メンションと置き換え後の文字列
+     */
+    private Map<String, String> mentions;
+
+    /**
+     * メンションを用意する
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        mentions = ChatCorpus.getMentions();
+    }
+
+    /**
+     * メンションの置き換え
+     *
+     * @return 置き換え済みテキスト
+     */
+    @Benchmark
+    public String replaceMentions() {
+        return DiscordUtils.replaceMentions(nextMessage(), mentions);
+    }
+}
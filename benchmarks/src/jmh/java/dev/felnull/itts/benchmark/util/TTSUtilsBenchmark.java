@@ -0,0 +1,70 @@
+package dev.felnull.itts.benchmark.util;
+
+import dev.felnull.itts.benchmark.BenchmarkRuntime;
+import dev.felnull.itts.benchmark.BenchmarkVoice;
+import dev.felnull.itts.benchmark.ChatBenchmarkBase;
+import dev.felnull.itts.core.util.TTSUtils;
+import dev.felnull.itts.core.voice.Voice;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TTSUtils}のベンチマーク
+ *
+ * @author MORIMORI0317
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TTSUtilsBenchmark extends ChatBenchmarkBase {
+
+    /**
+     * 声
+     */
+    private Voice voice;
+
+    /**
+     * ランタイムを用意する
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkRuntime.getRuntime();
+        voice = new BenchmarkVoice(Integer.MAX_VALUE);
+    }
+
+    /**
+     * メッセージの文字数制限
+     *
+     * @return 読み上げテキスト
+     */
+    @Benchmark
+    public String roundText() {
+        return TTSUtils.roundText(voice, BenchmarkRuntime.GUILD_ID, nextMessage(), false);
+    }
+
+    /**
+     * 名前の文字数制限
+     *
+     * @return 読み上げテキスト
+     */
+    @Benchmark
+    public String roundName() {
+        return TTSUtils.roundText(voice, BenchmarkRuntime.GUILD_ID, nextMessage(), true);
+    }
+
+    /**
+     * 文の区切りでの分割
+     *
+     * @return 分割したテキスト
+     */
+    @Benchmark
+    public List<String> splitSentences() {
+        return TTSUtils.splitSentences(nextMessage());
+    }
+}
@@ -0,0 +1,160 @@
+package dev.felnull.itts.benchmark.util;
+
+import dev.felnull.itts.benchmark.BenchmarkRuntime;
+import dev.felnull.itts.core.ITTSRuntime;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 非同期処理用エクスキューターの負荷試験<br/>
+ * 多数のサーバーで同時に読み上げが行われた場合を想定し、セーブデータの取得やメンバーの取得のように、エクスキューター内で別の処理の完了を待つ処理を同時に実行する<br/>
+ * ランタイムの非同期処理用エクスキューターを使用して全てのサーバーの処理が終わるまでの時間を計測し、その間の通常のスレッド数の最大値を補助カウンターとして出力する<br/>
+ * 仮想スレッドはJava21以降でのみ計測でき、対応していないJavaでは失敗する
+ *
+ * @author MORIMORI0317
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+public class WorkerExecutorBenchmark {
+
+    /**
+     * エクスキューターの種類
+     */
+    @Param({"platform", "virtual"})
+    private String executorType;
+
+    /**
+     * 同時に読み上げを行うサーバー数
+     */
+    @Param({"500"})
+    private int guildCount;
+
+    /**
+     * 1回の待機時間(ms)
+     */
+    @Param({"20"})
+    private long blockingTime;
+
+    /**
+     * エクスキューター
+     */
+    private Executor executor;
+
+    /**
+     * ランタイムの非同期処理用エクスキューターを用意する<br/>
+     * ベンチマークのパラメーターごとに別のプロセスで実行されるため、パラメーターに合わせてランタイムを作成できる
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        boolean virtual = "virtual".equals(executorType);
+        ITTSRuntime runtime = BenchmarkRuntime.getRuntime(virtual);
+
+        if (runtime.isVirtualThreads() != virtual) {
+            throw new IllegalStateException("Virtual threads are not supported by this Java runtime");
+        }
+
+        executor = runtime.getAsyncWorkerExecutor();
+    }
+
+    /**
+     * 全てのサーバーで同時に読み上げを行う
+     *
+     * @param threadCounters スレッド数の計測
+     * @throws InterruptedException 割り込み例外
+     * @throws ExecutionException   実行例外
+     */
+    @Benchmark
+    public void burst(ThreadCounters threadCounters) throws InterruptedException, ExecutionException {
+        List<CompletableFuture<?>> futures = new ArrayList<>(guildCount);
+
+        for (int i = 0; i < guildCount; i++) {
+            futures.add(CompletableFuture.runAsync(this::sayText, executor));
+        }
+
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get();
+        threadCounters.record();
+    }
+
+    /**
+     * 1つのサーバーの読み上げ<br/>
+     * セーブデータの取得を同じエクスキューター内で待ち、その後にメンバーの取得を待つ
+     */
+    private void sayText() {
+        try {
+            CompletableFuture.runAsync(this::block, executor).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e);
+        }
+
+        block();
+    }
+
+    private void block() {
+        try {
+            Thread.sleep(blockingTime);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * イテレーション中の通常のスレッド数の最大値の計測
+     *
+     * @author MORIMORI0317
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class ThreadCounters {
+
+        /**
+         * 通常のスレッド数の最大値
+         */
+        public long peakPlatformThreads;
+
+        /**
+         * スレッドの情報
+         */
+        private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+        /**
+         * スレッド数の最大値を初期化する
+         */
+        @Setup(Level.Iteration)
+        public void reset() {
+            threadMXBean.resetPeakThreadCount();
+            peakPlatformThreads = 0;
+        }
+
+        /**
+         * スレッド数の最大値を記録する
+         */
+        public void record() {
+            peakPlatformThreads = threadMXBean.getPeakThreadCount();
+        }
+    }
+}
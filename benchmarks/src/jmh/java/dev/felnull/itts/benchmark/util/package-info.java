@@ -0,0 +1,4 @@
+/**
+ * ユーティリティ関係のベンチマーク
+ */
+package dev.felnull.itts.benchmark.util;
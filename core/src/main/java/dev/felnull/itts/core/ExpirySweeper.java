@@ -0,0 +1,122 @@
+package dev.felnull.itts.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 期限切れのオブジェクトを一定間隔でまとめて確認し、破棄するスイーパー<br/>
+ * オブジェクトごとにタイマーをスケジュールしないため、使用のたびに生存時間を延長しても新たなオブジェクトを作成しない<br/>
+ * 確認は一定間隔ごとに行うため、期限切れから破棄までは最大で確認の間隔だけ遅れる
+ *
+ * @author MORIMORI0317
+ */
+public class ExpirySweeper implements ITTSRuntimeUse {
+
+    /**
+     * 確認の間隔(ms)
+     */
+    private static final long SWEEP_INTERVAL = 500L;
+
+    /**
+     * 登録中のエントリ
+     */
+    private final Set<ExpiryEntry> entries = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 期限切れのエントリ (タイマーのスレッドでのみ使用する)
+     */
+    private final List<ExpiryEntry> expiredEntries = new ArrayList<>();
+
+    /**
+     * コンストラクタ
+     *
+     * @param timer 確認に使用するタイマー
+     */
+    public ExpirySweeper(ImmortalityTimer timer) {
+        timer.schedule(new ImmortalityTimer.ImmortalityTimerTask() {
+            @Override
+            public void run() {
+                sweep();
+            }
+        }, SWEEP_INTERVAL, SWEEP_INTERVAL);
+    }
+
+    /**
+     * エントリを登録する<br/>
+     * 既に登録されている場合は何もしない
+     *
+     * @param entry エントリ
+     */
+    public void register(ExpiryEntry entry) {
+        entries.add(entry);
+    }
+
+    /**
+     * エントリの登録を解除する
+     *
+     * @param entry エントリ
+     */
+    public void unregister(ExpiryEntry entry) {
+        entries.remove(entry);
+    }
+
+    /**
+     * 全てのエントリを確認し、期限切れのエントリの登録を解除して破棄処理をまとめて非同期で行う
+     */
+    private void sweep() {
+        long now = System.currentTimeMillis();
+
+        for (ExpiryEntry entry : entries) {
+            if (entry.isExpired(now) && entries.remove(entry)) {
+                expiredEntries.add(entry);
+            }
+        }
+
+        if (expiredEntries.isEmpty()) {
+            return;
+        }
+
+        List<ExpiryEntry> expired = List.copyOf(expiredEntries);
+        expiredEntries.clear();
+
+        CompletableFuture.runAsync(() -> {
+            for (ExpiryEntry entry : expired) {
+                try {
+                    entry.expire();
+                } catch (Exception ex) {
+                    getITTSRuntime().getLogger().error("An error occurred while expiring the entry", ex);
+                }
+            }
+        }, getAsyncExecutor());
+    }
+
+    public int getEntryCount() {
+        return entries.size();
+    }
+
+    /**
+     * スイーパーに登録するエントリ<br/>
+     * 期限の判定は登録中に繰り返し呼ばれるため、新たなオブジェクトを作成しないようにする
+     *
+     * @author MORIMORI0317
+     */
+    public abstract static class ExpiryEntry {
+
+        /**
+         * 期限切れかどうか
+         *
+         * @param now 現在時刻(ms)
+         * @return 期限切れかどうか
+         */
+        protected abstract boolean isExpired(long now);
+
+        /**
+         * 期限切れになった場合の処理<br/>
+         * 非同期処理用のエクスキューターで呼ばれる
+         */
+        protected abstract void expire();
+    }
+}
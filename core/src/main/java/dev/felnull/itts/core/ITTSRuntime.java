@@ -8,6 +8,7 @@ import dev.felnull.itts.core.dict.DictionaryManager;
 import dev.felnull.itts.core.discord.Bot;
 import dev.felnull.itts.core.savedata.SaveDataManager;
 import dev.felnull.itts.core.tts.TTSManager;
+import dev.felnull.itts.core.util.ThreadUtils;
 import dev.felnull.itts.core.voice.VoiceManager;
 import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.apache.logging.log4j.Logger;
@@ -15,7 +16,6 @@ import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
 import java.util.Objects;
-import java.util.Timer;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
@@ -40,21 +40,21 @@ public class ITTSRuntime {
     /**
      * 非同期処理用エクスキューター
      */
-    private final ExecutorService asyncWorkerExecutor = Executors.newCachedThreadPool(new BasicThreadFactory.Builder()
-            .namingPattern("async-worker-%d")
-            .daemon(true)
-            .build());
+    private final ExecutorService asyncWorkerExecutor;
 
     /**
      * HTTP接続の制御を行うためのエクスキューター
      */
-    private final ExecutorService httpWorkerExecutor = Executors.newCachedThreadPool(new BasicThreadFactory.Builder()
-            .namingPattern("http-worker-%d")
-            .daemon(true)
-            .build());
+    private final ExecutorService httpWorkerExecutor;
 
     /**
-     * 重い処理を行うエクスキューター
+     * 非同期処理とHTTP接続の制御に仮想スレッドを使用しているかどうか
+     */
+    private final boolean virtualThreads;
+
+    /**
+     * 重い処理を行うエクスキューター<br/>
+     * 仮想スレッドを使用する場合も、CPUを多く使う処理のために数を制限した通常のスレッドを使用する
      */
     private final ExecutorService heavyWorkerExecutor = Executors.newFixedThreadPool(Math.max(Runtime.getRuntime().availableProcessors(), 1),
             new BasicThreadFactory.Builder().namingPattern("heavy-worker-thread-%d").daemon(true).build());
@@ -62,7 +62,12 @@ public class ITTSRuntime {
     /**
      * タイマー
      */
-    private final ImmortalityTimer immortalityTimer = new ImmortalityTimer(new Timer("immortality-timer", true));
+    private final ImmortalityTimer immortalityTimer = new ImmortalityTimer("immortality-timer");
+
+    /**
+     * 期限切れのオブジェクトのスイーパー
+     */
+    private final ExpirySweeper expirySweeper = new ExpirySweeper(immortalityTimer);
 
     /**
      * ディレクトリロック
@@ -145,6 +150,22 @@ public class ITTSRuntime {
 
         this.logger = runtimeContext.getLogContext().getLogger();
 
+        ExecutorService virtualAsyncExecutor = null;
+        ExecutorService virtualHttpExecutor = null;
+
+        if (runtimeContext.isVirtualThreads()) {
+            virtualAsyncExecutor = ThreadUtils.newVirtualThreadPerTaskExecutor("async-worker-");
+            virtualHttpExecutor = ThreadUtils.newVirtualThreadPerTaskExecutor("http-worker-");
+
+            if (virtualAsyncExecutor == null || virtualHttpExecutor == null) {
+                logger.warn("Virtual threads are not supported by this Java runtime, platform threads are used instead");
+            }
+        }
+
+        this.virtualThreads = virtualAsyncExecutor != null && virtualHttpExecutor != null;
+        this.asyncWorkerExecutor = virtualThreads ? virtualAsyncExecutor : createCachedThreadPool("async-worker-%d");
+        this.httpWorkerExecutor = virtualThreads ? virtualHttpExecutor : createCachedThreadPool("http-worker-%d");
+
         String v = ITTSRuntime.class.getPackage().getImplementationVersion();
         this.developmentEnvironment = v == null;
         this.version = Objects.requireNonNullElse(v, "None");
@@ -154,7 +175,14 @@ public class ITTSRuntime {
         this.saveDataManager = new SaveDataManager(runtimeContext.getSaveDataAccess());
         this.cacheManager = new CacheManager(runtimeContext.getGlobalCacheAccessFactory());
 
-        this.managers = ImmutableList.of(configManager, saveDataManager, voiceManager);
+        this.managers = ImmutableList.of(configManager, cacheManager, saveDataManager, voiceManager);
+    }
+
+    private static ExecutorService createCachedThreadPool(String namingPattern) {
+        return Executors.newCachedThreadPool(new BasicThreadFactory.Builder()
+                .namingPattern(namingPattern)
+                .daemon(true)
+                .build());
     }
 
     /**
@@ -196,6 +224,7 @@ public class ITTSRuntime {
         logger.info("OS: {}", System.getProperty("os.name"));
         logger.info("Arch: {}", System.getProperty("os.arch"));
         logger.info("Available Processors: {}", Runtime.getRuntime().availableProcessors());
+        logger.info("Virtual threads: {}", virtualThreads ? "Enabled" : "Disabled");
         logger.info("---------------");
 
         logger.info("Start setup");
@@ -206,6 +235,8 @@ public class ITTSRuntime {
 
         logger.info("Setup complete");
 
+        cacheManager.getCacheWarmer().warm();
+
         bot.start();
     }
 
@@ -225,10 +256,18 @@ public class ITTSRuntime {
         return httpWorkerExecutor;
     }
 
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
     public ImmortalityTimer getImmortalityTimer() {
         return immortalityTimer;
     }
 
+    public ExpirySweeper getExpirySweeper() {
+        return expirySweeper;
+    }
+
     public boolean isDevelopmentEnvironment() {
         return developmentEnvironment;
     }
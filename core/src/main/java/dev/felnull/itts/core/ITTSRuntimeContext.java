@@ -47,4 +47,12 @@ public interface ITTSRuntimeContext {
      */
     @NotNull
     LogContext getLogContext();
+
+    /**
+     * 非同期処理とHTTP接続の制御に仮想スレッドを使用するかどうかを取得<br/>
+     * 実行中のJavaが仮想スレッドに対応していない場合は、通常のスレッドを使用する
+     *
+     * @return 仮想スレッドを使用するかどうか
+     */
+    boolean isVirtualThreads();
 }
@@ -48,6 +48,10 @@ public interface ITTSRuntimeUse {
         return getITTSRuntime().getImmortalityTimer();
     }
 
+    default ExpirySweeper getExpirySweeper() {
+        return getITTSRuntime().getExpirySweeper();
+    }
+
     default ConfigManager getConfigManager() {
         return getITTSRuntime().getConfigManager();
     }
@@ -1,79 +1,316 @@
 package dev.felnull.itts.core;
 
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
- * 処理中にエラーが発生しても停止しないタイマー
- * 元のタイマーをラップする
+ * 処理中にエラーが発生しても停止しないタイマー<br/>
+ * ハッシュ化したタイミングホイールで実装し、大量のタスクを登録してもスケジュールとキャンセルを一定時間で行う<br/>
+ * タスクは一定間隔(ティック)ごとにまとめて実行するため、実行時刻はティックの長さだけ遅れる場合がある
  *
  * @author MORIMORI0317
  */
 public class ImmortalityTimer implements ITTSRuntimeUse {
 
     /**
-     * ラップされるタイマー
+     * 1ティックの長さ(ms)
      */
-    private final Timer timer;
+    private static final long TICK_DURATION = 10L;
+
+    /**
+     * ホイールの枠の数 (2の累乗)
+     */
+    private static final int WHEEL_SIZE = 512;
+
+    /**
+     * 1ティックの長さ(ns)
+     */
+    private final long tickDuration = TimeUnit.MILLISECONDS.toNanos(TICK_DURATION);
+
+    /**
+     * ホイールの枠ごとのタスクの連結リストの先頭
+     */
+    private final ImmortalityTimerTask[] wheel = new ImmortalityTimerTask[WHEEL_SIZE];
+
+    /**
+     * 状態の更新用ロック
+     */
+    private final Object lock = new Object();
+
+    /**
+     * 実行するタスク (ワーカースレッドでのみ使用する)
+     */
+    private final List<ImmortalityTimerTask> expiredTasks = new ArrayList<>();
+
+    /**
+     * 開始時刻(ns)
+     */
+    private final long startTime = System.nanoTime();
+
+    /**
+     * 次に処理するティック
+     */
+    private long tick;
+
+    /**
+     * 登録中のタスクの数
+     */
+    private int taskCount;
 
     /**
      * コンストラクタ
      *
-     * @param timer ラップされるタイマー
+     * @param name ワーカースレッドの名前
      */
-    public ImmortalityTimer(Timer timer) {
-        this.timer = timer;
+    public ImmortalityTimer(String name) {
+        Thread workerThread = new Thread(this::work, name);
+        workerThread.setDaemon(true);
+        workerThread.start();
     }
 
     /**
-     * Timerのscheduleと同機能
+     * 指定時間後にタスクを実行する<br/>
+     * 実行済みもしくはキャンセル済みのタスクは、再度スケジュールすることができる
      *
      * @param task  タスク
-     * @param delay 遅延
-     * @see Timer
+     * @param delay 遅延(ms)
+     * @throws IllegalStateException タスクが既にスケジュールされている場合
      */
     public void schedule(ImmortalityTimerTask task, long delay) {
-        timer.schedule(task.task, delay);
+        schedule(task, delay, 0);
     }
 
     /**
-     * Timerのscheduleと同機能
+     * 指定時間後から、前回の実行から一定間隔ごとにタスクを実行する
      *
      * @param task   タスク
-     * @param delay  遅延
-     * @param period 間隔
-     * @see Timer
+     * @param delay  遅延(ms)
+     * @param period 間隔(ms)
+     * @throws IllegalStateException タスクが既にスケジュールされている場合
      */
     public void schedule(ImmortalityTimerTask task, long delay, long period) {
-        timer.schedule(task.task, delay, period);
+        if (delay < 0) {
+            throw new IllegalArgumentException("Negative delay");
+        }
+
+        if (period < 0) {
+            throw new IllegalArgumentException("Negative period");
+        }
+
+        synchronized (lock) {
+            if (task.timer != null) {
+                throw new IllegalStateException("Task already scheduled");
+            }
+
+            task.period = TimeUnit.MILLISECONDS.toNanos(period);
+            add(task, System.nanoTime() - startTime + TimeUnit.MILLISECONDS.toNanos(delay));
+
+            // 待機中のワーカースレッドを起こす
+            if (taskCount == 1) {
+                lock.notifyAll();
+            }
+        }
     }
 
     /**
-     * TimerTaskのラップ
+     * ホイールにタスクを追加する
      *
-     * @author MORIMORI0317
-     * @see TimerTask
+     * @param task     タスク
+     * @param deadline 実行時刻(開始時刻からの経過時間、ns)
      */
-    public abstract static class ImmortalityTimerTask implements Runnable {
-        /**
-         * ラップされるタイマータスク
-         */
-        private final TimerTask task = new TimerTask() {
-            @Override
-            public void run() {
+    private void add(ImmortalityTimerTask task, long deadline) {
+        if (taskCount == 0) {
+            // 空の枠を処理する必要はないため、現在のティックまで進める
+            tick = Math.max(tick, (System.nanoTime() - startTime) / tickDuration);
+        }
+
+        long ticks = Math.max((deadline + tickDuration - 1) / tickDuration, tick);
+        int index = (int) (ticks & (WHEEL_SIZE - 1));
+
+        task.timer = this;
+        task.remainingRounds = (ticks - tick) / WHEEL_SIZE;
+        task.prev = null;
+        task.next = wheel[index];
+        task.bucket = index;
+
+        if (wheel[index] != null) {
+            wheel[index].prev = task;
+        }
+
+        wheel[index] = task;
+        taskCount++;
+    }
+
+    /**
+     * ホイールからタスクを取り除く
+     *
+     * @param task タスク
+     */
+    private void remove(ImmortalityTimerTask task) {
+        if (task.prev != null) {
+            task.prev.next = task.next;
+        } else {
+            wheel[task.bucket] = task.next;
+        }
+
+        if (task.next != null) {
+            task.next.prev = task.prev;
+        }
+
+        task.timer = null;
+        task.prev = null;
+        task.next = null;
+        taskCount--;
+    }
+
+    private void work() {
+        while (true) {
+            try {
+                awaitTick();
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            collectExpiredTasks();
+
+            for (ImmortalityTimerTask task : expiredTasks) {
                 try {
-                    ImmortalityTimerTask.this.run();
+                    task.run();
                 } catch (Exception ex) {
                     ITTSRuntime.getInstance().getLogger().error("An error occurred while processing the timer", ex);
                 }
             }
-        };
+
+            expiredTasks.clear();
+        }
+    }
+
+    /**
+     * 次のティックの時刻まで待機する<br/>
+     * タスクが存在しない場合は、スケジュールされるまで待機する
+     *
+     * @throws InterruptedException 割り込み例外
+     */
+    private void awaitTick() throws InterruptedException {
+        synchronized (lock) {
+            while (true) {
+                long currentTick = (System.nanoTime() - startTime) / tickDuration;
+
+                if (taskCount == 0) {
+                    lock.wait();
+                    continue;
+                }
+
+                if (currentTick >= tick) {
+                    return;
+                }
+
+                long waitNanos = tick * tickDuration - (System.nanoTime() - startTime);
+                if (waitNanos > 0) {
+                    TimeUnit.NANOSECONDS.timedWait(lock, waitNanos);
+                }
+            }
+        }
+    }
+
+    /**
+     * 現在のティックの枠から実行時刻になったタスクを取り出し、ティックを進める<br/>
+     * 繰り返し実行するタスクは、実行前に次の実行時刻で再度追加する
+     */
+    private void collectExpiredTasks() {
+        synchronized (lock) {
+            ImmortalityTimerTask task = wheel[(int) (tick & (WHEEL_SIZE - 1))];
+
+            while (task != null) {
+                ImmortalityTimerTask next = task.next;
+
+                if (task.remainingRounds <= 0) {
+                    remove(task);
+                    expiredTasks.add(task);
+                } else {
+                    task.remainingRounds--;
+                }
+
+                task = next;
+            }
+
+            tick++;
+
+            long now = System.nanoTime() - startTime;
+            for (ImmortalityTimerTask expiredTask : expiredTasks) {
+                if (expiredTask.period > 0) {
+                    add(expiredTask, now + expiredTask.period);
+                }
+            }
+        }
+    }
+
+    /**
+     * 登録中のタスクの数を取得
+     *
+     * @return タスクの数
+     */
+    public int getTaskCount() {
+        synchronized (lock) {
+            return taskCount;
+        }
+    }
+
+    /**
+     * タイマーのタスク<br/>
+     * タイマーのホイールの連結リストの要素を兼ねるため、スケジュールとキャンセルで新たなオブジェクトを作成しない
+     *
+     * @author MORIMORI0317
+     */
+    public abstract static class ImmortalityTimerTask implements Runnable {
+
+        /**
+         * スケジュールされているタイマー、スケジュールされていない場合はnull
+         */
+        private volatile ImmortalityTimer timer;
+
+        /**
+         * 前のタスク
+         */
+        private ImmortalityTimerTask prev;
+
+        /**
+         * 次のタスク
+         */
+        private ImmortalityTimerTask next;
+
+        /**
+         * ホイールの枠の位置
+         */
+        private int bucket;
 
         /**
-         * タイマータスクをキャンセル
+         * 実行までにホイールを回る残りの回数
+         */
+        private long remainingRounds;
+
+        /**
+         * 繰り返しの間隔(ns)、繰り返さない場合は0
+         */
+        private long period;
+
+        /**
+         * タイマータスクをキャンセル<br/>
+         * スケジュールされていない場合は何もしない
          */
         public void cancel() {
-            task.cancel();
+            ImmortalityTimer tm = timer;
+
+            if (tm == null) {
+                return;
+            }
+
+            synchronized (tm.lock) {
+                if (timer == tm) {
+                    tm.remove(this);
+                }
+            }
         }
     }
 }
@@ -3,6 +3,8 @@ package dev.felnull.itts.core.audio;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
 import dev.felnull.itts.core.tts.saidtext.SaidText;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -21,6 +23,11 @@ public class LoadedSaidText {
      */
     private final AudioTrack track;
 
+    /**
+     * 分割したテキストの続きのオーディオトラック
+     */
+    private final List<CompletableFuture<AudioTrack>> followingTracks;
+
     /**
      * 破棄時の処理
      */
@@ -39,8 +46,21 @@ public class LoadedSaidText {
      * @param dispose  破棄時の処理
      */
     public LoadedSaidText(SaidText saidText, AudioTrack track, Runnable dispose) {
+        this(saidText, track, List.of(), dispose);
+    }
+
+    /**
+     * コンストラクタ
+     *
+     * @param saidText        読み上げ音声
+     * @param track           先頭のオーディオトラック
+     * @param followingTracks 分割したテキストの続きのオーディオトラック
+     * @param dispose         破棄時の処理
+     */
+    public LoadedSaidText(SaidText saidText, AudioTrack track, List<CompletableFuture<AudioTrack>> followingTracks, Runnable dispose) {
         this.saidText = saidText;
         this.track = track;
+        this.followingTracks = followingTracks;
         this.dispose = dispose;
     }
 
@@ -75,4 +95,8 @@ public class LoadedSaidText {
     public AudioTrack getTrack() {
         return track;
     }
+
+    public List<CompletableFuture<AudioTrack>> getFollowingTracks() {
+        return followingTracks;
+    }
 }
@@ -1,18 +1,27 @@
 package dev.felnull.itts.core.audio;
 
+import com.google.common.hash.HashCode;
 import com.sedmelluq.discord.lavaplayer.player.AudioPlayer;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
 import com.sedmelluq.discord.lavaplayer.track.playback.MutableAudioFrame;
+import dev.felnull.itts.core.ITTSRuntimeUse;
+import dev.felnull.itts.core.cache.OpusFrameCache;
 import net.dv8tion.jda.api.audio.AudioSendHandler;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
- * Discordに音声を送るためのハンドラー
+ * Discordに音声を送るためのハンドラー<br/>
+ * Opusフレームキャッシュが有効な場合は、オーディオプレーヤーが送信したフレームを記録し、次回以降はエンコード済みのフレームをそのまま送信する
  *
  * @author MORIMORI0317
  */
-public class VoiceAudioHandler implements AudioSendHandler {
+public class VoiceAudioHandler implements AudioSendHandler, ITTSRuntimeUse {
     /**
      * オーディオプレーヤー
      */
@@ -28,6 +37,26 @@ public class VoiceAudioHandler implements AudioSendHandler {
      */
     private final MutableAudioFrame frame;
 
+    /**
+     * 再生中のエンコード済みフレーム
+     */
+    private final AtomicReference<FramePlayback> framePlayback = new AtomicReference<>();
+
+    /**
+     * 記録中のトラック
+     */
+    private AudioTrack recordingTrack;
+
+    /**
+     * 記録中のフレーム、記録しない場合はnull
+     */
+    private List<byte[]> recordingFrames;
+
+    /**
+     * 送信するバッファー
+     */
+    private ByteBuffer sendBuffer;
+
     /**
      * コンストラクタ
      *
@@ -42,18 +71,146 @@ public class VoiceAudioHandler implements AudioSendHandler {
 
     @Override
     public boolean canProvide() {
-        return audioPlayer.provide(frame);
+        FramePlayback fp = framePlayback.get();
+
+        if (fp != null) {
+            byte[] data = fp.next();
+
+            if (data != null) {
+                sendBuffer = ByteBuffer.wrap(data);
+                return true;
+            }
+
+            if (framePlayback.compareAndSet(fp, null)) {
+                // 音声の送信スレッドを止めないように非同期で呼ぶ
+                getAsyncExecutor().execute(fp.endRun());
+            }
+
+            return false;
+        }
+
+        if (!audioPlayer.provide(frame)) {
+            return false;
+        }
+
+        record();
+
+        buffer.flip();
+        sendBuffer = buffer;
+        return true;
     }
 
     @Nullable
     @Override
     public ByteBuffer provide20MsAudio() {
-        buffer.flip();
-        return buffer;
+        return sendBuffer;
     }
 
     @Override
     public boolean isOpus() {
         return true;
     }
+
+    /**
+     * エンコード済みのフレームの再生を開始する<br/>
+     * 再生中のフレームは終了時の処理を呼ばずに停止する
+     *
+     * @param frames Opusフレームの配列
+     * @param endRun 再生終了時の処理 (非同期で呼ばれる)
+     */
+    public void playFrames(@NotNull byte[][] frames, @NotNull Runnable endRun) {
+        framePlayback.set(new FramePlayback(frames, endRun));
+    }
+
+    /**
+     * エンコード済みのフレームの再生を終了時の処理を呼ばずに停止する
+     */
+    public void stopFrames() {
+        framePlayback.set(null);
+    }
+
+    private synchronized void record() {
+        AudioTrack track = audioPlayer.getPlayingTrack();
+
+        if (track != recordingTrack) {
+            recordingTrack = track;
+            recordingFrames = null;
+
+            HashCode hash = track != null ? track.getUserData(HashCode.class) : null;
+            OpusFrameCache opusFrameCache = getCacheManager().getOpusFrameCache();
+
+            if (hash != null && opusFrameCache.isEnabled() && !opusFrameCache.contains(hash)) {
+                recordingFrames = new ArrayList<>();
+            }
+        }
+
+        if (recordingFrames != null) {
+            byte[] data = new byte[frame.getDataLength()];
+            frame.getData(data, 0);
+            recordingFrames.add(data);
+        }
+    }
+
+    /**
+     * フレームの記録を終了し、最後まで再生された場合はOpusフレームキャッシュに保存する
+     *
+     * @param track    終了したトラック
+     * @param finished 最後まで再生されたかどうか
+     */
+    public synchronized void finishRecording(@NotNull AudioTrack track, boolean finished) {
+        if (track != recordingTrack) {
+            return;
+        }
+
+        if (finished && recordingFrames != null && !recordingFrames.isEmpty()) {
+            HashCode hash = track.getUserData(HashCode.class);
+
+            if (hash != null) {
+                getCacheManager().getOpusFrameCache().put(hash, recordingFrames.toArray(new byte[0][]));
+            }
+        }
+
+        recordingTrack = null;
+        recordingFrames = null;
+    }
+
+    /**
+     * 再生中のエンコード済みフレーム
+     *
+     * @author MORIMORI0317
+     */
+    private static final class FramePlayback {
+
+        /**
+         * Opusフレームの配列
+         */
+        private final byte[][] frames;
+
+        /**
+         * 再生終了時の処理
+         */
+        private final Runnable endRun;
+
+        /**
+         * 次に送信するフレームの位置
+         */
+        private int position;
+
+        private FramePlayback(byte[][] frames, Runnable endRun) {
+            this.frames = frames;
+            this.endRun = endRun;
+        }
+
+        private byte[] next() {
+            if (position >= frames.length) {
+                return null;
+            }
+
+            return frames[position++];
+        }
+
+        private Runnable endRun() {
+            return endRun;
+        }
+    }
 }
@@ -1,20 +1,25 @@
 package dev.felnull.itts.core.audio;
 
+import com.google.common.hash.HashCode;
 import com.sedmelluq.discord.lavaplayer.player.AudioPlayer;
 import com.sedmelluq.discord.lavaplayer.player.event.AudioEventAdapter;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrackEndReason;
 import dev.felnull.itts.core.ITTSRuntimeUse;
 import dev.felnull.itts.core.audio.loader.VoiceTrackLoader;
+import dev.felnull.itts.core.cache.OpusFrameCache;
+import dev.felnull.itts.core.tts.SynthesisTicket;
 import dev.felnull.itts.core.tts.saidtext.SaidText;
 import dev.felnull.itts.core.util.TTSUtils;
 import dev.felnull.itts.core.voice.Voice;
 import net.dv8tion.jda.api.managers.AudioManager;
 import org.apache.commons.lang3.tuple.Pair;
 
+import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -39,9 +44,14 @@ public class VoiceAudioScheduler extends AudioEventAdapter implements ITTSRuntim
     private final AudioPlayer audioPlayer;
 
     /**
-     * 現在の読み込み済み読み上げテキスト
+     * 音声送信用ハンドラー
      */
-    private final AtomicReference<Pair<LoadedSaidText, Runnable>> currentLoaded = new AtomicReference<>();
+    private final VoiceAudioHandler audioHandler;
+
+    /**
+     * 現在再生中の読み込み済み読み上げテキスト
+     */
+    private final AtomicReference<Playback> currentPlayback = new AtomicReference<>();
 
     /**
      * サーバーID
@@ -60,8 +70,9 @@ public class VoiceAudioScheduler extends AudioEventAdapter implements ITTSRuntim
         this.voiceAudioManager = voiceAudioManager;
         this.audioPlayer = voiceAudioManager.getAudioPlayerManager().createPlayer();
         this.guildId = guildId;
+        this.audioHandler = new VoiceAudioHandler(audioPlayer);
         this.audioPlayer.addListener(this);
-        this.audioManager.setSendingHandler(new VoiceAudioHandler(audioPlayer));
+        this.audioManager.setSendingHandler(audioHandler);
     }
 
     /**
@@ -76,37 +87,60 @@ public class VoiceAudioScheduler extends AudioEventAdapter implements ITTSRuntim
      * 読み込みを開始
      *
      * @param saidText 読み上げテキスト
+     * @param ticket   音声合成の優先度を決めるための整理券
      * @return 読み込み済み読み上げテキストの非同期読み込みCompletableFuture
      */
-    public CompletableFuture<LoadedSaidText> load(SaidText saidText) {
+    public CompletableFuture<LoadedSaidText> load(SaidText saidText, SynthesisTicket ticket) {
         CompletableFuture<String> textCf = saidText.getText();
         CompletableFuture<Voice> voiceCf = saidText.getVoice();
 
-        return textCf.thenApplyAsync(text -> {
-                    String sayText = getDictionaryManager().applyDict(text, guildId);
-
-                    Voice voice;
-                    try {
-                        voice = voiceCf.get();
-                    } catch (InterruptedException | ExecutionException e) {
-                        throw new RuntimeException(e);
-                    }
-
-                    Objects.requireNonNull(voice, "Voice is null");
+        // 声の取得を待つためにスレッドを止めないように、テキストと声の両方が揃ってから処理する
+        // 辞書の適用と文字数の調整はCPUを使う処理のため、仮想スレッドではなく重い処理用のスレッドで行う
+        return textCf.thenCombine(voiceCf, Pair::of).thenApplyAsync(textVoice -> {
+                    String sayText = getDictionaryManager().applyDict(textVoice.getLeft(), guildId);
+                    Voice voice = Objects.requireNonNull(textVoice.getRight(), "Voice is null");
 
                     return Pair.of(TTSUtils.roundText(voice, guildId, sayText, false), voice);
-                }, getAsyncExecutor())
+                }, getHeavyExecutor())
                 .thenComposeAsync((sayTextVoice) -> {
-                    VoiceTrackLoader vtl = sayTextVoice.getRight().createVoiceTrackLoader(sayTextVoice.getLeft());
-                    return vtl.load().thenApplyAsync(r -> new LoadedSaidText(saidText, r, vtl::dispose), getAsyncExecutor());
+                    String sayText = sayTextVoice.getLeft();
+                    List<String> chunks = getConfigManager().getConfig().isChunkedSynthesis() ? TTSUtils.splitSentences(sayText) : List.of(sayText);
+
+                    List<VoiceTrackLoader> loaders = chunks.stream()
+                            .map(chunk -> sayTextVoice.getRight().createVoiceTrackLoader(chunk, ticket))
+                            .toList();
+
+                    // 全ての分割したテキストの読み込みを同時に開始し、先頭の読み込みが終わり次第再生できるようにする
+                    List<CompletableFuture<AudioTrack>> tracks = loaders.stream()
+                            .map(VoiceTrackLoader::load)
+                            .toList();
+
+                    Runnable dispose = () -> disposeLoaders(loaders, tracks);
+
+                    return tracks.get(0).handleAsync((track, throwable) -> {
+                        if (throwable != null) {
+                            dispose.run();
+                            throw new CompletionException(throwable);
+                        }
+
+                        return new LoadedSaidText(saidText, track, tracks.subList(1, tracks.size()), dispose);
+                    }, getAsyncExecutor());
                 }, getAsyncExecutor());
     }
 
+    private void disposeLoaders(List<VoiceTrackLoader> loaders, List<CompletableFuture<AudioTrack>> tracks) {
+        for (int i = 0; i < loaders.size(); i++) {
+            VoiceTrackLoader loader = loaders.get(i);
+            tracks.get(i).whenCompleteAsync((track, throwable) -> loader.dispose(), getAsyncExecutor());
+        }
+    }
+
     /**
      * 再生を一時停止
      */
     public void stop() {
-        currentLoaded.set(null);
+        currentPlayback.set(null);
+        audioHandler.stopFrames();
         audioPlayer.stopTrack();
     }
 
@@ -117,16 +151,142 @@ public class VoiceAudioScheduler extends AudioEventAdapter implements ITTSRuntim
      * @param playEndRun     再生終了後の処理
      */
     public void play(LoadedSaidText loadedSaidText, Runnable playEndRun) {
-        currentLoaded.set(Pair.of(loadedSaidText, playEndRun));
-        audioPlayer.playTrack(loadedSaidText.getTrack());
+        byte[][] frames = getOpusFrames(loadedSaidText.getTrack());
+
+        if (frames != null) {
+            // 再生中のトラックの終了処理で、これから再生するテキストの終了処理が呼ばれないように先に停止
+            audioPlayer.stopTrack();
+        }
+
+        audioHandler.stopFrames();
+        currentPlayback.set(new Playback(loadedSaidText, playEndRun));
+
+        playTrack(loadedSaidText.getTrack(), frames);
+    }
+
+    private void playTrack(AudioTrack track, byte[][] frames) {
+        if (frames != null) {
+            Playback playback = currentPlayback.get();
+
+            // 終了時の処理は非同期で呼ばれるため、その間に別のテキストの再生が始まっていれば何もしない
+            audioHandler.playFrames(frames, () -> {
+                if (currentPlayback.get() == playback) {
+                    onChunkEnd();
+                }
+            });
+        } else {
+            audioPlayer.playTrack(track);
+        }
+    }
+
+    private byte[][] getOpusFrames(AudioTrack track) {
+        OpusFrameCache opusFrameCache = getCacheManager().getOpusFrameCache();
+        HashCode hash = track.getUserData(HashCode.class);
+
+        if (hash == null || !opusFrameCache.isEnabled()) {
+            return null;
+        }
+
+        return opusFrameCache.get(hash);
     }
 
     @Override
     public void onTrackEnd(AudioPlayer player, AudioTrack track, AudioTrackEndReason endReason) {
-        Pair<LoadedSaidText, Runnable> old = currentLoaded.getAndSet(null);
+        audioHandler.finishRecording(track, endReason == AudioTrackEndReason.FINISHED);
+
+        if (endReason == AudioTrackEndReason.FINISHED || endReason == AudioTrackEndReason.LOAD_FAILED) {
+            onChunkEnd();
+        } else {
+            onPlayEnd();
+        }
+    }
+
+    /**
+     * 分割したテキストの再生終了時の処理<br/>
+     * 続きがある場合は続けて再生する
+     */
+    private void onChunkEnd() {
+        Playback playback = currentPlayback.get();
+
+        if (playback == null) {
+            return;
+        }
+
+        CompletableFuture<AudioTrack> next = playback.next();
+
+        if (next == null) {
+            onPlayEnd();
+            return;
+        }
+
+        // 読み込み済みの場合は間を空けないようにそのまま再生する
+        next.whenComplete((track, throwable) -> {
+            if (currentPlayback.get() != playback) {
+                return;
+            }
+
+            if (throwable != null || track == null) {
+                getITTSLogger().error("Failed to load voice audio", throwable);
+                onChunkEnd();
+                return;
+            }
+
+            playTrack(track, getOpusFrames(track));
+        });
+    }
+
+    private void onPlayEnd() {
+        Playback old = currentPlayback.getAndSet(null);
         if (old != null) {
-            old.getLeft().setAlreadyUsed(true);
-            old.getRight().run();
+            old.loadedSaidText().setAlreadyUsed(true);
+            old.playEndRun().run();
+        }
+    }
+
+    /**
+     * 再生中の読み込み済み読み上げテキスト
+     *
+     * @author MORIMORI0317
+     */
+    private static final class Playback {
+
+        /**
+         * 読み込み済み読み上げテキスト
+         */
+        private final LoadedSaidText loadedSaidText;
+
+        /**
+         * 再生終了後の処理
+         */
+        private final Runnable playEndRun;
+
+        /**
+         * 次に再生する分割したテキストの位置
+         */
+        private final AtomicInteger nextIndex = new AtomicInteger();
+
+        private Playback(LoadedSaidText loadedSaidText, Runnable playEndRun) {
+            this.loadedSaidText = loadedSaidText;
+            this.playEndRun = playEndRun;
+        }
+
+        private CompletableFuture<AudioTrack> next() {
+            List<CompletableFuture<AudioTrack>> followingTracks = loadedSaidText.getFollowingTracks();
+            int index = nextIndex.getAndIncrement();
+
+            if (index >= followingTracks.size()) {
+                return null;
+            }
+
+            return followingTracks.get(index);
+        }
+
+        private LoadedSaidText loadedSaidText() {
+            return loadedSaidText;
+        }
+
+        private Runnable playEndRun() {
+            return playEndRun;
         }
     }
 }
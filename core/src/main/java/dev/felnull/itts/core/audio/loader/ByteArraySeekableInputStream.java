@@ -0,0 +1,100 @@
+package dev.felnull.itts.core.audio.loader;
+
+import com.sedmelluq.discord.lavaplayer.tools.io.SeekableInputStream;
+import com.sedmelluq.discord.lavaplayer.track.info.AudioTrackInfoProvider;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * メモリ上のデータを読み込むシーク可能なストリーム
+ *
+ * @author MORIMORI0317
+ */
+public class ByteArraySeekableInputStream extends SeekableInputStream {
+
+    /**
+     * データ
+     */
+    private final byte[] data;
+
+    /**
+     * 読み込み位置
+     */
+    private int position;
+
+    /**
+     * コンストラクタ
+     *
+     * @param data データ
+     */
+    public ByteArraySeekableInputStream(byte[] data) {
+        super(data.length, 0);
+        this.data = data;
+    }
+
+    @Override
+    public int read() {
+        if (position >= data.length) {
+            return -1;
+        }
+
+        return data[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        if (len == 0) {
+            return 0;
+        }
+
+        int remaining = data.length - position;
+
+        if (remaining <= 0) {
+            return -1;
+        }
+
+        int readLength = Math.min(len, remaining);
+        System.arraycopy(data, position, b, off, readLength);
+        position += readLength;
+
+        return readLength;
+    }
+
+    @Override
+    public long skip(long n) {
+        int skipLength = (int) Math.max(0, Math.min(n, data.length - position));
+        position += skipLength;
+        return skipLength;
+    }
+
+    @Override
+    public int available() {
+        return data.length - position;
+    }
+
+    @Override
+    public void close() {
+        // メモリ上のデータのため閉じる必要はない
+    }
+
+    @Override
+    public long getPosition() {
+        return position;
+    }
+
+    @Override
+    protected void seekHard(long seekPosition) {
+        this.position = (int) Math.max(0, Math.min(seekPosition, data.length));
+    }
+
+    @Override
+    public boolean canSeekHard() {
+        return true;
+    }
+
+    @Override
+    public List<AudioTrackInfoProvider> getTrackInfoProviders() {
+        return Collections.emptyList();
+    }
+}
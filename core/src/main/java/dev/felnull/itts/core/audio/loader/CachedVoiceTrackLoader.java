@@ -1,14 +1,23 @@
 package dev.felnull.itts.core.audio.loader;
 
 import com.google.common.hash.HashCode;
+import com.sedmelluq.discord.lavaplayer.container.MediaContainerDetection;
+import com.sedmelluq.discord.lavaplayer.container.MediaContainerDetectionResult;
+import com.sedmelluq.discord.lavaplayer.container.MediaContainerHints;
+import com.sedmelluq.discord.lavaplayer.container.MediaContainerRegistry;
 import com.sedmelluq.discord.lavaplayer.player.AudioLoadResultHandler;
 import com.sedmelluq.discord.lavaplayer.tools.FriendlyException;
+import com.sedmelluq.discord.lavaplayer.tools.io.SeekableInputStream;
 import com.sedmelluq.discord.lavaplayer.track.AudioPlaylist;
+import com.sedmelluq.discord.lavaplayer.track.AudioReference;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
 import dev.felnull.itts.core.ITTSRuntimeUse;
 import dev.felnull.itts.core.audio.VoiceAudioManager;
 import dev.felnull.itts.core.cache.CacheUseEntry;
 import dev.felnull.itts.core.cache.StreamOpener;
+import dev.felnull.itts.core.cache.StreamingAudioBuffer;
+import dev.felnull.itts.core.tts.SynthesisScheduler;
+import dev.felnull.itts.core.tts.SynthesisTicket;
 
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
@@ -26,6 +35,11 @@ public class CachedVoiceTrackLoader implements VoiceTrackLoader, ITTSRuntimeUse
      */
     private final HashCode hash;
 
+    /**
+     * 音声合成の優先度を決めるための整理券
+     */
+    private final SynthesisTicket ticket;
+
     /**
      * 音声のストリーム取得用オープナー
      */
@@ -40,21 +54,41 @@ public class CachedVoiceTrackLoader implements VoiceTrackLoader, ITTSRuntimeUse
      * コンストラクタ
      *
      * @param hash         音声識別用ハッシュ
+     * @param ticket       音声合成の優先度を決めるための整理券
      * @param streamOpener 音声のストリーム取得用オープナー
      */
-    public CachedVoiceTrackLoader(HashCode hash, StreamOpener streamOpener) {
+    public CachedVoiceTrackLoader(HashCode hash, SynthesisTicket ticket, StreamOpener streamOpener) {
         this.hash = hash;
+        this.ticket = ticket;
         this.streamOpener = streamOpener;
     }
 
     @Override
     public CompletableFuture<AudioTrack> load() {
-        return getCacheManager().loadOrRestore(hash, streamOpener)
-                .thenApplyAsync(this::loadTack, getAsyncExecutor());
+        SynthesisScheduler scheduler = getTTSManager().getSynthesisScheduler();
+        scheduler.attach(hash, ticket);
+
+        // キャッシュが存在しない場合のみ、順番を待ってから音声合成を行う
+        return getCacheManager().loadOrRestore(hash, () -> scheduler.open(hash, ticket, streamOpener))
+                .thenApplyAsync(cacheUseEntry -> {
+                    AudioTrack track = loadTack(cacheUseEntry);
+                    // Opusフレームキャッシュのキーとして使用
+                    track.setUserData(hash);
+                    return track;
+                }, getAsyncExecutor());
     }
 
     private AudioTrack loadTack(CacheUseEntry cacheUseEntry) {
         cacheEntry.set(cacheUseEntry);
+
+        if (cacheUseEntry.data() != null) {
+            return loadMemoryTrack(cacheUseEntry.data());
+        }
+
+        if (cacheUseEntry.stream() != null) {
+            return loadStreamingTrack(cacheUseEntry.stream());
+        }
+
         VoiceAudioManager vam = getVoiceAudioManager();
         AtomicReference<AudioTrack> retTrack = new AtomicReference<>();
 
@@ -89,8 +123,43 @@ public class CachedVoiceTrackLoader implements VoiceTrackLoader, ITTSRuntimeUse
         return ret;
     }
 
+    private AudioTrack loadMemoryTrack(byte[] data) {
+        MediaContainerDetectionResult result;
+
+        try (ByteArraySeekableInputStream inputStream = new ByteArraySeekableInputStream(data)) {
+            result = detectContainer(inputStream);
+        }
+
+        return new MemoryAudioTrack(result.getTrackInfo(), data, result.getContainerDescriptor());
+    }
+
+    private AudioTrack loadStreamingTrack(StreamingAudioBuffer buffer) {
+        // ヘッダーが届いた時点で判別できるため、受信完了を待たない
+        MediaContainerDetectionResult result;
+
+        try (StreamingSeekableInputStream inputStream = new StreamingSeekableInputStream(buffer)) {
+            result = detectContainer(inputStream);
+        }
+
+        return new StreamingAudioTrack(result.getTrackInfo(), buffer, result.getContainerDescriptor());
+    }
+
+    private MediaContainerDetectionResult detectContainer(SeekableInputStream inputStream) {
+        AudioReference reference = new AudioReference(hash.toString(), null);
+        MediaContainerDetectionResult result = new MediaContainerDetection(MediaContainerRegistry.DEFAULT_REGISTRY, reference, inputStream,
+                MediaContainerHints.from(null, null)).detectContainer();
+
+        if (result == null || !result.isContainerDetected() || !result.isSupportedFile()) {
+            throw new RuntimeException("Failed to load track");
+        }
+
+        return result;
+    }
+
     @Override
     public void dispose() {
+        getTTSManager().getSynthesisScheduler().detach(hash, ticket);
+
         CacheUseEntry ce = cacheEntry.get();
         if (ce != null) {
             ce.useLock().unlock();
@@ -0,0 +1,51 @@
+package dev.felnull.itts.core.audio.loader;
+
+import com.sedmelluq.discord.lavaplayer.container.MediaContainerDescriptor;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrackInfo;
+import com.sedmelluq.discord.lavaplayer.track.DelegatedAudioTrack;
+import com.sedmelluq.discord.lavaplayer.track.InternalAudioTrack;
+import com.sedmelluq.discord.lavaplayer.track.playback.LocalAudioTrackExecutor;
+
+/**
+ * メモリ上の音声データを再生するトラック
+ *
+ * @author MORIMORI0317
+ */
+public class MemoryAudioTrack extends DelegatedAudioTrack {
+
+    /**
+     * 音声データ
+     */
+    private final byte[] data;
+
+    /**
+     * コンテナのトラック作成用
+     */
+    private final MediaContainerDescriptor containerTrackFactory;
+
+    /**
+     * コンストラクタ
+     *
+     * @param trackInfo             トラック情報
+     * @param data                  音声データ
+     * @param containerTrackFactory コンテナのトラック作成用
+     */
+    public MemoryAudioTrack(AudioTrackInfo trackInfo, byte[] data, MediaContainerDescriptor containerTrackFactory) {
+        super(trackInfo);
+        this.data = data;
+        this.containerTrackFactory = containerTrackFactory;
+    }
+
+    @Override
+    public void process(LocalAudioTrackExecutor executor) throws Exception {
+        try (ByteArraySeekableInputStream inputStream = new ByteArraySeekableInputStream(data)) {
+            processDelegate((InternalAudioTrack) containerTrackFactory.createTrack(trackInfo, inputStream), executor);
+        }
+    }
+
+    @Override
+    protected AudioTrack makeShallowClone() {
+        return new MemoryAudioTrack(trackInfo, data, containerTrackFactory);
+    }
+}
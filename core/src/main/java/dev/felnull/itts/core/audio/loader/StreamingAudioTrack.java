@@ -0,0 +1,52 @@
+package dev.felnull.itts.core.audio.loader;
+
+import com.sedmelluq.discord.lavaplayer.container.MediaContainerDescriptor;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrackInfo;
+import com.sedmelluq.discord.lavaplayer.track.DelegatedAudioTrack;
+import com.sedmelluq.discord.lavaplayer.track.InternalAudioTrack;
+import com.sedmelluq.discord.lavaplayer.track.playback.LocalAudioTrackExecutor;
+import dev.felnull.itts.core.cache.StreamingAudioBuffer;
+
+/**
+ * 受信中の音声データを、受信完了を待たずに再生するトラック
+ *
+ * @author MORIMORI0317
+ */
+public class StreamingAudioTrack extends DelegatedAudioTrack {
+
+    /**
+     * 受信中の音声データ
+     */
+    private final StreamingAudioBuffer buffer;
+
+    /**
+     * コンテナのトラック作成用
+     */
+    private final MediaContainerDescriptor containerTrackFactory;
+
+    /**
+     * コンストラクタ
+     *
+     * @param trackInfo             トラック情報
+     * @param buffer                受信中の音声データ
+     * @param containerTrackFactory コンテナのトラック作成用
+     */
+    public StreamingAudioTrack(AudioTrackInfo trackInfo, StreamingAudioBuffer buffer, MediaContainerDescriptor containerTrackFactory) {
+        super(trackInfo);
+        this.buffer = buffer;
+        this.containerTrackFactory = containerTrackFactory;
+    }
+
+    @Override
+    public void process(LocalAudioTrackExecutor executor) throws Exception {
+        try (StreamingSeekableInputStream inputStream = new StreamingSeekableInputStream(buffer)) {
+            processDelegate((InternalAudioTrack) containerTrackFactory.createTrack(trackInfo, inputStream), executor);
+        }
+    }
+
+    @Override
+    protected AudioTrack makeShallowClone() {
+        return new StreamingAudioTrack(trackInfo, buffer, containerTrackFactory);
+    }
+}
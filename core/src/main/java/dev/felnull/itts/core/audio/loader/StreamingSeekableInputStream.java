@@ -0,0 +1,97 @@
+package dev.felnull.itts.core.audio.loader;
+
+import com.sedmelluq.discord.lavaplayer.tools.io.SeekableInputStream;
+import com.sedmelluq.discord.lavaplayer.track.info.AudioTrackInfoProvider;
+import dev.felnull.itts.core.cache.StreamingAudioBuffer;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 受信中の音声データを読み込むシーク可能なストリーム<br/>
+ * まだ届いていない位置を読み込む場合は、データが届くまで待機する
+ *
+ * @author MORIMORI0317
+ */
+public class StreamingSeekableInputStream extends SeekableInputStream {
+
+    /**
+     * 受信中の音声データ
+     */
+    private final StreamingAudioBuffer buffer;
+
+    /**
+     * 読み込み位置
+     */
+    private long position;
+
+    /**
+     * コンストラクタ
+     *
+     * @param buffer 受信中の音声データ
+     */
+    public StreamingSeekableInputStream(StreamingAudioBuffer buffer) {
+        super(Long.MAX_VALUE, 0);
+        this.buffer = buffer;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] b = new byte[1];
+
+        if (read(b, 0, 1) < 0) {
+            return -1;
+        }
+
+        return b[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+
+        int readLength = buffer.read(position, b, off, len);
+
+        if (readLength > 0) {
+            position += readLength;
+        }
+
+        return readLength;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long target = Math.max(position, Math.min(position + n, buffer.awaitAvailable(position + n - 1)));
+        long skipLength = target - position;
+        position = target;
+        return skipLength;
+    }
+
+    @Override
+    public void close() {
+        // メモリ上のデータのため閉じる必要はない
+    }
+
+    @Override
+    public long getPosition() {
+        return position;
+    }
+
+    @Override
+    protected void seekHard(long seekPosition) throws IOException {
+        this.position = Math.max(0, Math.min(seekPosition, buffer.awaitAvailable(seekPosition)));
+    }
+
+    @Override
+    public boolean canSeekHard() {
+        return true;
+    }
+
+    @Override
+    public List<AudioTrackInfoProvider> getTrackInfoProviders() {
+        return Collections.emptyList();
+    }
+}
@@ -1,8 +1,10 @@
 package dev.felnull.itts.core.cache;
 
 import com.google.common.hash.HashCode;
+import com.google.gson.JsonParseException;
 import dev.felnull.fnjl.util.FNDataUtil;
-import dev.felnull.itts.core.ITTSRuntimeUse;
+import dev.felnull.itts.core.ITTSBaseManager;
+import dev.felnull.itts.core.config.Config;
 import org.apache.commons.io.FileUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -11,6 +13,7 @@ import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
@@ -22,7 +25,7 @@ import java.util.function.Supplier;
  *
  * @author MORIMORI0317
  */
-public class CacheManager implements ITTSRuntimeUse {
+public class CacheManager implements ITTSBaseManager {
 
     /**
      * キャッシュ保存用フォルダー
@@ -30,15 +33,61 @@ public class CacheManager implements ITTSRuntimeUse {
     private static final File LOCAL_CACHE_FOLDER = new File("./tmp");
 
     /**
-     * 保存済みローカルキャッシュ
+     * 永続キャッシュ保存用フォルダー
      */
-    private final Map<HashCode, CompletableFuture<LocalCache>> localCaches = new ConcurrentHashMap<>();
+    private static final File PERSISTENT_CACHE_FOLDER = new File("./cache");
+
+    /**
+     * 音声合成の記録の保存先ファイル
+     */
+    private static final File PHRASE_FREQUENCY_FILE = new File("./phrase_frequency.json");
+
+    /**
+     * 読み込みに失敗した音声を、再度読み込まずに失敗として扱う時間(ms)
+     */
+    private static final long NEGATIVE_CACHE_TIME = 3000;
+
+    /**
+     * 保存済みもしくは読み込み中のローカルキャッシュ<br/>
+     * 同じ音声の読み込みは1つにまとめ、失敗した場合はすぐに取り除く
+     */
+    private final SingleFlight<HashCode, LocalCache> localCaches = new SingleFlight<>(NEGATIVE_CACHE_TIME);
+
+    /**
+     * 受信中の音声データ
+     */
+    private final Map<HashCode, StreamingAudioBuffer> streamingBuffers = new ConcurrentHashMap<>();
+
+    /**
+     * メモリキャッシュ
+     */
+    private final MemoryAudioCache memoryAudioCache = new MemoryAudioCache();
+
+    /**
+     * Opusフレームキャッシュ
+     */
+    private final OpusFrameCache opusFrameCache = new OpusFrameCache();
+
+    /**
+     * よく読み上げるテキストを記録するための音声合成の記録
+     */
+    private final PhraseFrequencyLog phraseFrequencyLog = new PhraseFrequencyLog(PHRASE_FREQUENCY_FILE);
+
+    /**
+     * キャッシュを温める処理
+     */
+    private final CacheWarmer cacheWarmer = new CacheWarmer(phraseFrequencyLog);
 
     /**
      * グローバルキャッシュアクセスの取得
      */
     private final Supplier<GlobalCacheAccess> globalCacheAccessFactory;
 
+    /**
+     * 永続キャッシュ、無効な場合はnull
+     */
+    private volatile PersistentCache persistentCache;
+
     /**
      * コンストラクタ
      *
@@ -55,6 +104,41 @@ public class CacheManager implements ITTSRuntimeUse {
         this.globalCacheAccessFactory = globalCacheAccessFactory;
     }
 
+    @Override
+    public @NotNull CompletableFuture<?> init() {
+        return CompletableFuture.runAsync(() -> {
+            Config config = getConfigManager().getConfig();
+
+            // 永続キャッシュがない場合は温めた音声がすぐに破棄されるため、記録しない
+            if (config.getCacheWarmingCount() > 0 && config.isPersistentCache()) {
+                try {
+                    phraseFrequencyLog.load();
+                } catch (IOException | JsonParseException e) {
+                    getITTSLogger().warn("Failed to load phrase frequency log", e);
+                }
+
+                Runtime.getRuntime().addShutdownHook(new Thread(phraseFrequencyLog::save));
+            }
+
+            if (!config.isPersistentCache()) {
+                return;
+            }
+
+            PersistentCache pc = new PersistentCache(PERSISTENT_CACHE_FOLDER, config.getPersistentCacheSize(), config.isPersistentCacheCompression());
+
+            try {
+                pc.load();
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to load persistent cache", e);
+            }
+
+            Runtime.getRuntime().addShutdownHook(new Thread(pc::saveIndex));
+            this.persistentCache = pc;
+
+            getITTSLogger().info("Persistent cache setup complete ({} entries)", pc.getEntryCount());
+        }, getAsyncExecutor());
+    }
+
     /**
      * キャッシュを読み込む、もしくは生成する
      *
@@ -63,11 +147,87 @@ public class CacheManager implements ITTSRuntimeUse {
      * @return キャッシュエントリのCompletableFuture
      */
     public CompletableFuture<CacheUseEntry> loadOrRestore(@NotNull HashCode key, @NotNull StreamOpener loadOpener) {
-        return localCaches.computeIfAbsent(key, ky -> createLocalCache(ky, loadOpener))
-                .thenApplyAsync(LocalCache::restore, getAsyncExecutor());
+        byte[] data = memoryAudioCache.get(key);
+
+        if (data != null) {
+            return CompletableFuture.completedFuture(new CacheUseEntry(null, data, null, () -> {
+            }));
+        }
+
+        CompletableFuture<LocalCache> localCacheCf = localCaches.load(key, ky -> createLocalCache(ky, loadOpener));
+        StreamingAudioBuffer streamingBuffer = streamingBuffers.get(key);
+
+        // 受信中の場合は受信完了を待たずに再生できるようにする
+        // 音声合成の順番待ちの間に読み込みがタイムアウトしないように、最初のデータが届いてから渡す
+        if (streamingBuffer != null && !localCacheCf.isDone()) {
+            return streamingBuffer.getFirstData().thenApply(v -> new CacheUseEntry(null, null, streamingBuffer, () -> localCacheCf.thenAcceptAsync(localCache -> {
+                // ローカルキャッシュの破棄を予約するために、一度使用したことにする
+                if (!localCache.isDestroy()) {
+                    localCache.restore().useLock().unlock();
+                }
+            }, getAsyncExecutor())));
+        }
+
+        return localCacheCf.thenApplyAsync(localCache -> restoreToMemory(key, localCache), getAsyncExecutor());
+    }
+
+    /**
+     * ローカルキャッシュを取得し、メモリキャッシュにも保存する
+     *
+     * @param key        キー
+     * @param localCache ローカルキャッシュ
+     * @return キャッシュエントリ
+     */
+    private CacheUseEntry restoreToMemory(HashCode key, LocalCache localCache) {
+        CacheUseEntry entry = localCache.restore();
+        PersistentCache.Blob blob = localCache.getBlob();
+
+        // 圧縮されている場合は、一時ファイルに展開せずにメモリ上に展開しながら再生する
+        if (blob != null && blob.compressed()) {
+            StreamingAudioBuffer streamingBuffer = new StreamingAudioBuffer();
+
+            CompletableFuture.runAsync(() -> {
+                receive(blob::openStream, null, streamingBuffer);
+
+                byte[] data = streamingBuffer.toByteArray();
+                if (memoryAudioCache.canStore(data.length)) {
+                    memoryAudioCache.put(key, data);
+                }
+            }, getAsyncExecutor());
+
+            return new CacheUseEntry(null, null, streamingBuffer, entry.useLock());
+        }
+
+        File file = entry.file();
+
+        if (!memoryAudioCache.canStore(file.length())) {
+            return entry;
+        }
+
+        byte[] data;
+        try {
+            data = Files.readAllBytes(file.toPath());
+        } catch (IOException e) {
+            entry.useLock().unlock();
+            throw new RuntimeException(e);
+        }
+
+        memoryAudioCache.put(key, data);
+
+        return new CacheUseEntry(file, data, null, entry.useLock());
     }
 
     private CompletableFuture<LocalCache> createLocalCache(HashCode key, StreamOpener loadOpener) {
+        PersistentCache pc = persistentCache;
+
+        if (pc != null) {
+            PersistentCache.Blob blob = pc.get(key);
+
+            if (blob != null) {
+                return CompletableFuture.completedFuture(new LocalCache(key, blob));
+            }
+        }
+
         CompletableFuture<File> cf;
         File lcFile = getLocalCacheFile(key);
 
@@ -99,24 +259,120 @@ public class CacheManager implements ITTSRuntimeUse {
             }, getAsyncExecutor());
 
         } else {
-            cf = CompletableFuture.supplyAsync(() -> {
+            cf = receiveAsync(key, loadOpener, lcFile);
+        }
+        return cf.thenApplyAsync((file) -> {
+            if (pc != null) {
+                try {
+                    File persistentFile = pc.store(key, file, localCaches::contains);
 
-                try (var in = loadOpener.openStream(); var out = new FileOutputStream(lcFile)) {
-                    FNDataUtil.inputToOutputBuff(in, out);
-                } catch (IOException | InterruptedException e) {
-                    throw new RuntimeException(e);
+                    if (persistentFile != null) {
+                        return new LocalCache(key, persistentFile, false);
+                    }
+                } catch (IOException e) {
+                    getITTSLogger().warn("Failed to store persistent cache", e);
                 }
+            }
 
-                return lcFile;
-            }, getAsyncExecutor());
+            return new LocalCache(key, file);
+        }, getAsyncExecutor());
+    }
+
+    /**
+     * 受信中のバッファーを登録してから、音声データの受信を開始する
+     *
+     * @param key        キー
+     * @param loadOpener ストリーム生成
+     * @param file       保存先ファイル
+     * @return 保存先ファイルのCompletableFuture
+     */
+    private CompletableFuture<File> receiveAsync(HashCode key, StreamOpener loadOpener, File file) {
+        StreamingAudioBuffer streamingBuffer = new StreamingAudioBuffer();
+        streamingBuffers.put(key, streamingBuffer);
+
+        CompletableFuture<File> cf = CompletableFuture.supplyAsync(() -> {
+            receive(loadOpener, file, streamingBuffer);
+
+            byte[] data = streamingBuffer.toByteArray();
+            if (memoryAudioCache.canStore(data.length)) {
+                memoryAudioCache.put(key, data);
+            }
+
+            return file;
+        }, getAsyncExecutor());
+
+        cf.whenComplete((f, throwable) -> streamingBuffers.remove(key, streamingBuffer));
+        return cf;
+    }
+
+    /**
+     * 音声データを受信し、ファイルへの保存と受信中のバッファーへの書き込みを同時に行う
+     *
+     * @param loadOpener      ストリーム生成
+     * @param file            保存先ファイル、ファイルに保存しない場合はnull
+     * @param streamingBuffer 受信中のバッファー
+     */
+    private static void receive(StreamOpener loadOpener, @Nullable File file, StreamingAudioBuffer streamingBuffer) {
+        try (var in = loadOpener.openStream(); var out = file != null ? new FileOutputStream(file) : OutputStream.nullOutputStream()) {
+            byte[] buf = new byte[8192];
+            int len;
+
+            while ((len = in.read(buf)) >= 0) {
+                out.write(buf, 0, len);
+                streamingBuffer.write(buf, 0, len);
+            }
+        } catch (Exception e) {
+            streamingBuffer.fail(e);
+
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+
+            throw new RuntimeException(e);
         }
-        return cf.thenApplyAsync((file) -> new LocalCache(key, file), getAsyncExecutor());
+
+        streamingBuffer.complete();
     }
 
     private File getLocalCacheFile(HashCode hashCode) {
         return new File(LOCAL_CACHE_FOLDER, hashCode.toString());
     }
 
+    public SingleFlight<HashCode, LocalCache> getLocalCaches() {
+        return localCaches;
+    }
+
+    public MemoryAudioCache getMemoryAudioCache() {
+        return memoryAudioCache;
+    }
+
+    public OpusFrameCache getOpusFrameCache() {
+        return opusFrameCache;
+    }
+
+    public PhraseFrequencyLog getPhraseFrequencyLog() {
+        return phraseFrequencyLog;
+    }
+
+    public CacheWarmer getCacheWarmer() {
+        return cacheWarmer;
+    }
+
+    @Nullable
+    public PersistentCache getPersistentCache() {
+        return persistentCache;
+    }
+
+    /**
+     * キャッシュを温めるかどうか<br/>
+     * 温めた音声を保持するために、永続キャッシュが有効である必要がある
+     *
+     * @return キャッシュを温めるかどうか
+     */
+    public boolean isCacheWarming() {
+        return getConfigManager().getConfig().getCacheWarmingCount() > 0 && persistentCache != null;
+    }
+
     /**
      * キャッシュを破棄
      *
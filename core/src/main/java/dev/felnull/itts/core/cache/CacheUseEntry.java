@@ -5,9 +5,11 @@ import java.io.File;
 /**
  * キャッシュエントリ
  *
- * @param file    保存先ファイル
+ * @param file    保存先ファイル、メモリキャッシュのみに存在する場合はnull
+ * @param data    メモリ上の音声データ、メモリキャッシュに存在しない場合はnull
+ * @param stream  受信中の音声データ、受信が完了している場合はnull
  * @param useLock 使用中か確認用ロック
  * @author MORIMORI0317
  */
-public record CacheUseEntry(File file, UseLock useLock) {
+public record CacheUseEntry(File file, byte[] data, StreamingAudioBuffer stream, UseLock useLock) {
 }
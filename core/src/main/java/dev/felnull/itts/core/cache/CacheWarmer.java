@@ -0,0 +1,124 @@
+package dev.felnull.itts.core.cache;
+
+import dev.felnull.itts.core.ITTSRuntimeUse;
+import dev.felnull.itts.core.ImmortalityTimer;
+import dev.felnull.itts.core.audio.loader.VoiceTrackLoader;
+import dev.felnull.itts.core.tts.SynthesisTicket;
+import dev.felnull.itts.core.voice.VoiceType;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * よく読み上げるテキストの音声合成を先に行い、キャッシュを温める<br/>
+ * 読み上げの音声合成を妨げないように、予測による先行合成として1つずつ間隔を空けて行う
+ *
+ * @author MORIMORI0317
+ */
+public class CacheWarmer implements ITTSRuntimeUse {
+
+    /**
+     * 次の音声合成を開始するまでの間隔(ms)
+     */
+    private static final long WARM_INTERVAL = 100L;
+
+    /**
+     * 記録するサーバーIDが存在しない整理券に使用するサーバーID
+     */
+    private static final long NO_GUILD_ID = 0L;
+
+    /**
+     * 音声合成の記録
+     */
+    private final PhraseFrequencyLog phraseFrequencyLog;
+
+    /**
+     * 実行中かどうか
+     */
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /**
+     * 実行中に再度要求されたかどうか
+     */
+    private final AtomicBoolean requested = new AtomicBoolean();
+
+    /**
+     * コンストラクタ
+     *
+     * @param phraseFrequencyLog 音声合成の記録
+     */
+    public CacheWarmer(PhraseFrequencyLog phraseFrequencyLog) {
+        this.phraseFrequencyLog = phraseFrequencyLog;
+    }
+
+    /**
+     * 回数の多い組み合わせから順番に、バックグラウンドで音声合成を行う<br/>
+     * 実行中の場合は、終了後にもう一度実行する
+     */
+    public void warm() {
+        if (!getCacheManager().isCacheWarming()) {
+            return;
+        }
+
+        int count = getConfigManager().getConfig().getCacheWarmingCount();
+
+        requested.set(true);
+
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+
+        requested.set(false);
+
+        List<PhraseFrequencyLog.Phrase> phrases = phraseFrequencyLog.getTopPhrases(count);
+        getITTSLogger().info("Start cache warming ({} phrases)", phrases.size());
+
+        warmNext(phrases.iterator(), new AtomicInteger());
+    }
+
+    private void warmNext(Iterator<PhraseFrequencyLog.Phrase> phrases, AtomicInteger warmed) {
+        while (phrases.hasNext()) {
+            PhraseFrequencyLog.Phrase phrase = phrases.next();
+            Optional<VoiceType> vt = getVoiceManager().getVoiceType(phrase.voiceTypeId());
+
+            if (vt.isEmpty()) {
+                continue;
+            }
+
+            SynthesisTicket ticket = getTTSManager().getSynthesisScheduler().createSpeculativeTicket(NO_GUILD_ID);
+            VoiceTrackLoader loader = vt.get().createVoice(NO_GUILD_ID, 0).createVoiceTrackLoader(phrase.text(), ticket);
+
+            loader.load().whenCompleteAsync((track, throwable) -> {
+                loader.dispose();
+
+                if (throwable == null) {
+                    warmed.incrementAndGet();
+                }
+
+                getImmortalityTimer().schedule(new ImmortalityTimer.ImmortalityTimerTask() {
+                    @Override
+                    public void run() {
+                        CompletableFuture.runAsync(() -> warmNext(phrases, warmed), getAsyncExecutor());
+                    }
+                }, WARM_INTERVAL);
+            }, getAsyncExecutor());
+
+            return;
+        }
+
+        getITTSLogger().info("Cache warming complete ({} phrases)", warmed.get());
+        running.set(false);
+
+        if (requested.get()) {
+            warm();
+        }
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+}
@@ -1,14 +1,13 @@
 package dev.felnull.itts.core.cache;
 
 import com.google.common.hash.HashCode;
+import dev.felnull.itts.core.ExpirySweeper;
 import dev.felnull.itts.core.ITTSRuntimeUse;
-import dev.felnull.itts.core.ImmortalityTimer;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * ローカルキャッシュ
@@ -16,20 +15,28 @@ import java.util.concurrent.atomic.AtomicLong;
  * @author MORIMORI0317
  */
 public class LocalCache implements ITTSRuntimeUse {
-    /**
-     * 最終使用時間
-     */
-    private final AtomicLong lastUseTime = new AtomicLong(System.currentTimeMillis());
-
     /**
      * ロックの数
      */
     private final AtomicInteger useLockCount = new AtomicInteger();
 
     /**
-     * タイマーが動いているか
+     * スイーパーに登録するエントリ<br/>
+     * 使用されなくなった時に登録し、使用中の場合は期限切れとして扱わない
      */
-    private final AtomicBoolean runningTimer = new AtomicBoolean();
+    private final ExpirySweeper.ExpiryEntry expiryEntry = new ExpirySweeper.ExpiryEntry() {
+        @Override
+        protected boolean isExpired(long now) {
+            return isDestroy() || (useLockCount.get() <= 0 && now - lastUseTime >= getCacheTime());
+        }
+
+        @Override
+        protected void expire() {
+            if (!isDestroy()) {
+                getCacheManager().disposeCache(hashCode);
+            }
+        }
+    };
 
     /**
      * 破棄済みかどうか
@@ -46,6 +53,21 @@ public class LocalCache implements ITTSRuntimeUse {
      */
     private final File file;
 
+    /**
+     * 破棄時にファイルを削除するかどうか
+     */
+    private final boolean deleteOnDispose;
+
+    /**
+     * 永続キャッシュのファイル、永続キャッシュのファイルではない場合はnull
+     */
+    private final PersistentCache.Blob blob;
+
+    /**
+     * 最終使用時間
+     */
+    private volatile long lastUseTime = System.currentTimeMillis();
+
     /**
      * コンストラクタ
      *
@@ -53,8 +75,35 @@ public class LocalCache implements ITTSRuntimeUse {
      * @param file     保存先ファイル
      */
     public LocalCache(HashCode hashCode, File file) {
+        this(hashCode, file, true);
+    }
+
+    /**
+     * コンストラクタ
+     *
+     * @param hashCode        キーとしてのハッシュコード
+     * @param file            保存先ファイル
+     * @param deleteOnDispose 破棄時にファイルを削除するかどうか、永続キャッシュのファイルの場合はfalse
+     */
+    public LocalCache(HashCode hashCode, File file, boolean deleteOnDispose) {
         this.hashCode = hashCode;
         this.file = file;
+        this.deleteOnDispose = deleteOnDispose;
+        this.blob = null;
+    }
+
+    /**
+     * 永続キャッシュのファイルを使用するコンストラクタ<br/>
+     * 破棄時にファイルは削除しない
+     *
+     * @param hashCode キーとしてのハッシュコード
+     * @param blob     永続キャッシュのファイル
+     */
+    public LocalCache(HashCode hashCode, PersistentCache.Blob blob) {
+        this.hashCode = hashCode;
+        this.file = blob.file();
+        this.deleteOnDispose = false;
+        this.blob = blob;
     }
 
     /**
@@ -76,12 +125,12 @@ public class LocalCache implements ITTSRuntimeUse {
             }
 
             if (useLockCount.decrementAndGet() <= 0) {
-                lastUseTime.set(System.currentTimeMillis());
-                scheduleCheckTimer(this::check, getCacheTime() + 300L);
+                lastUseTime = System.currentTimeMillis();
+                getExpirySweeper().register(expiryEntry);
             }
         };
 
-        return new CacheUseEntry(file, ul);
+        return new CacheUseEntry(file, null, null, ul);
     }
 
     /**
@@ -89,51 +138,23 @@ public class LocalCache implements ITTSRuntimeUse {
      */
     protected void dispose() {
         destroy.set(true);
-        if (file.exists() && file.delete()) {
+        getExpirySweeper().unregister(expiryEntry);
+
+        if (deleteOnDispose && file.exists() && !file.delete()) {
             throw new RuntimeException("Failed to delete file");
         }
     }
 
-    public boolean isDestroy() {
-        return destroy.get();
+    @Nullable
+    public PersistentCache.Blob getBlob() {
+        return blob;
     }
 
-    private void check() {
-        if (isDestroy()) {
-            return;
-        }
-
-        if (useLockCount.get() > 0) {
-            return;
-        }
-
-        long now = System.currentTimeMillis();
-        long lastTime = lastUseTime.get();
-        long eqTime = now - lastTime;
-
-        if (eqTime >= getCacheTime()) {
-            getCacheManager().disposeCache(hashCode);
-            return;
-        }
-
-        scheduleCheckTimer(this::check, getCacheTime() - eqTime + 300L);
+    public boolean isDestroy() {
+        return destroy.get();
     }
 
     private long getCacheTime() {
         return getConfigManager().getConfig().getCacheTime();
     }
-
-    private void scheduleCheckTimer(Runnable runnable, long delay) {
-        if (!runningTimer.compareAndSet(false, true)) {
-            return;
-        }
-
-        getImmortalityTimer().schedule(new ImmortalityTimer.ImmortalityTimerTask() {
-            @Override
-            public void run() {
-                runningTimer.set(false);
-                CompletableFuture.runAsync(runnable, getAsyncExecutor());
-            }
-        }, delay);
-    }
 }
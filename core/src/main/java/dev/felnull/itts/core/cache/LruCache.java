@@ -0,0 +1,209 @@
+package dev.felnull.itts.core.cache;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongBiFunction;
+
+/**
+ * 合計サイズに上限のあるメモリ上のキャッシュ<br/>
+ * 合計サイズが上限を超えた場合は、最後に使用されてから最も時間が経っているものから破棄する
+ *
+ * @param <K> キー
+ * @param <V> 値
+ * @author MORIMORI0317
+ */
+public class LruCache<K, V> {
+
+    /**
+     * キャッシュ (最後に使用された順)
+     */
+    private final Map<K, V> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * ヒット数
+     */
+    private final AtomicLong hitCount = new AtomicLong();
+
+    /**
+     * ミス数
+     */
+    private final AtomicLong missCount = new AtomicLong();
+
+    /**
+     * 破棄数
+     */
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    /**
+     * 最大サイズの取得
+     */
+    private final LongSupplier maxSize;
+
+    /**
+     * エントリの大きさの取得
+     */
+    private final ToLongBiFunction<K, V> sizer;
+
+    /**
+     * 合計サイズ
+     */
+    private long totalSize;
+
+    /**
+     * コンストラクタ
+     *
+     * @param maxSize 最大サイズの取得
+     * @param sizer   エントリの大きさの取得
+     */
+    public LruCache(@NotNull LongSupplier maxSize, @NotNull ToLongBiFunction<K, V> sizer) {
+        this.maxSize = maxSize;
+        this.sizer = sizer;
+    }
+
+    /**
+     * キャッシュを取得する
+     *
+     * @param key キー
+     * @return 値、存在しなければnull
+     */
+    @Nullable
+    public V get(@NotNull K key) {
+        V value;
+
+        synchronized (entries) {
+            value = entries.get(key);
+        }
+
+        if (value != null) {
+            hitCount.incrementAndGet();
+        } else {
+            missCount.incrementAndGet();
+        }
+
+        return value;
+    }
+
+    /**
+     * キャッシュが存在するかどうか<br/>
+     * ヒット数とミス数には含めない
+     *
+     * @param key キー
+     * @return 存在するかどうか
+     */
+    public boolean contains(@NotNull K key) {
+        synchronized (entries) {
+            return entries.containsKey(key);
+        }
+    }
+
+    /**
+     * キャッシュに保存可能な大きさかどうか
+     *
+     * @param size エントリの大きさ
+     * @return 保存可能かどうか
+     */
+    public boolean canStore(long size) {
+        return size <= maxSize.getAsLong();
+    }
+
+    /**
+     * キャッシュに保存する<br/>
+     * 上限を超えた場合は古いものから破棄する
+     *
+     * @param key   キー
+     * @param value 値
+     */
+    public void put(@NotNull K key, @NotNull V value) {
+        put(key, value, () -> true);
+    }
+
+    /**
+     * 条件を満たす場合のみキャッシュに保存する<br/>
+     * 条件は{@link #clear()}と同じロックの中で確認する
+     *
+     * @param key       キー
+     * @param value     値
+     * @param condition 保存する条件
+     */
+    public void put(@NotNull K key, @NotNull V value, @NotNull BooleanSupplier condition) {
+        long max = maxSize.getAsLong();
+        long size = sizer.applyAsLong(key, value);
+
+        if (size > max) {
+            return;
+        }
+
+        synchronized (entries) {
+            if (!condition.getAsBoolean()) {
+                return;
+            }
+
+            V pre = entries.put(key, value);
+
+            if (pre != null) {
+                totalSize -= sizer.applyAsLong(key, pre);
+            }
+
+            totalSize += size;
+
+            Iterator<Map.Entry<K, V>> iterator = entries.entrySet().iterator();
+            while (totalSize > max && iterator.hasNext()) {
+                Map.Entry<K, V> entry = iterator.next();
+                totalSize -= sizer.applyAsLong(entry.getKey(), entry.getValue());
+                iterator.remove();
+                evictionCount.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * 全てのキャッシュを破棄する
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            totalSize = 0;
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    /**
+     * キャッシュの合計サイズを取得
+     *
+     * @return 合計サイズ
+     */
+    public long getTotalSize() {
+        synchronized (entries) {
+            return totalSize;
+        }
+    }
+
+    /**
+     * キャッシュの数を取得
+     *
+     * @return キャッシュの数
+     */
+    public int getEntryCount() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package dev.felnull.itts.core.cache;
+
+import com.google.common.hash.HashCode;
+import dev.felnull.itts.core.ITTSRuntimeUse;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * メモリ上の音声キャッシュ<br/>
+ * ローカルキャッシュの手前に置き、よく使われる音声をファイルを読まずに再生できるようにする<br/>
+ * 合計サイズがコンフィグの上限を超えた場合は、最後に使用されてから最も時間が経っているものから破棄する
+ *
+ * @author MORIMORI0317
+ */
+public class MemoryAudioCache implements ITTSRuntimeUse {
+
+    /**
+     * キャッシュ
+     */
+    private final LruCache<HashCode, byte[]> cache = new LruCache<>(this::getMaxSize, (key, data) -> data.length);
+
+    /**
+     * キャッシュを取得する
+     *
+     * @param key キー
+     * @return 音声データ、存在しなければnull
+     */
+    @Nullable
+    public byte[] get(@NotNull HashCode key) {
+        return cache.get(key);
+    }
+
+    /**
+     * キャッシュに保存可能な大きさかどうか
+     *
+     * @param size データの大きさ
+     * @return 保存可能かどうか
+     */
+    public boolean canStore(long size) {
+        return cache.canStore(size);
+    }
+
+    /**
+     * キャッシュに保存する<br/>
+     * 上限を超えた場合は古いものから破棄する
+     *
+     * @param key  キー
+     * @param data 音声データ
+     */
+    public void put(@NotNull HashCode key, @NotNull byte[] data) {
+        cache.put(key, data);
+    }
+
+    /**
+     * 全てのキャッシュを破棄する
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    private long getMaxSize() {
+        return getConfigManager().getConfig().getMemoryCacheSize();
+    }
+
+    public long getHitCount() {
+        return cache.getHitCount();
+    }
+
+    public long getMissCount() {
+        return cache.getMissCount();
+    }
+
+    public long getEvictionCount() {
+        return cache.getEvictionCount();
+    }
+
+    /**
+     * キャッシュの合計サイズを取得
+     *
+     * @return 合計サイズ
+     */
+    public long getTotalSize() {
+        return cache.getTotalSize();
+    }
+
+    /**
+     * キャッシュの数を取得
+     *
+     * @return キャッシュの数
+     */
+    public int getEntryCount() {
+        return cache.getEntryCount();
+    }
+}
@@ -0,0 +1,125 @@
+package dev.felnull.itts.core.cache;
+
+import com.google.common.hash.HashCode;
+import dev.felnull.itts.core.ITTSRuntimeUse;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * エンコード済みのOpusフレームのキャッシュ<br/>
+ * 一度再生した音声のフレームを保持し、次回以降はデコードや再エンコードを行わずにそのまま送信できるようにする<br/>
+ * 合計サイズがコンフィグの上限を超えた場合は、最後に使用されてから最も時間が経っているものから破棄する
+ *
+ * @author MORIMORI0317
+ */
+public class OpusFrameCache implements ITTSRuntimeUse {
+
+    /**
+     * キャッシュ
+     */
+    private final LruCache<HashCode, Frames> cache = new LruCache<>(this::getMaxSize, (key, frames) -> frames.size());
+
+    /**
+     * キャッシュが有効かどうか
+     *
+     * @return 有効かどうか
+     */
+    public boolean isEnabled() {
+        return getMaxSize() > 0;
+    }
+
+    /**
+     * キャッシュを取得する
+     *
+     * @param key キー
+     * @return Opusフレームの配列、存在しなければnull
+     */
+    @Nullable
+    public byte[][] get(@NotNull HashCode key) {
+        Frames frames = cache.get(key);
+        return frames != null ? frames.data() : null;
+    }
+
+    /**
+     * キャッシュが存在するかどうか<br/>
+     * ヒット数とミス数には含めない
+     *
+     * @param key キー
+     * @return 存在するかどうか
+     */
+    public boolean contains(@NotNull HashCode key) {
+        return cache.contains(key);
+    }
+
+    /**
+     * キャッシュに保存する<br/>
+     * 上限を超えた場合は古いものから破棄する
+     *
+     * @param key    キー
+     * @param frames Opusフレームの配列
+     */
+    public void put(@NotNull HashCode key, @NotNull byte[][] frames) {
+        cache.put(key, new Frames(frames, getSize(frames)));
+    }
+
+    /**
+     * 全てのキャッシュを破棄する
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    private static long getSize(byte[][] frames) {
+        long size = 0;
+
+        for (byte[] frame : frames) {
+            size += frame.length;
+        }
+
+        return size;
+    }
+
+    private long getMaxSize() {
+        return getConfigManager().getConfig().getOpusFrameCacheSize();
+    }
+
+    public long getHitCount() {
+        return cache.getHitCount();
+    }
+
+    public long getMissCount() {
+        return cache.getMissCount();
+    }
+
+    public long getEvictionCount() {
+        return cache.getEvictionCount();
+    }
+
+    /**
+     * キャッシュの合計サイズを取得
+     *
+     * @return 合計サイズ
+     */
+    public long getTotalSize() {
+        return cache.getTotalSize();
+    }
+
+    /**
+     * キャッシュの数を取得
+     *
+     * @return キャッシュの数
+     */
+    public int getEntryCount() {
+        return cache.getEntryCount();
+    }
+
+    /**
+     * キャッシュしたフレーム
+     *
+     * @param data フレームの配列
+     * @param size 合計サイズ
+     * @author MORIMORI0317
+     */
+    private record Frames(byte[][] data, long size) {
+    }
+}
@@ -0,0 +1,631 @@
+package dev.felnull.itts.core.cache;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import dev.felnull.fnjl.util.FNDataUtil;
+import dev.felnull.itts.core.ITTSRuntimeUse;
+import dev.felnull.itts.core.ImmortalityTimer;
+import dev.felnull.itts.core.util.JsonUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 再起動後も保持される音声キャッシュ<br/>
+ * キャッシュの一覧はインデックスファイルに保存し、合計サイズが上限を超えた場合は最後に使用されてから最も時間が経っているものから削除する<br/>
+ * ファイルは一時ファイルに書き込んでから移動するため、書き込み途中で停止しても壊れたファイルが残ることはない<br/>
+ * 音声データは内容のハッシュを名前にしたファイルに保存し、キーごとにファイルを参照することで、同じ内容の音声データを1つのファイルにまとめる
+ *
+ * @author MORIMORI0317
+ */
+public class PersistentCache implements ITTSRuntimeUse {
+
+    /**
+     * インデックスファイルのバージョン
+     */
+    private static final int INDEX_VERSION = 0;
+
+    /**
+     * インデックスファイル名
+     */
+    private static final String INDEX_FILE_NAME = "index.json";
+
+    /**
+     * 一時ファイルの拡張子
+     */
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    /**
+     * 圧縮したファイルの拡張子
+     */
+    private static final String COMPRESSED_SUFFIX = ".gz";
+
+    /**
+     * インデックスの保存を待機する時間
+     */
+    private static final long INDEX_SAVE_DELAY = 3000L;
+
+    /**
+     * GSON
+     */
+    private static final Gson GSON = new Gson();
+
+    /**
+     * キャッシュ保存用フォルダー
+     */
+    private final File folder;
+
+    /**
+     * 合計サイズの上限
+     */
+    private final long maxSize;
+
+    /**
+     * キャッシュのエントリ (最後に使用された順)
+     */
+    private final Map<HashCode, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * ファイルごとの参照しているエントリの数
+     */
+    private final Map<String, Integer> fileRefs = new HashMap<>();
+
+    /**
+     * 参照しているエントリがなくなったが、使用中のため削除を待っているファイルと最後に参照していたキー
+     */
+    private final Map<String, HashCode> pendingDeletes = new HashMap<>();
+
+    /**
+     * 圧縮して保存するかどうか
+     */
+    private final boolean compression;
+
+    /**
+     * インデックスの保存が予定されているかどうか
+     */
+    private final AtomicBoolean indexSaveScheduled = new AtomicBoolean();
+
+    /**
+     * 合計サイズ (同じファイルを参照するエントリは1つとして数える)
+     */
+    private long totalSize;
+
+    /**
+     * コンストラクタ
+     *
+     * @param folder      キャッシュ保存用フォルダー
+     * @param maxSize     合計サイズの上限
+     * @param compression 圧縮して保存するかどうか
+     */
+    public PersistentCache(@NotNull File folder, long maxSize, boolean compression) {
+        this.folder = folder;
+        this.maxSize = maxSize;
+        this.compression = compression;
+    }
+
+    /**
+     * インデックスを読み込み、インデックスとファイルの整合性を取る<br/>
+     * インデックスに存在しないファイルと、ファイルが存在しないエントリは削除する
+     *
+     * @throws IOException IO例外
+     */
+    public void load() throws IOException {
+        FNDataUtil.wishMkdir(folder);
+
+        File indexFile = getIndexFile();
+
+        synchronized (entries) {
+            entries.clear();
+            fileRefs.clear();
+            pendingDeletes.clear();
+            totalSize = 0;
+
+            if (indexFile.exists()) {
+                JsonObject jo;
+                try (Reader reader = Files.newBufferedReader(indexFile.toPath(), StandardCharsets.UTF_8)) {
+                    jo = GSON.fromJson(reader, JsonObject.class);
+                }
+
+                if (jo != null && JsonUtils.getInt(jo, "version", -1) == INDEX_VERSION && jo.get("entries") != null && jo.get("entries").isJsonArray()) {
+                    List<Entry> loaded = new ArrayList<>();
+
+                    for (JsonElement element : jo.getAsJsonArray("entries")) {
+                        if (element.isJsonObject()) {
+                            Entry entry = Entry.fromJson(element.getAsJsonObject());
+
+                            if (entry != null && entry.getFile(folder).length() == entry.size) {
+                                loaded.add(entry);
+                            }
+                        }
+                    }
+
+                    // 最後に使用された順に並べる
+                    loaded.sort((o1, o2) -> Long.compare(o1.lastUsed, o2.lastUsed));
+                    for (Entry entry : loaded) {
+                        entries.put(entry.hashCode, entry);
+                        addFileRef(entry);
+                    }
+                }
+            }
+
+            deleteUnknownFiles();
+            evict(key -> false);
+        }
+
+        saveIndex();
+    }
+
+    private void deleteUnknownFiles() {
+        File[] files = folder.listFiles();
+
+        if (files == null) {
+            return;
+        }
+
+        Set<String> known = new HashSet<>();
+        known.add(INDEX_FILE_NAME);
+        known.addAll(fileRefs.keySet());
+
+        for (File file : files) {
+            if (file.isFile() && !known.contains(file.getName())) {
+                deleteFile(file);
+            }
+        }
+    }
+
+    /**
+     * キャッシュを取得する
+     *
+     * @param key キー
+     * @return キャッシュのファイル、存在しなければnull
+     */
+    @Nullable
+    public Blob get(@NotNull HashCode key) {
+        Entry entry;
+
+        synchronized (entries) {
+            entry = entries.get(key);
+
+            if (entry == null) {
+                return null;
+            }
+
+            entry.lastUsed = System.currentTimeMillis();
+        }
+
+        scheduleIndexSave();
+
+        return new Blob(entry.getFile(folder), entry.compressed);
+    }
+
+    /**
+     * ファイルをキャッシュに保存する<br/>
+     * 圧縮しない場合、元のファイルはキャッシュ保存用フォルダーに移動される<br/>
+     * 同じ内容のファイルが保存済みの場合は、新たに保存せずに保存済みのファイルを参照する
+     *
+     * @param key    キー
+     * @param source 保存するファイル
+     * @param inUse  使用中のキャッシュかどうか、使用中のキャッシュは削除しない
+     * @return 保存先ファイル、上限を超えるため保存できなかった場合や圧縮して保存したため元のファイルを引き続き使用する場合はnull
+     * @throws IOException IO例外
+     */
+    @Nullable
+    public File store(@NotNull HashCode key, @NotNull File source, @NotNull Predicate<HashCode> inUse) throws IOException {
+        long size = source.length();
+
+        if (size > maxSize) {
+            return null;
+        }
+
+        String fileName = hashContent(source) + (compression ? COMPRESSED_SUFFIX : "");
+        File target = new File(folder, fileName);
+        long now = System.currentTimeMillis();
+
+        boolean stored;
+
+        synchronized (entries) {
+            // 同じ内容のファイルが保存済みの場合は、先に参照を追加して削除されないようにする
+            stored = fileRefs.containsKey(fileName);
+
+            if (stored) {
+                putEntry(new Entry(key, fileName, target.length(), compression, now, now), inUse);
+            }
+        }
+
+        if (stored) {
+            return useStoredFile(source, target);
+        }
+
+        // 同じ内容の保存が同時に行われても衝突しないように、呼び出しごとに別の一時ファイルを使用する
+        Path temp = Files.createTempFile(folder.toPath(), fileName, TEMP_SUFFIX);
+
+        try {
+            if (compression) {
+                try (OutputStream out = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                    Files.copy(source.toPath(), out);
+                }
+            } else {
+                // 別のファイルシステムの場合は途中までしか書き込まれていない可能性があるため、一時ファイルを経由する
+                Files.move(source.toPath(), temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            synchronized (entries) {
+                // 書き込み中に同じ内容のファイルが保存された場合は、そちらを使用する
+                if (!fileRefs.containsKey(fileName)) {
+                    atomicMove(temp, target.toPath());
+                }
+
+                putEntry(new Entry(key, fileName, target.length(), compression, now, now), inUse);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        scheduleIndexSave();
+
+        return compression ? null : target;
+    }
+
+    /**
+     * 保存済みの同じ内容のファイルを使用する<br/>
+     * 圧縮しない場合は保存済みのファイルを使用するため、元のファイルは削除する
+     *
+     * @param source 保存するファイル
+     * @param target 保存済みのファイル
+     * @return 保存先ファイル、圧縮して保存したため元のファイルを引き続き使用する場合はnull
+     * @throws IOException IO例外
+     */
+    private File useStoredFile(File source, File target) throws IOException {
+        scheduleIndexSave();
+
+        if (compression) {
+            return null;
+        }
+
+        Files.deleteIfExists(source.toPath());
+        return target;
+    }
+
+    private void putEntry(Entry entry, Predicate<HashCode> inUse) {
+        addFileRef(entry);
+
+        Entry pre = entries.put(entry.hashCode, entry);
+        if (pre != null) {
+            releaseFileRef(pre, inUse.or(entry.hashCode::equals));
+        }
+
+        evict(inUse.or(entry.hashCode::equals));
+    }
+
+    private void addFileRef(Entry entry) {
+        if (fileRefs.merge(entry.fileName, 1, Integer::sum) == 1) {
+            totalSize += entry.size;
+        }
+    }
+
+    /**
+     * ファイルの参照を解除し、参照しているエントリがなくなった場合はファイルを削除する<br/>
+     * エントリが使用中の場合は、読み込み中のファイルを削除しないように使用されなくなるまで削除を待つ
+     *
+     * @param entry エントリ
+     * @param inUse 使用中のキャッシュかどうか
+     */
+    private void releaseFileRef(Entry entry, Predicate<HashCode> inUse) {
+        if (fileRefs.computeIfPresent(entry.fileName, (k, v) -> v > 1 ? v - 1 : null) != null) {
+            return;
+        }
+
+        totalSize -= entry.size;
+
+        if (inUse.test(entry.hashCode)) {
+            pendingDeletes.put(entry.fileName, entry.hashCode);
+        } else {
+            deleteFile(entry.getFile(folder));
+        }
+    }
+
+    /**
+     * 削除を待っているファイルのうち、使用されなくなったものを削除する
+     *
+     * @param inUse 使用中のキャッシュかどうか
+     */
+    private void deletePending(Predicate<HashCode> inUse) {
+        pendingDeletes.entrySet().removeIf(it -> {
+            // 再び保存された場合は削除しない
+            if (fileRefs.containsKey(it.getKey())) {
+                return true;
+            }
+
+            if (inUse.test(it.getValue())) {
+                return false;
+            }
+
+            deleteFile(new File(folder, it.getKey()));
+            return true;
+        });
+    }
+
+    private void evict(Predicate<HashCode> inUse) {
+        deletePending(inUse);
+
+        Iterator<Entry> iterator = entries.values().iterator();
+
+        while (totalSize > maxSize && iterator.hasNext()) {
+            Entry entry = iterator.next();
+
+            if (inUse.test(entry.hashCode)) {
+                continue;
+            }
+
+            iterator.remove();
+            releaseFileRef(entry, inUse);
+        }
+    }
+
+    /**
+     * ファイルの内容のハッシュを求める
+     *
+     * @param file ファイル
+     * @return ハッシュの文字列
+     * @throws IOException IO例外
+     */
+    private static String hashContent(File file) throws IOException {
+        Hasher hasher = Hashing.sha256().newHasher();
+
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            byte[] buf = new byte[8192];
+            int len;
+
+            while ((len = in.read(buf)) >= 0) {
+                hasher.putBytes(buf, 0, len);
+            }
+        }
+
+        return hasher.hash().toString();
+    }
+
+    private void scheduleIndexSave() {
+        if (!indexSaveScheduled.compareAndSet(false, true)) {
+            return;
+        }
+
+        getImmortalityTimer().schedule(new ImmortalityTimer.ImmortalityTimerTask() {
+            @Override
+            public void run() {
+                CompletableFuture.runAsync(() -> {
+                    indexSaveScheduled.set(false);
+                    saveIndex();
+                }, getAsyncExecutor());
+            }
+        }, INDEX_SAVE_DELAY);
+    }
+
+    /**
+     * インデックスを保存する
+     */
+    public void saveIndex() {
+        JsonObject jo = new JsonObject();
+        jo.addProperty("version", INDEX_VERSION);
+
+        List<Entry> snapshot;
+        synchronized (entries) {
+            snapshot = new ArrayList<>(entries.values());
+        }
+
+        JsonArray ja = new JsonArray();
+        for (Entry entry : snapshot) {
+            ja.add(entry.toJson());
+        }
+        jo.add("entries", ja);
+
+        Path indexPath = getIndexFile().toPath();
+        Path temp = new File(folder, INDEX_FILE_NAME + TEMP_SUFFIX).toPath();
+
+        synchronized (this) {
+            try {
+                try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                    GSON.toJson(jo, writer);
+                }
+                atomicMove(temp, indexPath);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private File getIndexFile() {
+        return new File(folder, INDEX_FILE_NAME);
+    }
+
+    private static void atomicMove(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private void deleteFile(File file) {
+        try {
+            Files.deleteIfExists(file.toPath());
+        } catch (IOException e) {
+            getITTSLogger().warn("Failed to delete cache file: {}", file, e);
+        }
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * キャッシュの合計サイズを取得
+     *
+     * @return 合計サイズ
+     */
+    public long getTotalSize() {
+        synchronized (entries) {
+            return totalSize;
+        }
+    }
+
+    /**
+     * キャッシュの数を取得
+     *
+     * @return キャッシュの数
+     */
+    public int getEntryCount() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * 保存しているファイルの数を取得
+     *
+     * @return ファイルの数
+     */
+    public int getFileCount() {
+        synchronized (entries) {
+            return fileRefs.size();
+        }
+    }
+
+    /**
+     * インデックスのエントリ
+     *
+     * @author MORIMORI0317
+     */
+    private static final class Entry {
+
+        /**
+         * キー
+         */
+        private final HashCode hashCode;
+
+        /**
+         * 参照しているファイル名
+         */
+        private final String fileName;
+
+        /**
+         * ファイルサイズ
+         */
+        private final long size;
+
+        /**
+         * 圧縮されているかどうか
+         */
+        private final boolean compressed;
+
+        /**
+         * 作成時刻
+         */
+        private final long created;
+
+        /**
+         * 最終使用時刻
+         */
+        private volatile long lastUsed;
+
+        private Entry(HashCode hashCode, String fileName, long size, boolean compressed, long created, long lastUsed) {
+            this.hashCode = hashCode;
+            this.fileName = fileName;
+            this.size = size;
+            this.compressed = compressed;
+            this.created = created;
+            this.lastUsed = lastUsed;
+        }
+
+        private static Entry fromJson(JsonObject jo) {
+            String hash = JsonUtils.getString(jo, "hash", null);
+
+            if (hash == null) {
+                return null;
+            }
+
+            HashCode hashCode;
+            try {
+                hashCode = HashCode.fromString(hash);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+
+            // 内容のハッシュを名前にする前のエントリは、キーをファイル名として使用している
+            String fileName = JsonUtils.getString(jo, "file", hash);
+            if (fileName.isEmpty() || fileName.contains("/") || fileName.contains("\\") || fileName.startsWith(".")) {
+                return null;
+            }
+
+            return new Entry(hashCode, fileName, JsonUtils.getLong(jo, "size", -1), JsonUtils.getBoolean(jo, "compressed", false),
+                    JsonUtils.getLong(jo, "created", 0), JsonUtils.getLong(jo, "last_used", 0));
+        }
+
+        private JsonObject toJson() {
+            JsonObject jo = new JsonObject();
+            jo.addProperty("hash", hashCode.toString());
+            jo.addProperty("file", fileName);
+            jo.addProperty("size", size);
+            jo.addProperty("compressed", compressed);
+            jo.addProperty("created", created);
+            jo.addProperty("last_used", lastUsed);
+            return jo;
+        }
+
+        private File getFile(File folder) {
+            return new File(folder, fileName);
+        }
+    }
+
+    /**
+     * キャッシュのファイル
+     *
+     * @param file       ファイル
+     * @param compressed 圧縮されているかどうか
+     * @author MORIMORI0317
+     */
+    public record Blob(File file, boolean compressed) {
+
+        /**
+         * 展開した音声データのストリームを開く
+         *
+         * @return 音声データのストリーム
+         * @throws IOException IO例外
+         */
+        public InputStream openStream() throws IOException {
+            InputStream in = new BufferedInputStream(Files.newInputStream(file.toPath()));
+            return compressed ? new GZIPInputStream(in) : in;
+        }
+    }
+}
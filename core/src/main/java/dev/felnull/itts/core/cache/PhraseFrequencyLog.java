@@ -0,0 +1,317 @@
+package dev.felnull.itts.core.cache;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import dev.felnull.itts.core.ITTSRuntimeUse;
+import dev.felnull.itts.core.ImmortalityTimer;
+import dev.felnull.itts.core.util.JsonUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 音声合成を行った声タイプとテキストの組み合わせごとの回数の記録<br/>
+ * 記録する数が上限を超えた場合は、回数の少ないものを削除して残りの回数を半分にすることで、最近よく使われるものを残す<br/>
+ * ユーザーのテキストを保存するため、一定期間記録されなかったものは削除する
+ *
+ * @author MORIMORI0317
+ */
+public class PhraseFrequencyLog implements ITTSRuntimeUse {
+
+    /**
+     * ファイルのバージョン
+     */
+    private static final int VERSION = 0;
+
+    /**
+     * 記録する最大数
+     */
+    private static final int MAX_ENTRIES = 4096;
+
+    /**
+     * 記録するテキストの最大文字数
+     */
+    private static final int MAX_TEXT_LENGTH = 64;
+
+    /**
+     * 記録されなかった場合に削除するまでの期間(ms)
+     */
+    private static final long MAX_AGE = 1000L * 60L * 60L * 24L * 30L;
+
+    /**
+     * 保存を待機する時間
+     */
+    private static final long SAVE_DELAY = 60000L;
+
+    /**
+     * 一時ファイルの拡張子
+     */
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    /**
+     * GSON
+     */
+    private static final Gson GSON = new Gson();
+
+    /**
+     * 保存先ファイル
+     */
+    private final File file;
+
+    /**
+     * 組み合わせごとの回数
+     */
+    private final Map<Phrase, Count> counts = new HashMap<>();
+
+    /**
+     * 保存が予定されているかどうか
+     */
+    private final AtomicBoolean saveScheduled = new AtomicBoolean();
+
+    /**
+     * コンストラクタ
+     *
+     * @param file 保存先ファイル
+     */
+    public PhraseFrequencyLog(@NotNull File file) {
+        this.file = file;
+    }
+
+    /**
+     * 保存先ファイルから読み込む
+     *
+     * @throws IOException IO例外
+     */
+    public void load() throws IOException {
+        if (!file.exists()) {
+            return;
+        }
+
+        JsonObject jo;
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            jo = GSON.fromJson(reader, JsonObject.class);
+        }
+
+        if (jo == null || JsonUtils.getInt(jo, "version", -1) != VERSION || jo.get("phrases") == null || !jo.get("phrases").isJsonArray()) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+
+        synchronized (counts) {
+            counts.clear();
+
+            for (JsonElement element : jo.getAsJsonArray("phrases")) {
+                if (!element.isJsonObject()) {
+                    continue;
+                }
+
+                JsonObject pjo = element.getAsJsonObject();
+                String voiceType = JsonUtils.getString(pjo, "voice_type", null);
+                String text = JsonUtils.getString(pjo, "text", null);
+                int count = JsonUtils.getInt(pjo, "count", 0);
+                long lastRecorded = JsonUtils.getLong(pjo, "last_recorded", now);
+
+                if (voiceType != null && text != null && count > 0 && !isExpired(lastRecorded, now)) {
+                    counts.put(new Phrase(voiceType, text), new Count(count, lastRecorded));
+                }
+            }
+        }
+    }
+
+    /**
+     * 音声合成を行ったことを記録する
+     *
+     * @param voiceTypeId 声タイプのID
+     * @param text        テキスト
+     */
+    public void record(@NotNull String voiceTypeId, @NotNull String text) {
+        if (text.isEmpty() || text.length() > MAX_TEXT_LENGTH) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+
+        synchronized (counts) {
+            Count count = counts.computeIfAbsent(new Phrase(voiceTypeId, text), k -> new Count(0, now));
+            count.count++;
+            count.lastRecorded = now;
+
+            if (counts.size() > MAX_ENTRIES) {
+                decay();
+            }
+        }
+
+        scheduleSave();
+    }
+
+    /**
+     * 回数の多い半分のみを残し、残したものの回数を半分にする
+     */
+    private void decay() {
+        List<Map.Entry<Phrase, Count>> top = sortedEntries(MAX_ENTRIES / 2);
+        counts.clear();
+
+        for (Map.Entry<Phrase, Count> entry : top) {
+            counts.put(entry.getKey(), new Count(Math.max(1, entry.getValue().count / 2), entry.getValue().lastRecorded));
+        }
+    }
+
+    /**
+     * 期間内に記録されなかったものを削除する
+     */
+    private void removeExpired() {
+        long now = System.currentTimeMillis();
+        counts.values().removeIf(it -> isExpired(it.lastRecorded, now));
+    }
+
+    private static boolean isExpired(long lastRecorded, long now) {
+        return now - lastRecorded > MAX_AGE;
+    }
+
+    private List<Map.Entry<Phrase, Count>> sortedEntries(int limit) {
+        return counts.entrySet().stream()
+                .sorted(Comparator.comparingInt((Map.Entry<Phrase, Count> it) -> it.getValue().count).reversed())
+                .limit(limit)
+                .map(it -> Map.entry(it.getKey(), new Count(it.getValue().count, it.getValue().lastRecorded)))
+                .toList();
+    }
+
+    /**
+     * 回数の多い組み合わせを取得
+     *
+     * @param limit 取得する最大数
+     * @return 回数の多い順の組み合わせ
+     */
+    @NotNull
+    @Unmodifiable
+    public List<Phrase> getTopPhrases(int limit) {
+        synchronized (counts) {
+            removeExpired();
+            return sortedEntries(limit).stream()
+                    .map(Map.Entry::getKey)
+                    .toList();
+        }
+    }
+
+    private void scheduleSave() {
+        if (!saveScheduled.compareAndSet(false, true)) {
+            return;
+        }
+
+        getImmortalityTimer().schedule(new ImmortalityTimer.ImmortalityTimerTask() {
+            @Override
+            public void run() {
+                CompletableFuture.runAsync(() -> {
+                    saveScheduled.set(false);
+                    save();
+                }, getAsyncExecutor());
+            }
+        }, SAVE_DELAY);
+    }
+
+    /**
+     * 保存先ファイルに保存する
+     */
+    public void save() {
+        JsonObject jo = new JsonObject();
+        jo.addProperty("version", VERSION);
+
+        List<Map.Entry<Phrase, Count>> snapshot;
+        synchronized (counts) {
+            removeExpired();
+            snapshot = sortedEntries(MAX_ENTRIES);
+        }
+
+        JsonArray ja = new JsonArray();
+        for (Map.Entry<Phrase, Count> entry : snapshot) {
+            JsonObject pjo = new JsonObject();
+            pjo.addProperty("voice_type", entry.getKey().voiceTypeId());
+            pjo.addProperty("text", entry.getKey().text());
+            pjo.addProperty("count", entry.getValue().count);
+            pjo.addProperty("last_recorded", entry.getValue().lastRecorded);
+            ja.add(pjo);
+        }
+        jo.add("phrases", ja);
+
+        Path temp = new File(file.getAbsoluteFile().getParentFile(), file.getName() + TEMP_SUFFIX).toPath();
+
+        synchronized (this) {
+            try {
+                try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                    GSON.toJson(jo, writer);
+                }
+
+                try {
+                    Files.move(temp, file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * 記録している数を取得
+     *
+     * @return 記録している数
+     */
+    public int getEntryCount() {
+        synchronized (counts) {
+            return counts.size();
+        }
+    }
+
+    /**
+     * 声タイプとテキストの組み合わせ
+     *
+     * @param voiceTypeId 声タイプのID
+     * @param text        テキスト
+     * @author MORIMORI0317
+     */
+    public record Phrase(String voiceTypeId, String text) {
+    }
+
+    /**
+     * 組み合わせごとの回数と最後に記録した時間
+     *
+     * @author MORIMORI0317
+     */
+    private static final class Count {
+
+        /**
+         * 回数
+         */
+        private int count;
+
+        /**
+         * 最後に記録した時間
+         */
+        private long lastRecorded;
+
+        private Count(int count, long lastRecorded) {
+            this.count = count;
+            this.lastRecorded = lastRecorded;
+        }
+    }
+}
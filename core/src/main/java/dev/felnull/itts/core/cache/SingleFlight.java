@@ -0,0 +1,224 @@
+package dev.felnull.itts.core.cache;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 同じキーの読み込みを1つにまとめる<br/>
+ * 読み込み中に同じキーで要求された場合は、新たに読み込まずに読み込み中の結果を共有する<br/>
+ * まとめられた要求には読み込み中の結果に従うCompletableFutureを返すため、要求ごとに取り消しても共有している読み込みは取り消されない<br/>
+ * 読み込みに成功した結果は{@link #remove(Object)}で取り除くまで保持し、失敗した場合はすぐに取り除いて一定時間は同じ失敗を返す<br/>
+ * 取り消しによる失敗は保持しない
+ *
+ * @param <K> キー
+ * @param <V> 読み込み結果
+ * @author MORIMORI0317
+ */
+public class SingleFlight<K, V> {
+
+    /**
+     * 失敗を保持する数の目安、超えた場合は期限切れのものを取り除く
+     */
+    private static final int FAILURE_CLEANUP_THRESHOLD = 1024;
+
+    /**
+     * 読み込み中もしくは読み込み済みのもの
+     */
+    private final Map<K, Flight<V>> flights = new ConcurrentHashMap<>();
+
+    /**
+     * 最近失敗したもの
+     */
+    private final Map<K, Failure> failures = new ConcurrentHashMap<>();
+
+    /**
+     * 読み込み中のものにまとめられた要求の数
+     */
+    private final AtomicLong joinedCount = new AtomicLong();
+
+    /**
+     * 失敗を保持する時間(ms)
+     */
+    private final long negativeCacheTime;
+
+    /**
+     * コンストラクタ
+     *
+     * @param negativeCacheTime 失敗を保持する時間(ms)
+     */
+    public SingleFlight(long negativeCacheTime) {
+        this.negativeCacheTime = negativeCacheTime;
+    }
+
+    /**
+     * 読み込む、もしくは読み込み中もしくは読み込み済みの結果を取得する<br/>
+     * 読み込み中のものにまとめられた場合は、完了もしくは取り消されるまで待っている要求として数える
+     *
+     * @param key    キー
+     * @param loader 読み込み処理
+     * @return 読み込み結果のCompletableFuture
+     */
+    public CompletableFuture<V> load(@NotNull K key, @NotNull Function<K, CompletableFuture<V>> loader) {
+        Failure failure = failures.get(key);
+
+        if (failure != null) {
+            if (System.currentTimeMillis() < failure.expireTime()) {
+                return CompletableFuture.failedFuture(failure.cause());
+            }
+
+            failures.remove(key, failure);
+        }
+
+        boolean[] created = new boolean[1];
+        Flight<V> flight = flights.computeIfAbsent(key, k -> {
+            created[0] = true;
+            return new Flight<>(loader.apply(k));
+        });
+
+        if (created[0]) {
+            flight.future().whenComplete((v, throwable) -> {
+                if (throwable != null) {
+                    fail(key, flight, throwable);
+                }
+            });
+        } else if (!flight.future().isDone()) {
+            joinedCount.incrementAndGet();
+            flight.waiters().incrementAndGet();
+
+            CompletableFuture<V> waiter = flight.future().copy();
+            waiter.whenComplete((v, throwable) -> flight.waiters().decrementAndGet());
+            return waiter;
+        }
+
+        return flight.future();
+    }
+
+    private void fail(K key, Flight<V> flight, Throwable throwable) {
+        if (!flights.remove(key, flight)) {
+            return;
+        }
+
+        // 読み上げの取り消しによる失敗は、同じ音声を再度要求した場合に読み込み直せるように保持しない
+        if (isCancellation(throwable)) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+
+        if (failures.size() >= FAILURE_CLEANUP_THRESHOLD) {
+            failures.values().removeIf(it -> it.expireTime() <= now);
+        }
+
+        failures.put(key, new Failure(throwable, now + negativeCacheTime));
+    }
+
+    private static boolean isCancellation(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof CancellationException) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * 読み込み結果を取り除く
+     *
+     * @param key キー
+     * @return 取り除いた読み込み結果のCompletableFuture、存在しない場合はnull
+     */
+    @Nullable
+    public CompletableFuture<V> remove(@NotNull K key) {
+        Flight<V> flight = flights.remove(key);
+        return flight != null ? flight.future() : null;
+    }
+
+    /**
+     * 読み込み中もしくは読み込み済みかどうか
+     *
+     * @param key キー
+     * @return 存在するかどうか
+     */
+    public boolean contains(@NotNull K key) {
+        return flights.containsKey(key);
+    }
+
+    /**
+     * 読み込み中の数を取得
+     *
+     * @return 読み込み中の数
+     */
+    public int getInFlightCount() {
+        return (int) flights.values().stream()
+                .filter(it -> !it.future().isDone())
+                .count();
+    }
+
+    /**
+     * 読み込み中のもので、まとめられて現在待っている要求の数が多いものを取得
+     *
+     * @param limit 取得する最大数
+     * @return キーと現在待っている要求の数
+     */
+    public List<Map.Entry<K, Integer>> getHotKeys(int limit) {
+        return flights.entrySet().stream()
+                .filter(it -> !it.getValue().future().isDone())
+                .map(it -> Map.entry(it.getKey(), it.getValue().waiters().get()))
+                .filter(it -> it.getValue() > 0)
+                .sorted(Map.Entry.<K, Integer>comparingByValue(Comparator.reverseOrder()))
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * 失敗を保持している数を取得
+     *
+     * @return 失敗を保持している数
+     */
+    public int getFailureCount() {
+        long now = System.currentTimeMillis();
+        return (int) failures.values().stream()
+                .filter(it -> now < it.expireTime())
+                .count();
+    }
+
+    public long getJoinedCount() {
+        return joinedCount.get();
+    }
+
+    /**
+     * 読み込み
+     *
+     * @param future  読み込み結果のCompletableFuture
+     * @param waiters 読み込み中にまとめられ、完了もしくは取り消しを待っている要求の数
+     * @param <V>     読み込み結果
+     * @author MORIMORI0317
+     */
+    private record Flight<V>(CompletableFuture<V> future, AtomicInteger waiters) {
+
+        private Flight(CompletableFuture<V> future) {
+            this(future, new AtomicInteger());
+        }
+    }
+
+    /**
+     * 失敗
+     *
+     * @param cause      失敗の原因
+     * @param expireTime 保持する期限
+     * @author MORIMORI0317
+     */
+    private record Failure(Throwable cause, long expireTime) {
+    }
+}
@@ -0,0 +1,222 @@
+package dev.felnull.itts.core.cache;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 受信中の音声データを保持するバッファー<br/>
+ * 音声データを受信しながらファイルへの保存と再生を同時に行うために使用し、読み込み側はデータが届くまで待機する<br/>
+ * 仮想スレッドで待機する場合にキャリアスレッドを占有しないように、モニターではなくロックとConditionで待機する
+ *
+ * @author MORIMORI0317
+ */
+public class StreamingAudioBuffer {
+
+    /**
+     * バッファーの初期サイズ
+     */
+    private static final int INITIAL_CAPACITY = 64 * 1024;
+
+    /**
+     * データが届くまで待機する最大時間
+     */
+    private static final long READ_TIMEOUT = 30000L;
+
+    /**
+     * 状態の更新用ロック
+     */
+    private final Lock lock = new ReentrantLock();
+
+    /**
+     * データの受信もしくは受信の終了の通知
+     */
+    private final Condition updated = lock.newCondition();
+
+    /**
+     * 最初のデータが届いたか、受信が終了したことを通知するCompletableFuture<br/>
+     * 音声合成の順番待ちなどでストリームが開かれるまでの時間は読み込みのタイムアウトに含めないように、読み込みはこれの完了後に開始する
+     */
+    private final CompletableFuture<Void> firstData = new CompletableFuture<>();
+
+    /**
+     * 受信済みデータ
+     */
+    private byte[] data = new byte[INITIAL_CAPACITY];
+
+    /**
+     * 受信済みデータの大きさ
+     */
+    private int size;
+
+    /**
+     * 受信が完了したかどうか
+     */
+    private boolean completed;
+
+    /**
+     * 受信に失敗した原因
+     */
+    private Throwable error;
+
+    /**
+     * 受信したデータを書き込む
+     *
+     * @param b   データ
+     * @param off 開始位置
+     * @param len 長さ
+     */
+    public void write(@NotNull byte[] b, int off, int len) {
+        lock.lock();
+        try {
+            if (size + len > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, size + len));
+            }
+
+            System.arraycopy(b, off, data, size, len);
+            size += len;
+
+            updated.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        if (len > 0) {
+            firstData.complete(null);
+        }
+    }
+
+    /**
+     * 受信の完了を通知する
+     */
+    public void complete() {
+        lock.lock();
+        try {
+            completed = true;
+            updated.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        firstData.complete(null);
+    }
+
+    /**
+     * 受信の失敗を通知する
+     *
+     * @param throwable 失敗した原因
+     */
+    public void fail(@NotNull Throwable throwable) {
+        lock.lock();
+        try {
+            error = throwable;
+            updated.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        firstData.completeExceptionally(throwable);
+    }
+
+    /**
+     * 指定位置から読み込む<br/>
+     * 指定位置のデータがまだ届いていない場合は、届くか受信が終了するまで待機する
+     *
+     * @param position 読み込み位置
+     * @param b        読み込み先
+     * @param off      読み込み先の開始位置
+     * @param len      最大の長さ
+     * @return 読み込んだ長さ、終端の場合は-1
+     * @throws IOException 受信に失敗した場合、もしくはタイムアウトした場合
+     */
+    public int read(long position, @NotNull byte[] b, int off, int len) throws IOException {
+        lock.lock();
+        try {
+            awaitAvailable(position);
+
+            if (position >= size) {
+                return -1;
+            }
+
+            int readLength = (int) Math.min(len, size - position);
+            System.arraycopy(data, (int) position, b, off, readLength);
+
+            return readLength;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 指定位置のデータが届くか受信が終了するまで待機する
+     *
+     * @param position 位置
+     * @return 受信済みデータの大きさ
+     * @throws IOException 受信に失敗した場合、もしくはタイムアウトした場合
+     */
+    public long awaitAvailable(long position) throws IOException {
+        lock.lock();
+        try {
+            long wait = TimeUnit.MILLISECONDS.toNanos(READ_TIMEOUT);
+
+            while (position >= size && !completed) {
+                if (error != null) {
+                    throw new IOException("Failed to receive audio data", error);
+                }
+
+                if (wait <= 0) {
+                    throw new IOException("Timed out waiting for audio data");
+                }
+
+                try {
+                    wait = updated.awaitNanos(wait);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while waiting for audio data", e);
+                }
+            }
+
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public CompletableFuture<Void> getFirstData() {
+        return firstData;
+    }
+
+    /**
+     * 受信済みのデータを配列として取得する
+     *
+     * @return 受信済みのデータ
+     */
+    public byte[] toByteArray() {
+        lock.lock();
+        try {
+            return Arrays.copyOf(data, size);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 受信が完了したかどうか
+     *
+     * @return 完了したかどうか
+     */
+    public boolean isCompleted() {
+        lock.lock();
+        try {
+            return completed;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
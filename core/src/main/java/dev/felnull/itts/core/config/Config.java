@@ -31,6 +31,66 @@ public interface Config {
      */
     long DEFAULT_CACHE_TIME = 180000;
 
+    /**
+     * デフォルトのメモリキャッシュの最大サイズ
+     */
+    long DEFAULT_MEMORY_CACHE_SIZE = 64L * 1024L * 1024L;
+
+    /**
+     * デフォルトで永続キャッシュを有効にするかどうか
+     */
+    boolean DEFAULT_PERSISTENT_CACHE = false;
+
+    /**
+     * デフォルトの永続キャッシュの最大サイズ
+     */
+    long DEFAULT_PERSISTENT_CACHE_SIZE = 1024L * 1024L * 1024L;
+
+    /**
+     * デフォルトで永続キャッシュを圧縮して保存するかどうか
+     */
+    boolean DEFAULT_PERSISTENT_CACHE_COMPRESSION = false;
+
+    /**
+     * デフォルトのOpusフレームキャッシュの最大サイズ
+     */
+    long DEFAULT_OPUS_FRAME_CACHE_SIZE = 0L;
+
+    /**
+     * デフォルトで長いテキストを分割して読み込むかどうか
+     */
+    boolean DEFAULT_CHUNKED_SYNTHESIS = false;
+
+    /**
+     * デフォルトでヘッジリクエストを送るかどうか
+     */
+    boolean DEFAULT_HEDGED_REQUESTS = false;
+
+    /**
+     * デフォルトのヘッジリクエストを送るまでの待機時間のパーセンタイル
+     */
+    double DEFAULT_HEDGE_PERCENTILE = 95d;
+
+    /**
+     * デフォルトのヘッジリクエストの予算
+     */
+    double DEFAULT_HEDGE_BUDGET = 0.1d;
+
+    /**
+     * デフォルトの全サーバーで同時に行う音声合成の最大数
+     */
+    int DEFAULT_MAX_CONCURRENT_SYNTHESIS = 0;
+
+    /**
+     * デフォルトで予測できる読み上げを先に合成するかどうか
+     */
+    boolean DEFAULT_SPECULATIVE_SYNTHESIS = false;
+
+    /**
+     * デフォルトのキャッシュを温めるテキストの数
+     */
+    int DEFAULT_CACHE_WARMING_COUNT = 0;
+
     /**
      * BOTトークンを取得
      *
@@ -53,6 +113,93 @@ public interface Config {
      */
     long getCacheTime();
 
+    /**
+     * メモリキャッシュの最大サイズを取得
+     *
+     * @return メモリキャッシュの最大サイズ(byte)
+     */
+    long getMemoryCacheSize();
+
+    /**
+     * 永続キャッシュが有効かどうかを取得
+     *
+     * @return 永続キャッシュが有効かどうか
+     */
+    boolean isPersistentCache();
+
+    /**
+     * 永続キャッシュの最大サイズを取得
+     *
+     * @return 永続キャッシュの最大サイズ(byte)
+     */
+    long getPersistentCacheSize();
+
+    /**
+     * 永続キャッシュを圧縮して保存するかどうかを取得
+     *
+     * @return 圧縮して保存するかどうか
+     */
+    boolean isPersistentCacheCompression();
+
+    /**
+     * Opusフレームキャッシュの最大サイズを取得
+     *
+     * @return Opusフレームキャッシュの最大サイズ(byte)
+     */
+    long getOpusFrameCacheSize();
+
+    /**
+     * 長いテキストを文の区切りで分割して読み込むかどうかを取得
+     *
+     * @return 分割して読み込むかどうか
+     */
+    boolean isChunkedSynthesis();
+
+    /**
+     * VOICEVOX系エンジンの応答が遅い場合に、別のURLへ同じリクエストを送るかどうかを取得
+     *
+     * @return ヘッジリクエストを送るかどうか
+     */
+    boolean isHedgedRequests();
+
+    /**
+     * ヘッジリクエストを送るまでの待機時間を、直近の応答時間の何パーセンタイルにするかを取得
+     *
+     * @return パーセンタイル(0から100)
+     */
+    double getHedgePercentile();
+
+    /**
+     * ヘッジリクエストの予算を取得
+     *
+     * @return リクエスト数に対するヘッジリクエスト数の上限の割合
+     */
+    double getHedgeBudget();
+
+    /**
+     * 全サーバーで同時に行う音声合成の最大数を取得<br/>
+     * 上限に達している場合は、次に再生する読み上げテキストから順番に開始する
+     *
+     * @return 同時に行う音声合成の最大数、0以下の場合は上限なし
+     */
+    int getMaxConcurrentSynthesis();
+
+    /**
+     * VCの参加や退出の読み上げなど、予測できる読み上げを空いている時に先に合成しておくかどうかを取得<br/>
+     * 合成した音声を保持するため、永続キャッシュが有効な場合のみ使用される
+     *
+     * @return 先に合成するかどうか
+     */
+    boolean isSpeculativeSynthesis();
+
+    /**
+     * 起動時やエンジンのバージョンが変わった時に、先に音声合成を行うよく読み上げるテキストの数を取得<br/>
+     * 永続キャッシュが有効な場合のみ使用し、読み上げたテキストを一定期間記録する
+     *
+     * @return テキストの数、0以下の場合は無効
+     */
+    int getCacheWarmingCount();
+
     /**
      * VoiceTextのコンフィグを取得
      *
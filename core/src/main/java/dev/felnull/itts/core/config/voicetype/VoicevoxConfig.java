@@ -5,6 +5,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Unmodifiable;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * VOICEVOX系共通コンフィグ
@@ -22,6 +23,26 @@ public interface VoicevoxConfig extends VoiceTypeConfig {
      */
     long DEFAULT_CHECK_TIME = 15000;
 
+    /**
+     * デフォルトのクエリキャッシュの最大サイズ
+     */
+    long DEFAULT_QUERY_CACHE_SIZE = 8L * 1024L * 1024L;
+
+    /**
+     * デフォルトのエンジンURLの重み
+     */
+    double DEFAULT_API_URL_WEIGHT = 1d;
+
+    /**
+     * デフォルトのエンジンURLごとの同時リクエスト数の上限
+     */
+    int DEFAULT_MAX_CONCURRENT_REQUESTS = 4;
+
+    /**
+     * デフォルトで同時リクエスト数の上限を自動調整するかどうか
+     */
+    boolean DEFAULT_ADAPTIVE_CONCURRENCY = false;
+
     /**
      * エンジンURLのリスト
      *
@@ -37,4 +58,37 @@ public interface VoicevoxConfig extends VoiceTypeConfig {
      * @return 確認間隔(ms)
      */
     long getCheckTime();
+
+    /**
+     * エンジンURLごとの重み<br/>
+     * 重みが大きいURLほど多くのリクエストを割り当てる、指定されていないURLの重みは{@link #DEFAULT_API_URL_WEIGHT}
+     *
+     * @return URLと重みのマップ
+     */
+    @NotNull
+    @Unmodifiable
+    Map<String, Double> getApiUrlWeights();
+
+    /**
+     * クエリキャッシュの最大サイズ
+     *
+     * @return クエリキャッシュの最大サイズ(byte)
+     */
+    long getQueryCacheSize();
+
+    /**
+     * エンジンURLごとの同時リクエスト数の上限<br/>
+     * 上限に達している場合は、サーバーごとに順番に空きを待つ
+     *
+     * @return 同時リクエスト数の上限、0以下の場合は上限なし
+     */
+    int getMaxConcurrentRequests();
+
+    /**
+     * 同時リクエスト数の上限を、失敗と応答時間から自動調整するかどうか<br/>
+     * 有効な場合は{@link #getMaxConcurrentRequests()}を自動調整の上限として使用する
+     *
+     * @return 自動調整するかどうか
+     */
+    boolean isAdaptiveConcurrency();
 }
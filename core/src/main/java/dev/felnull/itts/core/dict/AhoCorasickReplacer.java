@@ -0,0 +1,244 @@
+package dev.felnull.itts.core.dict;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Aho-Corasick法による複数文字列の一括置き換え<br/>
+ * 正規表現を含まない置き換え対象を、テキストを一度走査するだけで全て置き換える<br/>
+ * 同じ位置から複数の対象に一致する場合は最も長いものを優先する
+ *
+ * @author MORIMORI0317
+ */
+public final class AhoCorasickReplacer {
+
+    /**
+     * 正規表現の特殊文字
+     */
+    private static final String REGEX_META_CHARS = "\\^$.|?*+()[]{}";
+
+    /**
+     * ルートノード
+     */
+    private final Node root = new Node(0);
+
+    /**
+     * コンストラクタ
+     *
+     * @param replaces 置き換え対象と置き換え後の文字列のMAP
+     */
+    public AhoCorasickReplacer(@NotNull Map<String, String> replaces) {
+        for (Map.Entry<String, String> entry : replaces.entrySet()) {
+            if (entry.getKey().isEmpty()) {
+                throw new IllegalArgumentException("Empty target");
+            }
+
+            addEntry(entry.getKey(), entry.getValue());
+        }
+
+        buildFailureLinks();
+    }
+
+    /**
+     * 正規表現が文字列リテラルとして扱えるかどうか
+     *
+     * @param pattern 正規表現
+     * @return 文字列リテラルとして扱えるかどうか
+     */
+    public static boolean isLiteral(@NotNull Pattern pattern) {
+        String regex = pattern.pattern();
+
+        if (pattern.flags() != 0 || regex.isEmpty()) {
+            return false;
+        }
+
+        for (int i = 0; i < regex.length(); i++) {
+            if (REGEX_META_CHARS.indexOf(regex.charAt(i)) >= 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void addEntry(String target, String replacement) {
+        Node node = root;
+
+        for (int i = 0; i < target.length(); i++) {
+            int depth = node.depth + 1;
+            node = node.buildingChildren.computeIfAbsent(target.charAt(i), c -> new Node(depth));
+        }
+
+        node.replacement = replacement;
+    }
+
+    private void buildFailureLinks() {
+        Deque<Node> queue = new ArrayDeque<>();
+
+        root.fail = root;
+        root.freeze();
+
+        for (Node child : root.children) {
+            child.fail = root;
+            queue.add(child);
+        }
+
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            node.freeze();
+            node.output = node.fail.replacement != null ? node.fail : node.fail.output;
+
+            for (int i = 0; i < node.keys.length; i++) {
+                char c = node.keys[i];
+                Node child = node.children[i];
+
+                Node fail = node.fail;
+                while (fail != root && fail.getChild(c) == null) {
+                    fail = fail.fail;
+                }
+
+                Node failChild = fail.getChild(c);
+                child.fail = failChild != null ? failChild : root;
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * テキストを置き換える
+     *
+     * @param text 置き換え対象のテキスト
+     * @return 置き換え済みテキスト
+     */
+    @NotNull
+    public String replace(@NotNull String text) {
+        // 開始位置ごとの最長一致
+        Node[] matches = null;
+        Node state = root;
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+
+            Node next = state.getChild(c);
+            while (next == null && state != root) {
+                state = state.fail;
+                next = state.getChild(c);
+            }
+            state = next != null ? next : root;
+
+            Node out = state.replacement != null ? state : state.output;
+            while (out != null) {
+                if (matches == null) {
+                    matches = new Node[text.length()];
+                }
+
+                int start = i - out.depth + 1;
+                Node pre = matches[start];
+                if (pre == null || pre.depth < out.depth) {
+                    matches[start] = out;
+                }
+
+                out = out.output;
+            }
+        }
+
+        if (matches == null) {
+            return text;
+        }
+
+        StringBuilder sb = new StringBuilder(text.length());
+        int i = 0;
+
+        while (i < text.length()) {
+            Node match = matches[i];
+
+            if (match != null) {
+                sb.append(match.replacement);
+                i += match.depth;
+            } else {
+                sb.append(text.charAt(i));
+                i++;
+            }
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * トライ木のノード
+     *
+     * @author MORIMORI0317
+     */
+    private static final class Node {
+
+        /**
+         * 空の子ノード
+         */
+        private static final Node[] EMPTY_CHILDREN = new Node[0];
+
+        /**
+         * ルートからの深さ
+         */
+        private final int depth;
+
+        /**
+         * 構築中の子ノード
+         */
+        private Map<Character, Node> buildingChildren = new TreeMap<>();
+
+        /**
+         * 子ノードの文字 (昇順)
+         */
+        private char[] keys;
+
+        /**
+         * 子ノード
+         */
+        private Node[] children;
+
+        /**
+         * 失敗時の遷移先
+         */
+        private Node fail;
+
+        /**
+         * 失敗時の遷移をたどって最初に見つかる置き換え対象の終端
+         */
+        private Node output;
+
+        /**
+         * 置き換え後の文字列、置き換え対象の終端でなければnull
+         */
+        private String replacement;
+
+        private Node(int depth) {
+            this.depth = depth;
+        }
+
+        private void freeze() {
+            int size = buildingChildren.size();
+            keys = new char[size];
+            children = size == 0 ? EMPTY_CHILDREN : new Node[size];
+
+            int i = 0;
+            for (Map.Entry<Character, Node> entry : buildingChildren.entrySet()) {
+                keys[i] = entry.getKey();
+                children[i] = entry.getValue();
+                i++;
+            }
+
+            buildingChildren = null;
+        }
+
+        private Node getChild(char c) {
+            int idx = Arrays.binarySearch(keys, c);
+            return idx >= 0 ? children[idx] : null;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package dev.felnull.itts.core.dict;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * 適用の準備が完了した辞書
+ *
+ * @author MORIMORI0317
+ */
+@FunctionalInterface
+public interface CompiledDictionary {
+
+    /**
+     * テキストに辞書を適用
+     *
+     * @param text 適用対象テキスト
+     * @return 適用済みテキスト
+     */
+    @NotNull
+    String apply(@NotNull String text);
+}
@@ -61,4 +61,16 @@ public interface Dictionary {
      * @return 初期状態の優先度
      */
     int getDefaultPriority();
+
+    /**
+     * 適用の準備を行う<br/>
+     * 準備済みの辞書は辞書データが変更されるまで使いまわされる
+     *
+     * @param guildId サーバーID
+     * @return 適用準備済みの辞書
+     */
+    @NotNull
+    default CompiledDictionary compile(long guildId) {
+        return text -> apply(text, guildId);
+    }
 }
@@ -14,8 +14,7 @@ import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Unmodifiable;
 
 import java.util.*;
-import java.util.concurrent.atomic.AtomicReference;
-import java.util.stream.Stream;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 辞書管理
@@ -59,6 +58,11 @@ public class DictionaryManager implements ITTSRuntimeUse {
      */
     private final List<Dictionary> dictionaries = ImmutableList.of(globalDictionary, serverDictionary, abbreviationDictionary, unitDictionary, romajiDictionary);
 
+    /**
+     * サーバーごとの辞書の適用計画
+     */
+    private final Map<Long, DictionaryPlan> plans = new ConcurrentHashMap<>();
+
     /**
      * 辞書を取得
      *
@@ -121,20 +125,49 @@ public class DictionaryManager implements ITTSRuntimeUse {
      * @return 適用済みテキスト
      */
     public String applyDict(String text, long guildId) {
-        Stream<DictUseData> allDict = getAllDictUseData(guildId).stream()
+        return getPlan(guildId).apply(text);
+    }
+
+    /**
+     * 辞書の適用計画を取得する<br/>
+     * 辞書データか優先度が変更されるまでは作成済みの計画を使いまわす
+     *
+     * @param guildId サーバーID
+     * @return 辞書の適用計画
+     */
+    @NotNull
+    public DictionaryPlan getPlan(long guildId) {
+        return plans.computeIfAbsent(guildId, this::createPlan);
+    }
+
+    private DictionaryPlan createPlan(long guildId) {
+        List<CompiledDictionary> compiled = getAllDictUseData(guildId).stream()
                 .filter(it -> it.getPriority() >= 0)
-                .sorted(Comparator.comparingInt(DictUseData::getPriority));
-        AtomicReference<String> retText = new AtomicReference<>(text);
+                .sorted(Comparator.comparingInt(DictUseData::getPriority))
+                .map(ud -> getDictionary(ud.getDictId(), guildId))
+                .filter(Objects::nonNull)
+                .map(dict -> dict.compile(guildId))
+                .toList();
 
-        allDict.forEach(ud -> {
-            Dictionary dict = getDictionary(ud.getDictId(), guildId);
+        return new DictionaryPlan(compiled);
+    }
 
-            if (dict != null) {
-                retText.set(dict.apply(retText.get(), guildId));
-            }
-        });
+    /**
+     * サーバーの辞書の適用計画を破棄する<br/>
+     * サーバー辞書や辞書の優先度が変更された場合に呼び出す
+     *
+     * @param guildId サーバーID
+     */
+    public void invalidatePlan(long guildId) {
+        plans.remove(guildId);
+    }
 
-        return retText.get();
+    /**
+     * 全サーバーの辞書の適用計画を破棄する<br/>
+     * グローバル辞書が変更された場合に呼び出す
+     */
+    public void invalidateAllPlans() {
+        plans.clear();
     }
 
     @NotNull
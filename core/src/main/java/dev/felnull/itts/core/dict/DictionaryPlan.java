@@ -0,0 +1,46 @@
+package dev.felnull.itts.core.dict;
+
+import com.google.common.collect.ImmutableList;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * サーバーごとの辞書の適用計画<br/>
+ * 優先度順に並べられた適用準備済みの辞書を保持する
+ *
+ * @author MORIMORI0317
+ */
+public final class DictionaryPlan {
+
+    /**
+     * 優先度順の適用準備済み辞書
+     */
+    private final List<CompiledDictionary> dictionaries;
+
+    /**
+     * コンストラクタ
+     *
+     * @param dictionaries 優先度順の適用準備済み辞書
+     */
+    public DictionaryPlan(@NotNull List<CompiledDictionary> dictionaries) {
+        this.dictionaries = ImmutableList.copyOf(dictionaries);
+    }
+
+    /**
+     * テキストに辞書を適用する
+     *
+     * @param text 適用対象テキスト
+     * @return 適用済みテキスト
+     */
+    @NotNull
+    public String apply(@NotNull String text) {
+        String ret = text;
+
+        for (CompiledDictionary dictionary : dictionaries) {
+            ret = dictionary.apply(ret);
+        }
+
+        return ret;
+    }
+}
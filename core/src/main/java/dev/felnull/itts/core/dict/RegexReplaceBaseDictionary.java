@@ -1,9 +1,12 @@
 package dev.felnull.itts.core.dict;
 
+import com.google.common.collect.ImmutableList;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.regex.Pattern;
 
@@ -24,9 +27,47 @@ public abstract class RegexReplaceBaseDictionary implements Dictionary {
 
     @Override
     public @NotNull String apply(@NotNull String text, long guildId) {
-        Map<Pattern, Function<String, String>> replaces = getReplaces(guildId);
-        AtomicReference<String> ret = new AtomicReference<>(text);
-        replaces.forEach((pattern, rep) -> ret.set(pattern.matcher(ret.get()).replaceAll(res -> rep.apply(res.group()))));
-        return ret.get();
+        return compile(guildId).apply(text);
+    }
+
+    /**
+     * {@inheritDoc}<br/>
+     * 正規表現を含まない置き換え対象はAho-Corasick法で一括で置き換え、それ以外は正規表現ごとに置き換える
+     */
+    @Override
+    public @NotNull CompiledDictionary compile(long guildId) {
+        Map<String, String> literals = new LinkedHashMap<>();
+        List<Map.Entry<Pattern, Function<String, String>>> regexReplaces = new ArrayList<>();
+
+        for (Map.Entry<Pattern, Function<String, String>> replace : getReplaces(guildId).entrySet()) {
+            Pattern pattern = replace.getKey();
+
+            if (AhoCorasickReplacer.isLiteral(pattern)) {
+                // 置き換え対象自身を置き換えることで、正規表現での置き換えと同じ置き換え後の文字列を求める
+                String target = pattern.pattern();
+                Function<String, String> rep = replace.getValue();
+                literals.putIfAbsent(target, pattern.matcher(target).replaceAll(res -> rep.apply(res.group())));
+            } else {
+                regexReplaces.add(replace);
+            }
+        }
+
+        AhoCorasickReplacer literalReplacer = literals.isEmpty() ? null : new AhoCorasickReplacer(literals);
+        List<Map.Entry<Pattern, Function<String, String>>> replaces = ImmutableList.copyOf(regexReplaces);
+
+        return text -> {
+            String ret = text;
+
+            if (literalReplacer != null) {
+                ret = literalReplacer.replace(ret);
+            }
+
+            for (Map.Entry<Pattern, Function<String, String>> replace : replaces) {
+                Function<String, String> rep = replace.getValue();
+                ret = replace.getKey().matcher(ret).replaceAll(res -> rep.apply(res.group()));
+            }
+
+            return ret;
+        };
     }
 }
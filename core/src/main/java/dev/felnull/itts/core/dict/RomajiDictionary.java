@@ -6,6 +6,8 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Unmodifiable;
 
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
 /**
  * ローマ字辞書
@@ -13,10 +15,73 @@ import java.util.Map;
  * @author MORIMORI0317
  */
 public class RomajiDictionary implements Dictionary {
+
+    /**
+     * 変換に使用するTransliteratorのID
+     */
+    private static final String TRANSLITERATOR_ID = "Latin-Hiragana";
+
+    /**
+     * この値以上の文字はラテン文字でなければ変換されない
+     */
+    private static final int CONVERTIBLE_CHAR_LIMIT = 0x3000;
+
+    /**
+     * ラテン文字以外で変換される記号
+     */
+    private static final String CONVERTIBLE_SYMBOLS = ",.~";
+
+    /**
+     * 作成済みTransliteratorのプール<br/>
+     * Transliteratorの作成は重く、スレッドセーフでもないため使いまわす<br/>
+     * プールの大きさは重い処理を行うエクスキューターのスレッド数と同じ
+     */
+    private final BlockingQueue<Transliterator> transliteratorPool = new ArrayBlockingQueue<>(Math.max(Runtime.getRuntime().availableProcessors(), 1));
+
     @Override
     public @NotNull String apply(@NotNull String text, long guildId) {
-        Transliterator transliterator = Transliterator.getInstance("Latin-Hiragana");
-        return transliterator.transliterate(text);
+        if (!isConvertible(text)) {
+            return text;
+        }
+
+        Transliterator transliterator = transliteratorPool.poll();
+
+        if (transliterator == null) {
+            transliterator = Transliterator.getInstance(TRANSLITERATOR_ID);
+        }
+
+        try {
+            return transliterator.transliterate(text);
+        } finally {
+            // プールが一杯の場合は破棄する
+            transliteratorPool.offer(transliterator);
+        }
+    }
+
+    /**
+     * 変換される可能性のある文字を含むかどうか
+     *
+     * @param text テキスト
+     * @return 変換される可能性のある文字を含むかどうか
+     */
+    private static boolean isConvertible(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+
+            if (c < 0x80) {
+                if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || CONVERTIBLE_SYMBOLS.indexOf(c) >= 0) {
+                    return true;
+                }
+            } else if (c < CONVERTIBLE_CHAR_LIMIT) {
+                // アクセント記号などを含むため、判定せずに変換する
+                return true;
+            } else if (!Character.isSurrogate(c) && Character.UnicodeScript.of(c) == Character.UnicodeScript.LATIN) {
+                // 全角英字など
+                return true;
+            }
+        }
+
+        return false;
     }
 
     @Override
@@ -18,11 +18,6 @@ import java.util.regex.Pattern;
  * @author MORIMORI0317
  */
 public class UnitDictionary implements Dictionary {
-    /**
-     * 単位に置き換える文字のひとつ前の文字を表す正規表現
-     */
-    private static final Pattern UNIT_PREFIX_REGEX = createPrefixAndUnitPattern();
-
     /**
      * 数字の正規表現
      */
@@ -66,6 +61,12 @@ public class UnitDictionary implements Dictionary {
      */
     private static final Prefix[] NORMAL_ALL_PREFIX = ArrayUtils.addAll(NORMAL_UP_PREFIX, NORMAL_DOWN_PREFIX);
 
+    /**
+     * 単位に置き換える文字のひとつ前の文字を表す正規表現<br/>
+     * 単位の列挙型が接頭辞を参照するため、接頭辞の後に初期化する
+     */
+    private static final Pattern UNIT_PREFIX_REGEX = createPrefixAndUnitPattern();
+
     @Override
     public @NotNull String apply(@NotNull String text, long guildId) {
         return UNIT_PREFIX_REGEX.matcher(text).replaceAll(matchResult -> {
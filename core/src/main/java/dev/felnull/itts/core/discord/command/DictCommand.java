@@ -303,6 +303,8 @@ public class DictCommand extends BaseCommand {
             useData.setPriority(-1);
         }
 
+        dm.invalidatePlan(guildId);
+
         event.reply(dic.getName() + "を" + enStr + "にしました。").queue();
     }
 
@@ -1,6 +1,18 @@
 package dev.felnull.itts.core.discord.command;
 
+import com.google.common.hash.HashCode;
 import dev.felnull.fnjl.util.FNStringUtil;
+import dev.felnull.itts.core.cache.LocalCache;
+import dev.felnull.itts.core.cache.MemoryAudioCache;
+import dev.felnull.itts.core.cache.OpusFrameCache;
+import dev.felnull.itts.core.cache.PersistentCache;
+import dev.felnull.itts.core.cache.SingleFlight;
+import dev.felnull.itts.core.savedata.SaveDataFlushStats;
+import dev.felnull.itts.core.tts.SynthesisScheduler;
+import dev.felnull.itts.core.voice.voicevox.HedgeBudget;
+import dev.felnull.itts.core.voice.voicevox.VoicevoxManager;
+import dev.felnull.itts.core.voice.voicevox.VoicevoxQueryCache;
+import dev.felnull.itts.core.voice.voicevox.VoicevoxRequestQueue;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.interactions.commands.build.Commands;
@@ -10,6 +22,8 @@ import net.dv8tion.jda.api.interactions.components.buttons.Button;
 import net.dv8tion.jda.api.interactions.components.buttons.ButtonStyle;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -89,6 +103,80 @@ public class InfoCommand extends BaseCommand {
         workEmbedBuilder.addField("参加サーバー数", e.getJDA().getGuilds().size() + "個", false);
         workEmbedBuilder.addField("読み上げサーバー数", getTTSManager().getTTSCount() + "個", false);
 
+        MemoryAudioCache memoryAudioCache = getCacheManager().getMemoryAudioCache();
+        workEmbedBuilder.addField("メモリキャッシュ", String.format("%.1fMB/%.1fMB (%d個)",
+                toMegabytes(memoryAudioCache.getTotalSize()), toMegabytes(getConfigManager().getConfig().getMemoryCacheSize()), memoryAudioCache.getEntryCount()), false);
+        workEmbedBuilder.addField("メモリキャッシュヒット率", String.format("%.1f%% (ヒット: %d回, ミス: %d回, 破棄: %d回)",
+                getRate(memoryAudioCache.getHitCount(), memoryAudioCache.getMissCount()), memoryAudioCache.getHitCount(), memoryAudioCache.getMissCount(),
+                memoryAudioCache.getEvictionCount()), false);
+
+        OpusFrameCache opusFrameCache = getCacheManager().getOpusFrameCache();
+        if (opusFrameCache.isEnabled()) {
+            workEmbedBuilder.addField("Opusフレームキャッシュ", String.format("%.1fMB/%.1fMB (%d個, ヒット率: %.1f%%)",
+                    toMegabytes(opusFrameCache.getTotalSize()), toMegabytes(getConfigManager().getConfig().getOpusFrameCacheSize()), opusFrameCache.getEntryCount(),
+                    getRate(opusFrameCache.getHitCount(), opusFrameCache.getMissCount())), false);
+        }
+
+        for (VoicevoxManager voicevoxManager : List.of(getVoiceManager().getVoicevoxManager(), getVoiceManager().getCoeiroinkManager(),
+                getVoiceManager().getSharevoxManager())) {
+            if (!voicevoxManager.isAvailable()) {
+                continue;
+            }
+
+            VoicevoxQueryCache queryCache = voicevoxManager.getQueryCache();
+            workEmbedBuilder.addField(voicevoxManager.getName() + "のクエリキャッシュヒット率", String.format("%.1f%% (ヒット: %d回, ミス: %d回, %d個)",
+                    getRate(queryCache.getHitCount(), queryCache.getMissCount()), queryCache.getHitCount(), queryCache.getMissCount(),
+                    queryCache.getEntryCount()), false);
+
+            VoicevoxRequestQueue requestQueue = voicevoxManager.getRequestQueue();
+            workEmbedBuilder.addField(voicevoxManager.getName() + "の待機中のリクエスト", String.format("%d個 (平均待機時間: %.1fms)",
+                    requestQueue.size(), requestQueue.getAverageWaitTime()), false);
+        }
+
+        if (getConfigManager().getConfig().isHedgedRequests()) {
+            HedgeBudget hedgeBudget = getVoiceManager().getHedgeBudget();
+            workEmbedBuilder.addField("ヘッジリクエスト", String.format("%d回 (先に応答した回数: %d回)",
+                    hedgeBudget.getHedgeCount(), hedgeBudget.getHedgeWinCount()), false);
+        }
+
+        SynthesisScheduler synthesisScheduler = getTTSManager().getSynthesisScheduler();
+        workEmbedBuilder.addField("音声合成", String.format("合成中: %d個, 待機中: %d個 (同じ音声でまとめた数: %d回)",
+                synthesisScheduler.getRunningCount(), synthesisScheduler.getPendingCount(), synthesisScheduler.getDedupedCount()), false);
+
+        SingleFlight<HashCode, LocalCache> localCaches = getCacheManager().getLocalCaches();
+        List<Map.Entry<HashCode, Integer>> hotKeys = localCaches.getHotKeys(1);
+        workEmbedBuilder.addField("音声の読み込み", String.format("読み込み中: %d個, 失敗を保持: %d個 (まとめた要求: %d回, 最大待機数: %d)",
+                localCaches.getInFlightCount(), localCaches.getFailureCount(), localCaches.getJoinedCount(),
+                hotKeys.isEmpty() ? 0 : hotKeys.get(0).getValue()), false);
+
+        PersistentCache persistentCache = getCacheManager().getPersistentCache();
+        if (persistentCache != null) {
+            workEmbedBuilder.addField("永続キャッシュ", String.format("%.1fMB/%.1fMB (%d個, ファイル: %d個)",
+                    toMegabytes(persistentCache.getTotalSize()), toMegabytes(persistentCache.getMaxSize()), persistentCache.getEntryCount(),
+                    persistentCache.getFileCount()), false);
+        }
+
+        SaveDataFlushStats flushStats = getSaveDataManager().getFlushStats();
+        if (flushStats != null) {
+            workEmbedBuilder.addField("セーブデータの保存", String.format("保存待ち: %d個, 保存: %d回, 失敗: %d回 (最終: %dms, 平均: %.1fms)",
+                    flushStats.queueSize(), flushStats.flushCount(), flushStats.failedCount(), flushStats.lastFlushLatency(),
+                    flushStats.averageFlushLatency()), false);
+        }
+
         e.replyEmbeds(workEmbedBuilder.build()).setEphemeral(true).queue();
     }
+
+    private static double toMegabytes(long bytes) {
+        return bytes / 1024d / 1024d;
+    }
+
+    private static double getRate(long hit, long miss) {
+        long total = hit + miss;
+
+        if (total == 0) {
+            return 0;
+        }
+
+        return (double) hit / total * 100d;
+    }
 }
@@ -147,4 +147,14 @@ public interface SaveDataAccess {
     @NotNull
     @Unmodifiable
     List<Long> getAllDenyUser(long guildId);
+
+    /**
+     * セーブデータの保存の統計情報を取得
+     *
+     * @return 統計情報、保存をまとめて行わない場合はnull
+     */
+    @Nullable
+    default SaveDataFlushStats getFlushStats() {
+        return null;
+    }
 }
@@ -0,0 +1,14 @@
+package dev.felnull.itts.core.savedata;
+
+/**
+ * セーブデータの保存の統計情報
+ *
+ * @param queueSize           保存待ちのセーブデータの数
+ * @param flushCount          保存した回数
+ * @param failedCount         保存に失敗した回数
+ * @param lastFlushLatency    最後に保存した時の、最初の更新から保存完了までの時間(ms)
+ * @param averageFlushLatency 最初の更新から保存完了までの平均時間(ms)
+ * @author MORIMORI0317
+ */
+public record SaveDataFlushStats(int queueSize, long flushCount, long failedCount, long lastFlushLatency, double averageFlushLatency) {
+}
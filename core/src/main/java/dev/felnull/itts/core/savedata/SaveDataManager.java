@@ -131,6 +131,7 @@ public class SaveDataManager implements ITTSBaseManager {
      */
     public void addServerDictData(long guildId, @NotNull String target, @NotNull String read) {
         saveDataAccess.addServerDictData(guildId, target, read);
+        getDictionaryManager().invalidatePlan(guildId);
     }
 
     /**
@@ -141,6 +142,7 @@ public class SaveDataManager implements ITTSBaseManager {
      */
     public void removeServerDictData(long guildId, @NotNull String target) {
         saveDataAccess.removeServerDictData(guildId, target);
+        getDictionaryManager().invalidatePlan(guildId);
     }
 
     /**
@@ -173,6 +175,7 @@ public class SaveDataManager implements ITTSBaseManager {
      */
     public void addGlobalDictData(@NotNull String target, @NotNull String read) {
         saveDataAccess.addGlobalDictData(target, read);
+        getDictionaryManager().invalidateAllPlans();
     }
 
     /**
@@ -182,6 +185,7 @@ public class SaveDataManager implements ITTSBaseManager {
      */
     public void removeGlobalDictData(@NotNull String target) {
         saveDataAccess.removeGlobalDictData(target);
+        getDictionaryManager().invalidateAllPlans();
     }
 
     /**
@@ -195,4 +199,14 @@ public class SaveDataManager implements ITTSBaseManager {
     public List<Long> getAllDenyUser(long guildId) {
         return saveDataAccess.getAllDenyUser(guildId);
     }
+
+    /**
+     * セーブデータの保存の統計情報を取得
+     *
+     * @return 統計情報、保存をまとめて行わない場合はnull
+     */
+    @Nullable
+    public SaveDataFlushStats getFlushStats() {
+        return saveDataAccess.getFlushStats();
+    }
 }
@@ -0,0 +1,176 @@
+package dev.felnull.itts.core.tts;
+
+import dev.felnull.itts.core.ITTSRuntimeUse;
+import dev.felnull.itts.core.tts.saidtext.VCEventSaidText;
+import dev.felnull.itts.core.voice.VoiceType;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.GuildVoiceState;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.channel.middleman.AudioChannel;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * VCイベントの読み上げを予測して、先に音声合成を行う<br/>
+ * 読み上げチャンネルにいるメンバーの退出と、よく参加するメンバーの参加の読み上げを、音声合成が空いている時に合成してキャッシュに残しておく<br/>
+ * 一定時間で破棄されるローカルキャッシュのみでは読み上げる前に破棄される可能性が高いため、永続キャッシュが有効な場合のみ行う
+ *
+ * @author MORIMORI0317
+ */
+public class SpeculativeSynthesizer implements ITTSRuntimeUse {
+
+    /**
+     * よく参加するメンバーとして扱う参加回数
+     */
+    private static final int FREQUENT_JOIN_COUNT = 3;
+
+    /**
+     * サーバーごとに参加回数を記録する最大メンバー数
+     */
+    private static final int MAX_JOIN_HISTORY = 256;
+
+    /**
+     * 1度に先行合成を行う最大数
+     */
+    private static final int MAX_SPECULATE_COUNT = 25;
+
+    /**
+     * サーバーごとのメンバーの参加回数
+     */
+    private final Map<Long, Map<Long, Integer>> joinCounts = new ConcurrentHashMap<>();
+
+    /**
+     * オーディオチャンネルに接続した際の処理<br/>
+     * チャンネルにいるメンバーの退出と、チャンネルにいないよく参加するメンバーの参加の読み上げを先に合成する
+     *
+     * @param guild        サーバー
+     * @param audioChannel オーディオチャンネル
+     */
+    public void onConnect(@NotNull Guild guild, @NotNull AudioChannel audioChannel) {
+        TTSInstance ti = getTTSInstance(guild);
+        if (ti == null) {
+            return;
+        }
+
+        // 声タイプの取得でセーブデータの読み込みを待つ場合があるため、JDAのスレッドを止めないように非同期で行う
+        CompletableFuture.runAsync(() -> speculateConnect(ti, guild, audioChannel), getAsyncExecutor());
+    }
+
+    private void speculateConnect(TTSInstance ti, Guild guild, AudioChannel audioChannel) {
+        long selfId = guild.getSelfMember().getIdLong();
+        List<Member> members = audioChannel.getMembers().stream()
+                .filter(it -> it.getIdLong() != selfId)
+                .limit(MAX_SPECULATE_COUNT)
+                .toList();
+
+        for (Member member : members) {
+            speculate(ti, guild, member, VCEventType.LEAVE);
+        }
+
+        List<Long> frequentJoiners;
+        Map<Long, Integer> counts = joinCounts.get(guild.getIdLong());
+
+        if (counts == null) {
+            return;
+        }
+
+        synchronized (counts) {
+            frequentJoiners = counts.entrySet().stream()
+                    .filter(it -> it.getValue() >= FREQUENT_JOIN_COUNT)
+                    .map(Map.Entry::getKey)
+                    .toList();
+        }
+
+        frequentJoiners.stream()
+                .map(guild::getMemberById)
+                .filter(it -> it != null && !isInChannel(it, audioChannel))
+                .limit(MAX_SPECULATE_COUNT)
+                .forEach(it -> speculate(ti, guild, it, VCEventType.JOIN));
+    }
+
+    /**
+     * 読み上げチャンネルでのVCイベントの処理<br/>
+     * 参加したメンバーの退出と、退出したよく参加するメンバーの次の参加の読み上げを先に合成する
+     *
+     * @param guild     サーバー
+     * @param member    メンバー
+     * @param eventType VCイベントの種類
+     */
+    public void onVCEvent(@NotNull Guild guild, @NotNull Member member, @NotNull VCEventType eventType) {
+        if (member.getIdLong() == guild.getSelfMember().getIdLong()) {
+            return;
+        }
+
+        int joinCount = eventType.isJoin() ? recordJoin(guild.getIdLong(), member.getIdLong()) : getJoinCount(guild.getIdLong(), member.getIdLong());
+
+        TTSInstance ti = getTTSInstance(guild);
+        if (ti == null) {
+            return;
+        }
+
+        if (eventType.isJoin()) {
+            CompletableFuture.runAsync(() -> speculate(ti, guild, member, VCEventType.LEAVE), getAsyncExecutor());
+        } else if (joinCount >= FREQUENT_JOIN_COUNT) {
+            CompletableFuture.runAsync(() -> speculate(ti, guild, member, VCEventType.JOIN), getAsyncExecutor());
+        }
+    }
+
+    private TTSInstance getTTSInstance(Guild guild) {
+        if (!getConfigManager().getConfig().isSpeculativeSynthesis() || getCacheManager().getPersistentCache() == null) {
+            return null;
+        }
+
+        long guildId = guild.getIdLong();
+        if (!getSaveDataManager().getServerData(guildId).isNotifyMove()) {
+            return null;
+        }
+
+        return getTTSManager().getTTSInstance(guildId);
+    }
+
+    private void speculate(TTSInstance ttsInstance, Guild guild, Member member, VCEventType eventType) {
+        long guildId = guild.getIdLong();
+        long userId = member.getIdLong();
+
+        VoiceType vt = getVoiceManager().getVoiceType(guildId, userId);
+        if (vt == null) {
+            return;
+        }
+
+        ttsInstance.speculate(new VCEventSaidText(vt.createVoice(guildId, userId), eventType, member, null, null));
+    }
+
+    private int recordJoin(long guildId, long userId) {
+        Map<Long, Integer> counts = joinCounts.computeIfAbsent(guildId, k -> new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Integer> eldest) {
+                return size() > MAX_JOIN_HISTORY;
+            }
+        });
+
+        synchronized (counts) {
+            return counts.merge(userId, 1, Integer::sum);
+        }
+    }
+
+    private int getJoinCount(long guildId, long userId) {
+        Map<Long, Integer> counts = joinCounts.get(guildId);
+        if (counts == null) {
+            return 0;
+        }
+
+        synchronized (counts) {
+            return counts.getOrDefault(userId, 0);
+        }
+    }
+
+    private static boolean isInChannel(Member member, AudioChannel audioChannel) {
+        GuildVoiceState vs = member.getVoiceState();
+        return vs != null && vs.getChannel() != null && vs.getChannel().getIdLong() == audioChannel.getIdLong();
+    }
+}
@@ -0,0 +1,530 @@
+package dev.felnull.itts.core.tts;
+
+import com.google.common.hash.HashCode;
+import dev.felnull.itts.core.ITTSRuntimeUse;
+import dev.felnull.itts.core.cache.StreamOpener;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 全サーバー共通の音声合成スケジューラー<br/>
+ * 同時に行う音声合成の数を制限し、次に再生する読み上げテキスト、合成中の数が少ないサーバー、読み上げ待機列の前にあるものの順に開始する<br/>
+ * 予測による先行合成は、読み上げテキストの音声合成を妨げないように最後に回し、上限の半分までしか同時に行わない<br/>
+ * 同じ声とテキストの音声合成はキャッシュによって1つにまとめられるため、待っている全ての読み上げテキストの中で最も高い優先度を使用する<br/>
+ * 開始待ちの音声合成は順位順に並べておき、整理券やサーバーの合成中の数が変わった場合は関係するもののみ並べ直す<br/>
+ * 待っている全ての読み上げテキストが取り消された音声合成は、開始せずに取り消す
+ *
+ * @author MORIMORI0317
+ */
+public class SynthesisScheduler implements ITTSRuntimeUse {
+
+    /**
+     * 整理券の発行順
+     */
+    private final AtomicLong ticketSequence = new AtomicLong();
+
+    /**
+     * 合成中の音声とまとめられた読み込みの数
+     */
+    private final AtomicLong dedupedCount = new AtomicLong();
+
+    /**
+     * 状態の更新用ロック
+     */
+    private final Object lock = new Object();
+
+    /**
+     * 開始を待っている音声合成の順位順
+     */
+    private final TreeSet<Task> pendingTasks = new TreeSet<>(Task.COMPARATOR);
+
+    /**
+     * サーバーごとの開始を待っている音声合成
+     */
+    private final Map<Long, Set<Task>> guildPendingTasks = new HashMap<>();
+
+    /**
+     * 開始待ちもしくは合成中の音声合成
+     */
+    private final Map<HashCode, Task> activeTasks = new HashMap<>();
+
+    /**
+     * 音声ごとの読み込みを待っている整理券
+     */
+    private final Map<HashCode, Set<SynthesisTicket>> interests = new HashMap<>();
+
+    /**
+     * 整理券ごとの読み込みを待っている音声
+     */
+    private final Map<SynthesisTicket, Set<HashCode>> ticketInterests = new HashMap<>();
+
+    /**
+     * サーバーごとの合成中の数
+     */
+    private final Map<Long, Integer> guildRunningCounts = new HashMap<>();
+
+    /**
+     * 合成中の数
+     */
+    private int runningCount;
+
+    /**
+     * 音声合成の追加順
+     */
+    private long taskSequence;
+
+    /**
+     * 整理券を発行する
+     *
+     * @param guildId    サーバーID
+     * @param headOfLine 次に再生する読み上げテキストかどうか
+     * @return 整理券
+     */
+    public SynthesisTicket createTicket(long guildId, boolean headOfLine) {
+        return new SynthesisTicket(this, guildId, ticketSequence.getAndIncrement(), headOfLine, false);
+    }
+
+    /**
+     * 予測による先行合成用の整理券を発行する
+     *
+     * @param guildId サーバーID
+     * @return 整理券
+     */
+    public SynthesisTicket createSpeculativeTicket(long guildId) {
+        return new SynthesisTicket(this, guildId, ticketSequence.getAndIncrement(), false, true);
+    }
+
+    /**
+     * 音声の読み込みを待っていることを登録する<br/>
+     * 読み込みが不要になった場合は{@link #detach(HashCode, SynthesisTicket)}で登録を解除する
+     *
+     * @param key    音声のキー
+     * @param ticket 整理券
+     */
+    public void attach(HashCode key, SynthesisTicket ticket) {
+        synchronized (lock) {
+            interests.computeIfAbsent(key, k -> new HashSet<>()).add(ticket);
+            ticketInterests.computeIfAbsent(ticket, k -> new HashSet<>()).add(key);
+
+            Task task = activeTasks.get(key);
+            if (task != null && task.owner != ticket) {
+                dedupedCount.incrementAndGet();
+                rerank(task);
+            }
+        }
+
+        dispatch();
+    }
+
+    /**
+     * 音声の読み込みを待っていることの登録を解除する
+     *
+     * @param key    音声のキー
+     * @param ticket 整理券
+     */
+    public void detach(HashCode key, SynthesisTicket ticket) {
+        synchronized (lock) {
+            Set<SynthesisTicket> tickets = interests.get(key);
+
+            if (tickets != null && tickets.remove(ticket) && tickets.isEmpty()) {
+                interests.remove(key);
+            }
+
+            Set<HashCode> keys = ticketInterests.get(ticket);
+
+            if (keys != null && keys.remove(key) && keys.isEmpty()) {
+                ticketInterests.remove(ticket);
+            }
+
+            Task task = activeTasks.get(key);
+            if (task != null) {
+                rerank(task);
+            }
+        }
+    }
+
+    /**
+     * 整理券の状態が変わったことを通知する<br/>
+     * 整理券が待っている音声合成のみを並べ直す
+     *
+     * @param ticket 整理券
+     */
+    void update(SynthesisTicket ticket) {
+        synchronized (lock) {
+            for (HashCode key : ticketInterests.getOrDefault(ticket, Set.of())) {
+                Task task = activeTasks.get(key);
+
+                if (task != null) {
+                    rerank(task);
+                }
+            }
+        }
+
+        dispatch();
+    }
+
+    /**
+     * 順番が来るまで待機してから、音声合成のストリームを開く<br/>
+     * 返したストリームを閉じるまで合成中として扱う
+     *
+     * @param key    音声のキー
+     * @param owner  音声合成を開始した読み込みの整理券
+     * @param opener 音声合成のストリームを開くオープナー
+     * @return 音声合成のストリーム
+     * @throws IOException          IO例外
+     * @throws InterruptedException 割り込み例外
+     */
+    public InputStream open(HashCode key, SynthesisTicket owner, StreamOpener opener) throws IOException, InterruptedException {
+        Task task;
+
+        synchronized (lock) {
+            task = new Task(key, owner, taskSequence++);
+            activeTasks.put(key, task);
+            enqueue(task);
+        }
+
+        dispatch();
+        awaitStart(task);
+
+        InputStream stream;
+        try {
+            stream = opener.openStream();
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            release(task);
+            throw e;
+        }
+
+        AtomicBoolean closed = new AtomicBoolean();
+        return new FilterInputStream(stream) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    if (closed.compareAndSet(false, true)) {
+                        release(task);
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * 音声合成の開始を待機する<br/>
+     * 仮想スレッドで待機する場合にキャリアスレッドを占有しないように、モニターではなくCompletableFutureで待機する<br/>
+     * 開始前に取り消された場合は{@link CancellationException}が発生する
+     *
+     * @param task 音声合成
+     * @throws InterruptedException 割り込み例外
+     */
+    private void awaitStart(Task task) throws InterruptedException {
+        try {
+            task.started.get();
+        } catch (InterruptedException e) {
+            synchronized (lock) {
+                if (removePending(task)) {
+                    activeTasks.remove(task.key, task);
+                    throw e;
+                }
+
+                // 開始されずに取り消された場合は、枠を使用していないため解放しない
+                if (task.started.isCancelled()) {
+                    throw e;
+                }
+            }
+
+            release(task);
+            throw e;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void release(Task task) {
+        synchronized (lock) {
+            runningCount--;
+            guildRunningCounts.computeIfPresent(task.runningGuildId, (k, v) -> v > 1 ? v - 1 : null);
+            rerankGuild(task.runningGuildId);
+            activeTasks.remove(task.key, task);
+        }
+
+        dispatch();
+    }
+
+    /**
+     * 同時に行う音声合成の数に空きがあれば、優先度の高いものから開始する<br/>
+     * 次に再生する読み上げテキストの音声合成は、先読みのために上限が埋まっていても予備の枠を使用して開始する
+     */
+    protected void dispatch() {
+        int limit = getConfigManager().getConfig().getMaxConcurrentSynthesis();
+
+        synchronized (lock) {
+            while (!pendingTasks.isEmpty()) {
+                Task next = pendingTasks.first();
+
+                if (limit > 0 && runningCount >= getLimit(next.priority, limit)) {
+                    break;
+                }
+
+                removePending(next);
+                next.runningGuildId = next.guildId;
+                runningCount++;
+                guildRunningCounts.merge(next.guildId, 1, Integer::sum);
+                rerankGuild(next.guildId);
+                next.started.complete(null);
+            }
+        }
+    }
+
+    private static int getLimit(Priority priority, int limit) {
+        return switch (priority) {
+            case HEAD_OF_LINE -> limit + Math.max(1, limit / 4);
+            case SPECULATIVE -> Math.max(1, limit / 2);
+            default -> limit;
+        };
+    }
+
+    /**
+     * 開始を待っている音声合成の順位を求め直して並べ直す<br/>
+     * 既に開始している場合は何もしない
+     *
+     * @param task 音声合成
+     */
+    private void rerank(Task task) {
+        if (removePending(task)) {
+            enqueue(task);
+        }
+    }
+
+    /**
+     * 順位を求めて、開始を待っている音声合成に追加する<br/>
+     * 待っている全ての読み上げテキストが取り消された場合は、開始せずに取り消す
+     *
+     * @param task 音声合成
+     */
+    private void enqueue(Task task) {
+        rank(task);
+
+        if (task.priority == Priority.CANCELLED) {
+            activeTasks.remove(task.key, task);
+            task.started.cancel(false);
+            return;
+        }
+
+        pendingTasks.add(task);
+        guildPendingTasks.computeIfAbsent(task.guildId, k -> new HashSet<>()).add(task);
+    }
+
+    /**
+     * サーバーの合成中の数が変わった場合に、そのサーバーの開始を待っている音声合成のみを並べ直す
+     *
+     * @param guildId サーバーID
+     */
+    private void rerankGuild(long guildId) {
+        Set<Task> tasks = guildPendingTasks.get(guildId);
+
+        if (tasks == null) {
+            return;
+        }
+
+        int guildRunning = guildRunningCounts.getOrDefault(guildId, 0);
+
+        for (Task task : tasks) {
+            pendingTasks.remove(task);
+            task.guildRunning = guildRunning;
+            pendingTasks.add(task);
+        }
+    }
+
+    /**
+     * 開始を待っている音声合成から取り除く<br/>
+     * 順位を変更する前に呼び出す必要がある
+     *
+     * @param task 音声合成
+     * @return 開始を待っていたかどうか
+     */
+    private boolean removePending(Task task) {
+        if (!pendingTasks.remove(task)) {
+            return false;
+        }
+
+        guildPendingTasks.computeIfPresent(task.guildId, (k, v) -> {
+            v.remove(task);
+            return v.isEmpty() ? null : v;
+        });
+
+        return true;
+    }
+
+    /**
+     * 音声合成の優先度を求める<br/>
+     * 待っている整理券の中で、最も優先度が高いものを使用する
+     *
+     * @param task 音声合成
+     */
+    private void rank(Task task) {
+        SynthesisTicket best = task.owner;
+        Priority bestPriority = Priority.of(best);
+
+        for (SynthesisTicket ticket : interests.getOrDefault(task.key, Set.of())) {
+            Priority priority = Priority.of(ticket);
+
+            if (priority.compareTo(bestPriority) < 0 || (priority == bestPriority && ticket.getSequence() < best.getSequence())) {
+                best = ticket;
+                bestPriority = priority;
+            }
+        }
+
+        task.priority = bestPriority;
+        task.guildId = best.getGuildId();
+        task.ticketSequence = best.getSequence();
+        task.guildRunning = guildRunningCounts.getOrDefault(best.getGuildId(), 0);
+    }
+
+    /**
+     * 開始を待っている音声合成の数を取得
+     *
+     * @return 開始を待っている数
+     */
+    public int getPendingCount() {
+        synchronized (lock) {
+            return pendingTasks.size();
+        }
+    }
+
+    /**
+     * 合成中の数を取得
+     *
+     * @return 合成中の数
+     */
+    public int getRunningCount() {
+        synchronized (lock) {
+            return runningCount;
+        }
+    }
+
+    public long getDedupedCount() {
+        return dedupedCount.get();
+    }
+
+    /**
+     * 音声合成の優先度の種類
+     *
+     * @author MORIMORI0317
+     */
+    private enum Priority {
+
+        /**
+         * 次に再生する読み上げテキスト
+         */
+        HEAD_OF_LINE,
+
+        /**
+         * 先読み
+         */
+        PREFETCH,
+
+        /**
+         * 予測による先行合成
+         */
+        SPECULATIVE,
+
+        /**
+         * 取り消された読み上げテキスト
+         */
+        CANCELLED;
+
+        private static Priority of(SynthesisTicket ticket) {
+            if (ticket.isCancelled()) {
+                return CANCELLED;
+            }
+
+            if (ticket.isHeadOfLine()) {
+                return HEAD_OF_LINE;
+            }
+
+            return ticket.isSpeculative() ? SPECULATIVE : PREFETCH;
+        }
+    }
+
+    /**
+     * 音声合成
+     *
+     * @author MORIMORI0317
+     */
+    private static final class Task {
+
+        /**
+         * 順位の比較<br/>
+         * 優先度の種類、サーバーの合成中の数、整理券の発行順、追加順の順に比べる
+         */
+        private static final Comparator<Task> COMPARATOR = Comparator.<Task, Priority>comparing(r -> r.priority)
+                .thenComparingInt(r -> r.guildRunning)
+                .thenComparingLong(r -> r.ticketSequence)
+                .thenComparingLong(r -> r.sequence);
+
+        /**
+         * 音声のキー
+         */
+        private final HashCode key;
+
+        /**
+         * 音声合成を開始した読み込みの整理券
+         */
+        private final SynthesisTicket owner;
+
+        /**
+         * 追加順
+         */
+        private final long sequence;
+
+        /**
+         * 開始を通知するCompletableFuture
+         */
+        private final CompletableFuture<Void> started = new CompletableFuture<>();
+
+        /**
+         * 合成中として数えているサーバーID
+         */
+        private long runningGuildId;
+
+        /**
+         * 順位に使用する優先度の種類
+         */
+        private Priority priority;
+
+        /**
+         * 順位に使用するサーバーID
+         */
+        private long guildId;
+
+        /**
+         * 順位に使用するサーバーの合成中の数
+         */
+        private int guildRunning;
+
+        /**
+         * 順位に使用する整理券の発行順
+         */
+        private long ticketSequence;
+
+        private Task(HashCode key, SynthesisTicket owner, long sequence) {
+            this.key = key;
+            this.owner = owner;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package dev.felnull.itts.core.tts;
+
+/**
+ * 音声合成の優先度を決めるための、読み上げテキストごとの整理券<br/>
+ * 分割したテキストの読み込みは同じ整理券を共有する
+ *
+ * @author MORIMORI0317
+ */
+public final class SynthesisTicket {
+
+    /**
+     * 音声合成スケジューラー
+     */
+    private final SynthesisScheduler scheduler;
+
+    /**
+     * サーバーID
+     */
+    private final long guildId;
+
+    /**
+     * 発行順
+     */
+    private final long sequence;
+
+    /**
+     * 予測による先行合成かどうか
+     */
+    private final boolean speculative;
+
+    /**
+     * 次に再生する読み上げテキストかどうか
+     */
+    private volatile boolean headOfLine;
+
+    /**
+     * 読み上げが取り消されたかどうか
+     */
+    private volatile boolean cancelled;
+
+    /**
+     * コンストラクタ
+     *
+     * @param scheduler   音声合成スケジューラー
+     * @param guildId     サーバーID
+     * @param sequence    発行順
+     * @param headOfLine  次に再生する読み上げテキストかどうか
+     * @param speculative 予測による先行合成かどうか
+     */
+    SynthesisTicket(SynthesisScheduler scheduler, long guildId, long sequence, boolean headOfLine, boolean speculative) {
+        this.scheduler = scheduler;
+        this.guildId = guildId;
+        this.sequence = sequence;
+        this.headOfLine = headOfLine;
+        this.speculative = speculative;
+    }
+
+    /**
+     * 次に再生する読み上げテキストになったことを通知する<br/>
+     * 先読みの音声合成より優先して開始されるようになる
+     */
+    public void promote() {
+        if (headOfLine) {
+            return;
+        }
+
+        headOfLine = true;
+        scheduler.update(this);
+    }
+
+    /**
+     * 読み上げが取り消されたことを通知する<br/>
+     * 他に同じ音声を待っている読み上げがない場合、開始前の音声合成は取り消される
+     */
+    public void cancel() {
+        if (cancelled) {
+            return;
+        }
+
+        cancelled = true;
+        scheduler.update(this);
+    }
+
+    public long getGuildId() {
+        return guildId;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public boolean isHeadOfLine() {
+        return headOfLine;
+    }
+
+    public boolean isSpeculative() {
+        return speculative;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
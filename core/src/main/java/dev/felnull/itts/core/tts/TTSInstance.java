@@ -14,6 +14,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -38,6 +39,11 @@ public final class TTSInstance implements ITTSRuntimeUse {
      */
     private static final int NEXT_WAIT_TIME = 500;
 
+    /**
+     * 最大同時先行合成数
+     */
+    private static final int MAX_SPECULATIVE_COUNT = 20;
+
     /**
      * 読み込み前読み上げテキストのキュー
      */
@@ -68,6 +74,11 @@ public final class TTSInstance implements ITTSRuntimeUse {
      */
     private final AtomicBoolean destroyed = new AtomicBoolean();
 
+    /**
+     * 先行合成中の数
+     */
+    private final AtomicInteger speculativeCount = new AtomicInteger();
+
     /**
      * 更新をロック
      */
@@ -83,6 +94,11 @@ public final class TTSInstance implements ITTSRuntimeUse {
      */
     private final AtomicReference<UUID> currentReadAloudUUID = new AtomicReference<>();
 
+    /**
+     * サーバーID
+     */
+    private final long guildId;
+
     /**
      * オーディオチャンネル
      */
@@ -108,6 +124,7 @@ public final class TTSInstance implements ITTSRuntimeUse {
      */
     public TTSInstance(Guild guild, long audioChannel, long textChannel, boolean overwriteAloud) {
         this.voiceAudioScheduler = new VoiceAudioScheduler(guild.getAudioManager(), getVoiceAudioManager(), guild.getIdLong());
+        this.guildId = guild.getIdLong();
         this.audioChannel = audioChannel;
         this.textChannel = textChannel;
         this.overwriteAloud = overwriteAloud;
@@ -165,6 +182,28 @@ public final class TTSInstance implements ITTSRuntimeUse {
         }
     }
 
+    /**
+     * 読み上げる可能性の高い読み上げテキストを、再生せずに先に合成しておく<br/>
+     * 合成した音声はキャッシュに残るため、後で同じ読み上げテキストを読む際にすぐに再生できる
+     *
+     * @param saidText 読み上げテキスト
+     */
+    public void speculate(SaidText saidText) {
+        if (destroyed.get() || speculativeCount.incrementAndGet() > MAX_SPECULATIVE_COUNT) {
+            speculativeCount.decrementAndGet();
+            return;
+        }
+
+        SynthesisTicket ticket = getTTSManager().getSynthesisScheduler().createSpeculativeTicket(guildId);
+        voiceAudioScheduler.load(saidText, ticket).whenCompleteAsync((loadedSaidText, throwable) -> {
+            speculativeCount.decrementAndGet();
+
+            if (loadedSaidText != null) {
+                loadedSaidText.dispose();
+            }
+        }, getAsyncExecutor());
+    }
+
     /**
      * 全ての読み上げを飛ばす
      *
@@ -215,7 +254,7 @@ public final class TTSInstance implements ITTSRuntimeUse {
 
             voiceAudioScheduler.stop();
 
-            LoadedSaidTextEntry cst = currentSaidText.getAndSet(new LoadedSaidTextEntry(saidText));
+            LoadedSaidTextEntry cst = currentSaidText.getAndSet(new LoadedSaidTextEntry(saidText, true));
 
             if (cst != null) {
                 cst.dispose();
@@ -239,7 +278,7 @@ public final class TTSInstance implements ITTSRuntimeUse {
             });
 
             while (loadSaidTextQueue.size() < LOAD_COUNT && !saidTextQueue.isEmpty()) {
-                loadSaidTextQueue.add(new LoadedSaidTextEntry(saidTextQueue.poll()));
+                loadSaidTextQueue.add(new LoadedSaidTextEntry(saidTextQueue.poll(), false));
             }
 
             LoadedSaidTextEntry cst = currentSaidText.get();
@@ -251,14 +290,16 @@ public final class TTSInstance implements ITTSRuntimeUse {
                 }
 
                 if (!loadSaidTextQueue.isEmpty()) {
-                    currentSaidText.set(loadSaidTextQueue.poll());
+                    LoadedSaidTextEntry entry = loadSaidTextQueue.poll();
+                    entry.ticket.promote();
+                    currentSaidText.set(entry);
                     sayStart();
                 } else {
                     currentSaidText.set(null);
                 }
 
                 while (!saidTextQueue.isEmpty()) {
-                    loadSaidTextQueue.add(new LoadedSaidTextEntry(saidTextQueue.poll()));
+                    loadSaidTextQueue.add(new LoadedSaidTextEntry(saidTextQueue.poll(), false));
                 }
             }
         }
@@ -333,6 +374,11 @@ public final class TTSInstance implements ITTSRuntimeUse {
          */
         private final SaidText saidText;
 
+        /**
+         * 音声合成の優先度を決めるための整理券
+         */
+        private final SynthesisTicket ticket;
+
         /**
          * 読み込み済み読み上げテキスト
          */
@@ -343,15 +389,17 @@ public final class TTSInstance implements ITTSRuntimeUse {
          */
         private final AtomicBoolean failure = new AtomicBoolean();
 
-        private LoadedSaidTextEntry(SaidText saidText) {
+        private LoadedSaidTextEntry(SaidText saidText, boolean headOfLine) {
             this.saidText = saidText;
-            this.completableFuture = voiceAudioScheduler.load(saidText);
+            this.ticket = getTTSManager().getSynthesisScheduler().createTicket(guildId, headOfLine);
+            this.completableFuture = voiceAudioScheduler.load(saidText, ticket);
             this.completableFuture.whenCompleteAsync((loadedSaidText, throwable) -> {
                 failure.set(throwable != null);
             }, getAsyncExecutor());
         }
 
         private void dispose() {
+            ticket.cancel();
             completableFuture.thenAcceptAsync(LoadedSaidText::dispose, getAsyncExecutor());
         }
 
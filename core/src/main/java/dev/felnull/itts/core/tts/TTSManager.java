@@ -36,6 +36,24 @@ public class TTSManager implements ITTSRuntimeUse {
      */
     private final Map<Long, TTSInstance> instances = new ConcurrentHashMap<>();
 
+    /**
+     * 全サーバー共通の音声合成スケジューラー
+     */
+    private final SynthesisScheduler synthesisScheduler = new SynthesisScheduler();
+
+    /**
+     * VCイベントの読み上げの先行合成
+     */
+    private final SpeculativeSynthesizer speculativeSynthesizer = new SpeculativeSynthesizer();
+
+    public SynthesisScheduler getSynthesisScheduler() {
+        return synthesisScheduler;
+    }
+
+    public SpeculativeSynthesizer getSpeculativeSynthesizer() {
+        return speculativeSynthesizer;
+    }
+
     public int getTTSCount() {
         return instances.size();
     }
@@ -75,6 +93,8 @@ public class TTSManager implements ITTSRuntimeUse {
         ServerData serverData = getSaveDataManager().getServerData(guildId);
         instances.put(guildId, new TTSInstance(guild, channelId, data.getReadAroundTextChannel(), serverData.isOverwriteAloud()));
         data.setConnectedAudioChannel(channelId);
+
+        speculativeSynthesizer.onConnect(guild, audioChannel);
     }
 
     /**
@@ -312,6 +332,10 @@ public class TTSManager implements ITTSRuntimeUse {
             vce = VCEventType.MOVE_TO;
         }
 
+        if (vce != null) {
+            speculativeSynthesizer.onVCEvent(guild, member, vce);
+        }
+
         if (canSpeak(guild)) {
             sayVCEvent(vce, ti, vt.createVoice(guildId, userId), member, join, left);
         }
@@ -1,17 +1,17 @@
 package dev.felnull.itts.core.tts.saidtext;
 
 import dev.felnull.itts.core.ITTSRuntimeUse;
+import dev.felnull.itts.core.util.DiscordUtils;
 import dev.felnull.itts.core.util.TTSUtils;
 import dev.felnull.itts.core.voice.Voice;
 import net.dv8tion.jda.api.entities.*;
 import net.dv8tion.jda.api.entities.channel.middleman.GuildChannel;
 import net.dv8tion.jda.api.entities.emoji.CustomEmoji;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
 /**
@@ -88,22 +88,24 @@ public record MessageSaidText(Message message, Voice voice) implements SaidText,
      * @return 文字列
      */
     private static String getIkisugiContentDisplay(Map<User, Member> members, Message message) {
-        String ret = message.getContentRaw();
+        Map<String, String> mentions = new LinkedHashMap<>();
+
         for (User user : message.getMentions().getUsers()) {
-            String name;
-            name = members.get(user).getEffectiveName();
-            ret = ret.replaceAll("<@!?" + Pattern.quote(user.getId()) + '>', '@' + Matcher.quoteReplacement(name));
+            String name = '@' + members.get(user).getEffectiveName();
+            mentions.put("<@" + user.getId() + '>', name);
+            mentions.put("<@!" + user.getId() + '>', name);
         }
         for (CustomEmoji emoji : message.getMentions().getCustomEmojis()) {
-            ret = ret.replace(emoji.getAsMention(), ":" + emoji.getName() + ":");
+            mentions.put(emoji.getAsMention(), ":" + emoji.getName() + ":");
         }
         for (GuildChannel mentionedChannel : message.getMentions().getChannels()) {
-            ret = ret.replace(mentionedChannel.getAsMention(), '#' + mentionedChannel.getName());
+            mentions.put(mentionedChannel.getAsMention(), '#' + mentionedChannel.getName());
         }
         for (Role mentionedRole : message.getMentions().getRoles()) {
-            ret = ret.replace(mentionedRole.getAsMention(), '@' + mentionedRole.getName());
+            mentions.put(mentionedRole.getAsMention(), '@' + mentionedRole.getName());
         }
-        return ret;
+
+        return DiscordUtils.replaceMentions(message.getContentRaw(), mentions);
     }
 
     /**
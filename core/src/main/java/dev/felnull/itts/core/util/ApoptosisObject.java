@@ -1,29 +1,34 @@
 package dev.felnull.itts.core.util;
 
+import dev.felnull.itts.core.ExpirySweeper;
 import dev.felnull.itts.core.ITTSRuntime;
-import dev.felnull.itts.core.ImmortalityTimer;
 
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.atomic.AtomicReference;
 
 /**
- * 時間がたつと自動的に削除を行うオブジェクト
+ * 時間がたつと自動的に削除を行うオブジェクト<br/>
+ * 生存時間の確認は{@link ExpirySweeper}でまとめて行い、生存時間の延長では時刻の更新のみを行う
  *
  * @author MORIMORI0317
  */
 public abstract class ApoptosisObject {
 
     /**
-     * 最終実行時間
+     * スイーパーに登録するエントリ
      */
-    private final AtomicLong lastExtensionTime = new AtomicLong(System.currentTimeMillis());
+    private final ExpirySweeper.ExpiryEntry expiryEntry = new ExpirySweeper.ExpiryEntry() {
+        @Override
+        protected boolean isExpired(long now) {
+            return broken.get() || now - lastExtensionTime >= lifeTime;
+        }
 
-    /**
-     * タスク
-     */
-    private final AtomicReference<ImmortalityTimer.ImmortalityTimerTask> task = new AtomicReference<>();
+        @Override
+        protected void expire() {
+            if (broken.compareAndSet(false, true)) {
+                lifeEnd(false);
+            }
+        }
+    };
 
     /**
      * 使用済みで壊れているかどうか
@@ -35,6 +40,11 @@ public abstract class ApoptosisObject {
      */
     private final long lifeTime;
 
+    /**
+     * 最終実行時間
+     */
+    private volatile long lastExtensionTime = System.currentTimeMillis();
+
     /**
      * コンストラクタ
      *
@@ -42,7 +52,7 @@ public abstract class ApoptosisObject {
      */
     protected ApoptosisObject(long lifeTime) {
         this.lifeTime = lifeTime;
-        scheduleCheckTimer(this::check, this.lifeTime + 300L);
+        ITTSRuntime.getInstance().getExpirySweeper().register(expiryEntry);
     }
 
     /**
@@ -56,7 +66,7 @@ public abstract class ApoptosisObject {
      * 実行時間
      */
     public void extensionLife() {
-        this.lastExtensionTime.set(System.currentTimeMillis());
+        this.lastExtensionTime = System.currentTimeMillis();
     }
 
     /**
@@ -64,42 +74,9 @@ public abstract class ApoptosisObject {
      */
     public void broke() {
         broken.set(true);
-        ImmortalityTimer.ImmortalityTimerTask tsk = task.get();
-        if (tsk != null) {
-            tsk.cancel();
-        }
+        ITTSRuntime.getInstance().getExpirySweeper().unregister(expiryEntry);
 
         lifeEnd(true);
     }
 
-    private void check() {
-        if (broken.get()) {
-            return;
-        }
-        task.set(null);
-
-        long now = System.currentTimeMillis();
-        long lastTime = lastExtensionTime.get();
-        long eqTime = now - lastTime;
-
-        if (eqTime >= lifeTime) {
-            broken.set(true);
-            lifeEnd(false);
-            return;
-        }
-
-        scheduleCheckTimer(this::check, lifeTime - eqTime + 300L);
-    }
-
-    private void scheduleCheckTimer(Runnable runnable, long delay) {
-        ImmortalityTimer.ImmortalityTimerTask tsk = new ImmortalityTimer.ImmortalityTimerTask() {
-            @Override
-            public void run() {
-                CompletableFuture.runAsync(runnable, ITTSRuntime.getInstance().getAsyncWorkerExecutor());
-            }
-        };
-        task.set(tsk);
-        ITTSRuntime.getInstance().getImmortalityTimer().schedule(tsk, delay);
-    }
-
 }
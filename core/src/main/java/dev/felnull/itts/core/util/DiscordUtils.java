@@ -9,6 +9,7 @@ import net.dv8tion.jda.api.requests.restaction.CacheRestAction;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 
@@ -127,4 +128,24 @@ public final class DiscordUtils {
         txt = Message.MentionType.ROLE.getPattern().matcher(txt).replaceAll(n -> n.group().substring(2, n.group().length() - 1));
         return txt;
     }
+
+    /**
+     * メンションを置き換える<br/>
+     * 置き換えはマップの順番で行う
+     *
+     * @param text     置き換え対象文字列
+     * @param mentions メンション文字列と置き換え後の文字列のマップ
+     * @return 置き換え済み文字列
+     */
+    @NotNull
+    public static String replaceMentions(@NotNull String text, @NotNull Map<String, String> mentions) {
+        Objects.requireNonNull(text);
+        Objects.requireNonNull(mentions);
+
+        for (Map.Entry<String, String> entry : mentions.entrySet()) {
+            text = text.replace(entry.getKey(), entry.getValue());
+        }
+
+        return text;
+    }
 }
@@ -11,6 +11,8 @@ import net.dv8tion.jda.api.entities.User;
 import net.dv8tion.jda.api.entities.channel.middleman.StandardGuildChannel;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -19,6 +21,17 @@ import java.util.Objects;
  * @author MORIMORI0317
  */
 public final class TTSUtils {
+
+    /**
+     * 分割して読み込むテキストの最小の長さ
+     */
+    private static final int MIN_SPLIT_TEXT_LENGTH = 40;
+
+    /**
+     * 分割後のテキストの最小の長さ
+     */
+    private static final int MIN_CHUNK_LENGTH = 10;
+
     private TTSUtils() {
     }
 
@@ -97,6 +110,78 @@ public final class TTSUtils {
         }
     }
 
+    /**
+     * 読み上げるテキストを文の区切りで分割する<br/>
+     * "。"、"！"、"？"と改行では常に区切り、"、"では区切った後のテキストが短くなりすぎない場合のみ区切る<br/>
+     * 短いテキストは分割しない
+     *
+     * @param text テキスト
+     * @return 分割したテキストのリスト
+     */
+    @NotNull
+    public static List<String> splitSentences(@NotNull String text) {
+        if (text.length() < MIN_SPLIT_TEXT_LENGTH) {
+            return List.of(text);
+        }
+
+        List<String> chunks = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        int length = text.length();
+        int pos = 0;
+
+        while (pos < length) {
+            char c = text.charAt(pos++);
+            boolean lineBreak = c == '\n' || c == '\r';
+
+            if (!lineBreak) {
+                current.append(c);
+            }
+
+            boolean sentenceEnd = lineBreak || isSentenceEnd(c);
+            boolean pause = c == '、' && current.length() >= MIN_CHUNK_LENGTH;
+
+            if (!sentenceEnd && !pause) {
+                continue;
+            }
+
+            // "！？"などの連続した区切り文字はまとめる
+            while (sentenceEnd && pos < length && isSentenceEnd(text.charAt(pos))) {
+                current.append(text.charAt(pos++));
+            }
+
+            addChunk(chunks, current);
+        }
+
+        addChunk(chunks, current);
+
+        if (chunks.isEmpty()) {
+            return List.of(text);
+        }
+
+        return chunks;
+    }
+
+    private static boolean isSentenceEnd(char c) {
+        return c == '。' || c == '！' || c == '？' || c == '!' || c == '?';
+    }
+
+    private static void addChunk(List<String> chunks, StringBuilder current) {
+        String chunk = current.toString().strip();
+        current.setLength(0);
+
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        // 短すぎる場合は前のテキストとまとめる
+        int last = chunks.size() - 1;
+        if (last >= 0 && (chunk.length() < MIN_CHUNK_LENGTH || chunks.get(last).length() < MIN_CHUNK_LENGTH)) {
+            chunks.set(last, chunks.get(last) + chunk);
+        } else {
+            chunks.add(chunk);
+        }
+    }
+
     /**
      * 読み上げるチャンネル名を取得
      *
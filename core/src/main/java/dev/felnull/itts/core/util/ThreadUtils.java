@@ -0,0 +1,64 @@
+package dev.felnull.itts.core.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * スレッドに関するユーティリティ<br/>
+ * Java17でもビルドできるように、仮想スレッドはリフレクションを使用して作成する
+ *
+ * @author MORIMORI0317
+ */
+public final class ThreadUtils {
+
+    private ThreadUtils() {
+    }
+
+    /**
+     * タスクごとに仮想スレッドを作成するエクスキューターを作成する
+     *
+     * @param namePrefix スレッド名の接頭辞
+     * @return エクスキューター、仮想スレッドが使用できない場合はnull
+     */
+    @Nullable
+    public static ExecutorService newVirtualThreadPerTaskExecutor(@NotNull String namePrefix) {
+        ThreadFactory factory = createVirtualThreadFactory(namePrefix);
+
+        if (factory == null) {
+            return null;
+        }
+
+        try {
+            Method method = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) method.invoke(null, factory);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 仮想スレッドを作成するスレッドファクトリーを作成する<br/>
+     * Java19,20ではプレビュー機能が有効でない場合に例外が発生するため、使用できないものとして扱う
+     *
+     * @param namePrefix スレッド名の接頭辞
+     * @return スレッドファクトリー、仮想スレッドが使用できない場合はnull
+     */
+    @Nullable
+    private static ThreadFactory createVirtualThreadFactory(String namePrefix) {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            return null;
+        }
+    }
+}
@@ -2,8 +2,10 @@ package dev.felnull.itts.core.voice;
 
 import com.google.common.hash.HashCode;
 import com.google.common.hash.Hashing;
+import dev.felnull.itts.core.ITTSRuntimeUse;
 import dev.felnull.itts.core.audio.loader.CachedVoiceTrackLoader;
 import dev.felnull.itts.core.audio.loader.VoiceTrackLoader;
+import dev.felnull.itts.core.tts.SynthesisTicket;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -14,7 +16,7 @@ import java.nio.charset.StandardCharsets;
  *
  * @author MORIMORI0317
  */
-public abstract class CachedVoice extends BaseVoice {
+public abstract class CachedVoice extends BaseVoice implements ITTSRuntimeUse {
 
     /**
      * コンストラクタ
@@ -28,12 +30,13 @@ public abstract class CachedVoice extends BaseVoice {
     /**
      * 声データのストリームを開く
      *
-     * @param text 読み上げるテキスト
+     * @param text    読み上げるテキスト
+     * @param guildId 読み上げを行うサーバーID
      * @return 声データのストリーム
      * @throws IOException          IO例外
      * @throws InterruptedException 割り込み例外
      */
-    protected abstract InputStream openVoiceStream(String text) throws IOException, InterruptedException;
+    protected abstract InputStream openVoiceStream(String text, long guildId) throws IOException, InterruptedException;
 
     /**
      * 声のハッシュ文字列を求める
@@ -43,19 +46,24 @@ public abstract class CachedVoice extends BaseVoice {
     protected abstract String createHashCodeChars();
 
     @Override
-    public VoiceTrackLoader createVoiceTrackLoader(String text) {
+    public VoiceTrackLoader createVoiceTrackLoader(String text, SynthesisTicket ticket) {
         HashCode hash = Hashing.murmur3_128().newHasher()
                 .putString(voiceType.getId(), StandardCharsets.UTF_8)
                 .putString(text, StandardCharsets.UTF_8)
                 .putString(createHashCodeChars(), StandardCharsets.UTF_8)
                 .hash();
 
-        return new CachedVoiceTrackLoader(hash, () -> {
+        // キャッシュを温める対象を決めるために、先行合成以外の読み込みを記録
+        if (!ticket.isSpeculative() && getCacheManager().isCacheWarming()) {
+            getCacheManager().getPhraseFrequencyLog().record(voiceType.getId(), text);
+        }
+
+        return new CachedVoiceTrackLoader(hash, ticket, () -> {
             if (!isAvailable()) {
                 throw new RuntimeException("Voice is not available");
             }
 
-            return openVoiceStream(text);
+            return openVoiceStream(text, ticket.getGuildId());
         });
     }
 }
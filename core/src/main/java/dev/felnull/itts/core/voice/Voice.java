@@ -1,6 +1,7 @@
 package dev.felnull.itts.core.voice;
 
 import dev.felnull.itts.core.audio.loader.VoiceTrackLoader;
+import dev.felnull.itts.core.tts.SynthesisTicket;
 
 /**
  * 声
@@ -19,10 +20,11 @@ public interface Voice {
     /**
      * 声トラックローダーを作成
      *
-     * @param text テキスト
+     * @param text   テキスト
+     * @param ticket 音声合成の優先度を決めるための整理券
      * @return 声トラックローダー
      */
-    VoiceTrackLoader createVoiceTrackLoader(String text);
+    VoiceTrackLoader createVoiceTrackLoader(String text, SynthesisTicket ticket);
 
     /**
      * 声タイプを取得
@@ -4,6 +4,7 @@ import dev.felnull.itts.core.ITTSBaseManager;
 import dev.felnull.itts.core.savedata.SaveDataManager;
 import dev.felnull.itts.core.savedata.ServerUserData;
 import dev.felnull.itts.core.voice.voicetext.VoiceTextManager;
+import dev.felnull.itts.core.voice.voicevox.HedgeBudget;
 import dev.felnull.itts.core.voice.voicevox.VoicevoxManager;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -47,6 +48,11 @@ public class VoiceManager implements ITTSBaseManager {
             new VoicevoxManager("sharevox", () ->
                     getConfigManager().getConfig().getSharevoxConfig().getApiUrls(), () -> getConfigManager().getConfig().getSharevoxConfig());
 
+    /**
+     * VOICEVOX系エンジンで共有するヘッジリクエストの予算
+     */
+    private final HedgeBudget hedgeBudget = new HedgeBudget(() -> getConfigManager().getConfig().getHedgeBudget());
+
     /**
      * 全音声タイプ
      */
@@ -84,6 +90,10 @@ public class VoiceManager implements ITTSBaseManager {
         return coeiroinkManager;
     }
 
+    public HedgeBudget getHedgeBudget() {
+        return hedgeBudget;
+    }
+
     public VoicevoxManager getSharevoxManager() {
         return sharevoxManager;
     }
@@ -31,7 +31,7 @@ public class VoiceTextVoice extends CachedVoice {
     }
 
     @Override
-    protected InputStream openVoiceStream(String text) throws IOException, InterruptedException {
+    protected InputStream openVoiceStream(String text, long guildId) throws IOException, InterruptedException {
         return getVoiceTextManager().openVoiceStream(speakers, text);
     }
 
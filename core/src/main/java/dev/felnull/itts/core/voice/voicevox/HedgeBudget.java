@@ -0,0 +1,85 @@
+package dev.felnull.itts.core.voice.voicevox;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleSupplier;
+
+/**
+ * ヘッジリクエストの予算<br/>
+ * リクエストごとに予算を貯め、ヘッジリクエストを送る際に使用することで、エンジンへの負荷が一定の割合以上に増えないようにする<br/>
+ * 全てのVOICEVOX系エンジンで共有する
+ *
+ * @author MORIMORI0317
+ */
+public class HedgeBudget {
+
+    /**
+     * 貯められる予算の最大値
+     */
+    private static final double MAX_TOKENS = 10d;
+
+    /**
+     * リクエストごとに貯める予算の取得
+     */
+    private final DoubleSupplier ratio;
+
+    /**
+     * 送ったヘッジリクエストの数
+     */
+    private final AtomicLong hedgeCount = new AtomicLong();
+
+    /**
+     * 送ったヘッジリクエストのうち先に応答した数
+     */
+    private final AtomicLong hedgeWinCount = new AtomicLong();
+
+    /**
+     * 貯まっている予算
+     */
+    private double tokens;
+
+    /**
+     * コンストラクタ
+     *
+     * @param ratio リクエストごとに貯める予算(リクエスト数に対するヘッジリクエスト数の上限の割合)の取得
+     */
+    public HedgeBudget(DoubleSupplier ratio) {
+        this.ratio = ratio;
+    }
+
+    /**
+     * リクエストを記録し、予算を貯める
+     */
+    public synchronized void onRequest() {
+        tokens = Math.min(MAX_TOKENS, tokens + ratio.getAsDouble());
+    }
+
+    /**
+     * ヘッジリクエストのために予算を使用する
+     *
+     * @return 予算が足りていたかどうか
+     */
+    public synchronized boolean tryAcquire() {
+        if (tokens < 1d) {
+            return false;
+        }
+
+        tokens -= 1d;
+        hedgeCount.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * ヘッジリクエストが先に応答したことを記録
+     */
+    public void onHedgeWin() {
+        hedgeWinCount.incrementAndGet();
+    }
+
+    public long getHedgeCount() {
+        return hedgeCount.get();
+    }
+
+    public long getHedgeWinCount() {
+        return hedgeWinCount.get();
+    }
+}
@@ -0,0 +1,76 @@
+package dev.felnull.itts.core.voice.voicevox;
+
+import java.util.Arrays;
+
+/**
+ * 直近の応答時間を保持し、パーセンタイルを求める
+ *
+ * @author MORIMORI0317
+ */
+public class LatencyWindow {
+
+    /**
+     * 保持する応答時間の数
+     */
+    private final double[] samples;
+
+    /**
+     * パーセンタイルを求めるために必要な最小の数
+     */
+    private final int minSamples;
+
+    /**
+     * 次に書き込む位置
+     */
+    private int position;
+
+    /**
+     * 保持している数
+     */
+    private int count;
+
+    /**
+     * コンストラクタ
+     *
+     * @param size       保持する応答時間の数
+     * @param minSamples パーセンタイルを求めるために必要な最小の数
+     */
+    public LatencyWindow(int size, int minSamples) {
+        this.samples = new double[size];
+        this.minSamples = minSamples;
+    }
+
+    /**
+     * 応答時間を記録
+     *
+     * @param latency 応答時間(ms)
+     */
+    public synchronized void record(double latency) {
+        samples[position] = latency;
+        position = (position + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+    }
+
+    /**
+     * 応答時間のパーセンタイルを求める
+     *
+     * @param percentile パーセンタイル(0から100)
+     * @return 応答時間(ms)、記録が足りない場合は-1
+     */
+    public double getPercentile(double percentile) {
+        double[] sorted;
+
+        synchronized (this) {
+            if (count < minSamples) {
+                return -1;
+            }
+
+            sorted = Arrays.copyOf(samples, count);
+        }
+
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(Math.max(0d, Math.min(100d, percentile)) / 100d * sorted.length) - 1;
+
+        return sorted[Math.max(0, index)];
+    }
+}
@@ -0,0 +1,122 @@
+package dev.felnull.itts.core.voice.voicevox;
+
+/**
+ * VOICEVOX系エンジンのURLごとのサーキットブレーカー<br/>
+ * 連続して失敗した場合はURLを遮断して選ばれないようにし、一定時間後に1つのリクエストだけを試しに通す<br/>
+ * 試しに通したリクエストが成功した場合は遮断を解除し、失敗した場合は再び遮断する
+ *
+ * @author MORIMORI0317
+ */
+public class VVURLCircuitBreaker {
+
+    /**
+     * 遮断する連続失敗回数
+     */
+    private static final int FAILURE_THRESHOLD = 3;
+
+    /**
+     * 遮断してから試しにリクエストを通すまでの時間(ms)
+     */
+    private static final long OPEN_DURATION = 5000L;
+
+    /**
+     * 状態
+     */
+    private State state = State.CLOSED;
+
+    /**
+     * 連続失敗回数
+     */
+    private int consecutiveFailures;
+
+    /**
+     * 遮断した時刻
+     */
+    private long openedTime;
+
+    /**
+     * 遮断されていないかどうか
+     *
+     * @return 遮断されていないかどうか
+     */
+    public synchronized boolean isClosed() {
+        return state == State.CLOSED;
+    }
+
+    /**
+     * 遮断中の場合に、試しにリクエストを通すことができるか確認する<br/>
+     * 通すことができる場合は半開状態になり、結果が記録されるまで他のリクエストは通さない
+     *
+     * @return 試しにリクエストを通すかどうか
+     */
+    public synchronized boolean tryAcquireTrial() {
+        if (state != State.OPEN || System.currentTimeMillis() - openedTime < OPEN_DURATION) {
+            return false;
+        }
+
+        state = State.HALF_OPEN;
+        return true;
+    }
+
+    /**
+     * 成功を記録する
+     *
+     * @return 遮断が解除されたかどうか
+     */
+    public synchronized boolean recordSuccess() {
+        consecutiveFailures = 0;
+
+        if (state == State.CLOSED) {
+            return false;
+        }
+
+        state = State.CLOSED;
+        return true;
+    }
+
+    /**
+     * 失敗を記録する
+     *
+     * @return 新たに遮断されたかどうか
+     */
+    public synchronized boolean recordFailure() {
+        consecutiveFailures++;
+
+        if (state == State.CLOSED && consecutiveFailures < FAILURE_THRESHOLD) {
+            return false;
+        }
+
+        boolean opened = state != State.OPEN;
+        state = State.OPEN;
+        openedTime = System.currentTimeMillis();
+
+        return opened;
+    }
+
+    public long getOpenDuration() {
+        return OPEN_DURATION;
+    }
+
+    /**
+     * サーキットブレーカーの状態
+     *
+     * @author MORIMORI0317
+     */
+    private enum State {
+
+        /**
+         * リクエストを通す
+         */
+        CLOSED,
+
+        /**
+         * 遮断中
+         */
+        OPEN,
+
+        /**
+         * 試しに1つのリクエストを通している
+         */
+        HALF_OPEN
+    }
+}
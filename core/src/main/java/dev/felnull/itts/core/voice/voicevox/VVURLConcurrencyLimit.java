@@ -0,0 +1,62 @@
+package dev.felnull.itts.core.voice.voicevox;
+
+/**
+ * VOICEVOX系エンジンのURLごとの同時リクエスト数の上限<br/>
+ * 自動調整が有効な場合は、成功するごとに少しずつ上限を増やし、失敗もしくは応答が遅くなった場合は上限を半分にする (AIMD)
+ *
+ * @author MORIMORI0317
+ */
+public class VVURLConcurrencyLimit {
+
+    /**
+     * 上限を指定しない場合に自動調整で増やす上限
+     */
+    private static final int MAX_ADAPTIVE_LIMIT = 64;
+
+    /**
+     * 混雑しているとみなす、応答時間の平均に対する倍率
+     */
+    private static final double CONGESTION_LATENCY_RATIO = 2d;
+
+    /**
+     * 自動調整された上限
+     */
+    private double adaptiveLimit = 1d;
+
+    /**
+     * 現在の上限を取得する
+     *
+     * @param maxLimit 設定された上限、0以下の場合は上限なし
+     * @param adaptive 自動調整を行うかどうか
+     * @return 同時リクエスト数の上限
+     */
+    public synchronized int getLimit(int maxLimit, boolean adaptive) {
+        if (!adaptive) {
+            return maxLimit <= 0 ? Integer.MAX_VALUE : maxLimit;
+        }
+
+        return (int) Math.min(adaptiveLimit, getAdaptiveMax(maxLimit));
+    }
+
+    /**
+     * リクエストの結果を自動調整に反映する
+     *
+     * @param maxLimit       設定された上限、0以下の場合は上限なし
+     * @param success        成功したかどうか
+     * @param elapsed        応答時間(ms)
+     * @param averageLatency 応答時間の平均(ms)、未計測の場合はNaN
+     */
+    public synchronized void update(int maxLimit, boolean success, double elapsed, double averageLatency) {
+        boolean congested = !Double.isNaN(averageLatency) && elapsed > averageLatency * CONGESTION_LATENCY_RATIO;
+
+        if (success && !congested) {
+            adaptiveLimit = Math.min(adaptiveLimit + 1d / adaptiveLimit, getAdaptiveMax(maxLimit));
+        } else {
+            adaptiveLimit = Math.max(adaptiveLimit / 2d, 1d);
+        }
+    }
+
+    private static int getAdaptiveMax(int maxLimit) {
+        return maxLimit <= 0 ? MAX_ADAPTIVE_LIMIT : maxLimit;
+    }
+}
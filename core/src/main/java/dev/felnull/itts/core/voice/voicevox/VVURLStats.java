@@ -0,0 +1,113 @@
+package dev.felnull.itts.core.voice.voicevox;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * VOICEVOX系エンジンのURLごとの応答時間と失敗率の統計<br/>
+ * 応答時間と失敗率は指数移動平均で保持し、最近の状態ほど強く反映する
+ *
+ * @author MORIMORI0317
+ */
+public class VVURLStats {
+
+    /**
+     * 指数移動平均の平滑化係数
+     */
+    private static final double ALPHA = 0.2d;
+
+    /**
+     * 失敗率をコストに反映する倍率
+     */
+    private static final double FAILURE_PENALTY = 4d;
+
+    /**
+     * 処理中のリクエスト数
+     */
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * 応答時間の指数移動平均(ms)、未計測の場合はNaN
+     */
+    private double latency = Double.NaN;
+
+    /**
+     * 失敗率の指数移動平均
+     */
+    private double failureRate;
+
+    /**
+     * リクエストの開始を記録
+     */
+    public void begin() {
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * リクエストの終了を記録<br/>
+     * 失敗した場合は応答時間を反映しない
+     *
+     * @param elapsed 経過時間(ms)
+     * @param success 成功したかどうか
+     */
+    public synchronized void end(double elapsed, boolean success) {
+        inFlight.decrementAndGet();
+
+        if (success) {
+            latency = Double.isNaN(latency) ? elapsed : latency + ALPHA * (elapsed - latency);
+        }
+
+        failureRate += ALPHA * ((success ? 0d : 1d) - failureRate);
+    }
+
+    /**
+     * 拒否されたリクエストの終了を記録<br/>
+     * 成功として失敗率に反映するが、応答時間には反映しない
+     */
+    public synchronized void reject() {
+        inFlight.decrementAndGet();
+        failureRate += ALPHA * (0d - failureRate);
+    }
+
+    /**
+     * キャンセルされたリクエストの終了を記録<br/>
+     * 応答時間と失敗率には反映しない
+     */
+    public void cancel() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * 次のリクエストを送った場合の完了までの予想時間を求める<br/>
+     * 処理中のリクエストが多いほど、応答時間と失敗率が高いほど、重みが小さいほど大きくなる
+     *
+     * @param weight         重み
+     * @param defaultLatency 応答時間が未計測の場合に使用する応答時間(ms)
+     * @return 予想時間
+     */
+    public synchronized double getExpectedCost(double weight, double defaultLatency) {
+        double lt = Double.isNaN(latency) ? defaultLatency : latency;
+        return (inFlight.get() + 1) * lt * (1d + FAILURE_PENALTY * failureRate) / weight;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * 応答時間の指数移動平均を取得
+     *
+     * @return 応答時間(ms)、未計測の場合はNaN
+     */
+    public synchronized double getLatency() {
+        return latency;
+    }
+
+    /**
+     * 失敗率の指数移動平均を取得
+     *
+     * @return 失敗率
+     */
+    public synchronized double getFailureRate() {
+        return failureRate;
+    }
+}
@@ -3,17 +3,25 @@ package dev.felnull.itts.core.voice.voicevox;
 import com.google.common.collect.ImmutableList;
 import dev.felnull.itts.core.ITTSRuntimeUse;
 import dev.felnull.itts.core.ImmortalityTimer;
+import dev.felnull.itts.core.config.voicetype.VoicevoxConfig;
 import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.lang3.tuple.Triple;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
 
 /**
@@ -23,6 +31,21 @@ import java.util.function.Supplier;
  */
 public class VoicevoxBalancer implements ITTSRuntimeUse {
 
+    /**
+     * 応答時間が計測されていない場合の応答時間(ms)
+     */
+    private static final double DEFAULT_LATENCY = 1000d;
+
+    /**
+     * 重みの最小値
+     */
+    private static final double MIN_WEIGHT = 0.01d;
+
+    /**
+     * URLの空きを待機する最大時間(ms)
+     */
+    private static final long QUEUE_TIMEOUT = 30000L;
+
     /**
      * VOICEVOXマネージャー
      */
@@ -39,14 +62,55 @@ public class VoicevoxBalancer implements ITTSRuntimeUse {
     private final Object checkLock = new Object();
 
     /**
-     * 使用カウント
+     * URLごとの統計
+     */
+    private final Map<VVURL, VVURLStats> urlStats = new ConcurrentHashMap<>();
+
+    /**
+     * URLごとのサーキットブレーカー
+     */
+    private final Map<VVURL, VVURLCircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+
+    /**
+     * URLごとの最後に確認したバージョンと話者
+     */
+    private final Map<VVURL, Pair<String, List<VoicevoxSpeaker>>> checkedSpeakers = new ConcurrentHashMap<>();
+
+    /**
+     * URLごとの同時リクエスト数の上限
+     */
+    private final Map<VVURL, VVURLConcurrencyLimit> concurrencyLimits = new ConcurrentHashMap<>();
+
+    /**
+     * URLの空きを待つリクエストの待ち行列<br/>
+     * URLの選択と待ち行列の操作はこのインスタンスで同期する
+     */
+    private final VoicevoxRequestQueue requestQueue = new VoicevoxRequestQueue();
+
+    /**
+     * 遮断中のURLの確認が予定されているURL
+     */
+    private final Set<VVURL> scheduledProbes = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 開始した確認の番号
      */
-    private final Map<VVURL, AtomicInteger> useCounter = new ConcurrentHashMap<>();
+    private final AtomicLong checkCount = new AtomicLong();
+
+    /**
+     * 結果を反映した確認の番号
+     */
+    private long publishedCheck;
 
     /**
      * 使用可能なURL
      */
-    private List<VVURL> availableUrls;
+    private volatile List<VVURL> availableUrls;
+
+    /**
+     * 話者を使用しているエンジンのバージョン
+     */
+    private volatile String availableVersion;
 
     /**
      * 使用可能な話者
@@ -64,8 +128,38 @@ public class VoicevoxBalancer implements ITTSRuntimeUse {
         this.enginUrls = enginUrls;
     }
 
-    private AtomicInteger getUseCounter(VVURL vvurl) {
-        return useCounter.computeIfAbsent(vvurl, k -> new AtomicInteger());
+    /**
+     * URLの統計を取得
+     *
+     * @param vvurl URL
+     * @return 統計
+     */
+    protected VVURLStats getStats(VVURL vvurl) {
+        return urlStats.computeIfAbsent(vvurl, k -> new VVURLStats());
+    }
+
+    /**
+     * URLのサーキットブレーカーを取得
+     *
+     * @param vvurl URL
+     * @return サーキットブレーカー
+     */
+    protected VVURLCircuitBreaker getCircuitBreaker(VVURL vvurl) {
+        return circuitBreakers.computeIfAbsent(vvurl, k -> new VVURLCircuitBreaker());
+    }
+
+    /**
+     * URLの同時リクエスト数の上限を取得
+     *
+     * @param vvurl URL
+     * @return 同時リクエスト数の上限
+     */
+    protected VVURLConcurrencyLimit getConcurrencyLimit(VVURL vvurl) {
+        return concurrencyLimits.computeIfAbsent(vvurl, k -> new VVURLConcurrencyLimit());
+    }
+
+    public VoicevoxRequestQueue getRequestQueue() {
+        return requestQueue;
     }
 
     /**
@@ -83,6 +177,16 @@ public class VoicevoxBalancer implements ITTSRuntimeUse {
         }
     }
 
+    /**
+     * 話者を使用しているエンジンのバージョンを取得<br/>
+     * 音声のハッシュに含めることで、エンジンが更新された場合に以前のキャッシュを使用しないようにする
+     *
+     * @return バージョン、取得できていない場合はnull
+     */
+    protected String getAvailableVersion() {
+        return availableVersion;
+    }
+
     /**
      * 初期化
      *
@@ -93,10 +197,40 @@ public class VoicevoxBalancer implements ITTSRuntimeUse {
     }
 
     private void check() {
+        long checkNumber = checkCount.incrementAndGet();
+
+        // 仮想スレッドでキャリアスレッドを占有しないように、応答を待つ間はロックしない
+        Triple<List<VVURL>, String, List<VoicevoxSpeaker>> cr = checkAndGet();
+        String preVersion;
+
         synchronized (checkLock) {
-            Pair<List<VVURL>, List<VoicevoxSpeaker>> cr = checkAndGet();
+            // 後から開始した確認の結果が既に反映されている場合は、古い結果で上書きしないように破棄する
+            if (checkNumber < publishedCheck) {
+                return;
+            }
+
+            publishedCheck = checkNumber;
+            preVersion = availableVersion;
             availableUrls = cr.getLeft();
             availableSpeakers = cr.getRight();
+
+            // 全て使用できない間もバージョンの変化を検知できるように、取得できなかった場合は前回のバージョンを残す
+            if (cr.getMiddle() != null) {
+                availableVersion = cr.getMiddle();
+            }
+        }
+
+        dispatch();
+
+        // バージョンが変わると音声のハッシュが変わり、以前のキャッシュを使用しなくなるため温め直す
+        if (preVersion != null && cr.getMiddle() != null && !preVersion.equals(cr.getMiddle())) {
+            getITTSLogger().info("{} version changed: {} -> {}", manager.getName(), preVersion, cr.getMiddle());
+            getCacheManager().getCacheWarmer().warm();
+        }
+
+        // 後から開始した確認がある場合は、そちらが次の確認を予定する
+        if (checkNumber != checkCount.get()) {
+            return;
         }
 
         getImmortalityTimer().schedule(new ImmortalityTimer.ImmortalityTimerTask() {
@@ -107,12 +241,12 @@ public class VoicevoxBalancer implements ITTSRuntimeUse {
         }, manager.getConfig().getCheckTime());
     }
 
-    private Pair<List<VVURL>, List<VoicevoxSpeaker>> checkAndGet() {
-        List<Pair<VVURL, CompletableFuture<List<VoicevoxSpeaker>>>> urls = enginUrls.get().stream()
+    private Triple<List<VVURL>, String, List<VoicevoxSpeaker>> checkAndGet() {
+        List<Pair<VVURL, CompletableFuture<Pair<String, List<VoicevoxSpeaker>>>>> urls = enginUrls.get().stream()
                 .map(VVURL::new)
                 .map(n -> Pair.of(n, CompletableFuture.supplyAsync(() -> {
                     try {
-                        return manager.requestSpeakers(n);
+                        return checkSpeakers(n);
                     } catch (IOException | InterruptedException e) {
                         throw new RuntimeException(e);
                     }
@@ -120,14 +254,14 @@ public class VoicevoxBalancer implements ITTSRuntimeUse {
                 .toList();
 
         List<VVURL> rurls = new ArrayList<>();
-        List<VoicevoxSpeaker> rspeakers = null;
+        Pair<String, List<VoicevoxSpeaker>> rspeakers = null;
 
-        for (Pair<VVURL, CompletableFuture<List<VoicevoxSpeaker>>> ret : urls) {
+        for (Pair<VVURL, CompletableFuture<Pair<String, List<VoicevoxSpeaker>>>> ret : urls) {
             VVURL vu = ret.getLeft();
-            CompletableFuture<List<VoicevoxSpeaker>> cf = ret.getRight();
+            CompletableFuture<Pair<String, List<VoicevoxSpeaker>>> cf = ret.getRight();
 
             try {
-                List<VoicevoxSpeaker> r = cf.get();
+                Pair<String, List<VoicevoxSpeaker>> r = cf.get();
 
                 if (rspeakers == null) {
                     rspeakers = r;
@@ -147,7 +281,100 @@ public class VoicevoxBalancer implements ITTSRuntimeUse {
 
         }
 
-        return Pair.of(rurls, rspeakers);
+        if (rspeakers == null) {
+            return Triple.of(rurls, null, null);
+        }
+
+        return Triple.of(rurls, rspeakers.getLeft(), rspeakers.getRight());
+    }
+
+    /**
+     * エンジンが生きているか確認し、話者を取得する<br/>
+     * バージョンが前回の確認から変わっていない場合は、話者一覧を取得せずに前回の話者を使用する
+     *
+     * @param vvurl URL
+     * @return バージョンと話者のリスト
+     * @throws IOException          IO例外
+     * @throws InterruptedException 割り込み例外
+     */
+    private Pair<String, List<VoicevoxSpeaker>> checkSpeakers(VVURL vvurl) throws IOException, InterruptedException {
+        String version;
+
+        try {
+            version = manager.requestVersion(vvurl);
+        } catch (IOException | InterruptedException e) {
+            recordFailure(vvurl, getCircuitBreaker(vvurl));
+            throw e;
+        }
+
+        Pair<String, List<VoicevoxSpeaker>> checked = checkedSpeakers.get(vvurl);
+        List<VoicevoxSpeaker> speakers;
+
+        if (version != null && checked != null && version.equals(checked.getLeft())) {
+            speakers = checked.getRight();
+        } else {
+            speakers = manager.requestSpeakers(vvurl);
+            checkedSpeakers.put(vvurl, Pair.of(version, speakers));
+
+            if (checked != null && (!Objects.equals(version, checked.getLeft()) || !speakers.equals(checked.getRight()))) {
+                getITTSLogger().info("{} speakers changed: {}", manager.getName(), vvurl.url());
+
+                // 以前のエンジンで作成したクエリを使用しないように破棄する
+                manager.getQueryCache().clear();
+            }
+        }
+
+        recordSuccess(vvurl, getCircuitBreaker(vvurl));
+
+        return Pair.of(version, speakers);
+    }
+
+    private void recordSuccess(VVURL vvurl, VVURLCircuitBreaker circuitBreaker) {
+        if (circuitBreaker.recordSuccess()) {
+            getITTSLogger().info("Recovered {} URL: {}", manager.getName(), vvurl.url());
+            dispatch();
+        }
+    }
+
+    private void recordFailure(VVURL vvurl, VVURLCircuitBreaker circuitBreaker) {
+        if (circuitBreaker.recordFailure()) {
+            getITTSLogger().warn("Circuit opened for {} URL: {}", manager.getName(), vvurl.url());
+        }
+
+        scheduleProbe(vvurl, circuitBreaker);
+    }
+
+    /**
+     * 遮断中のURLが復旧したかどうかを、一定時間後にバージョンの取得で確認する
+     *
+     * @param vvurl          URL
+     * @param circuitBreaker サーキットブレーカー
+     */
+    private void scheduleProbe(VVURL vvurl, VVURLCircuitBreaker circuitBreaker) {
+        if (circuitBreaker.isClosed() || !scheduledProbes.add(vvurl)) {
+            return;
+        }
+
+        getImmortalityTimer().schedule(new ImmortalityTimer.ImmortalityTimerTask() {
+            @Override
+            public void run() {
+                CompletableFuture.runAsync(() -> {
+                    scheduledProbes.remove(vvurl);
+
+                    if (!circuitBreaker.tryAcquireTrial()) {
+                        scheduleProbe(vvurl, circuitBreaker);
+                        return;
+                    }
+
+                    try {
+                        manager.requestVersion(vvurl);
+                        recordSuccess(vvurl, circuitBreaker);
+                    } catch (IOException | InterruptedException e) {
+                        recordFailure(vvurl, circuitBreaker);
+                    }
+                }, getAsyncExecutor());
+            }
+        }, circuitBreaker.getOpenDuration());
     }
 
     public boolean isAvailable() {
@@ -155,30 +382,263 @@ public class VoicevoxBalancer implements ITTSRuntimeUse {
     }
 
     /**
-     * URLの使用インターフェイスを取得
+     * URLの使用インターフェイスを取得<br/>
+     * 全てのURLが同時リクエスト数の上限に達している場合は、空くまで待機する
      *
+     * @param guildId リクエストを行うサーバーID
      * @return URLの使用インターフェイス
+     * @throws InterruptedException 割り込み例外
      */
-    protected VoicevoxUseURL getUseURL() {
-        if (availableUrls == null || availableUrls.isEmpty()) {
+    protected VoicevoxUseURL getUseURL(long guildId) throws InterruptedException {
+        List<VVURL> urls = availableUrls;
+
+        if (urls == null || urls.isEmpty()) {
             throw new RuntimeException("No URL available.");
         }
 
-        VVURL vvurl = availableUrls.stream()
-                .min(Comparator.comparingInt(r -> getUseCounter(r).get()))
-                .get();
+        VoicevoxRequestQueue.Waiter waiter;
+
+        synchronized (requestQueue) {
+            List<VVURL> closedUrls = urls.stream()
+                    .filter(r -> getCircuitBreaker(r).isClosed())
+                    .toList();
+
+            if (closedUrls.isEmpty()) {
+                // 全て遮断中の場合は、試しにリクエストを通せるURLを使用する
+                VVURL vvurl = urls.stream()
+                        .filter(r -> getCircuitBreaker(r).tryAcquireTrial())
+                        .findFirst()
+                        .orElseThrow(() -> new RuntimeException("No URL available."));
+
+                return createUseURL(vvurl);
+            }
+
+            // 待機中のリクエストがある場合は、順番を守るために後ろに並ぶ
+            List<VVURL> freeUrls = requestQueue.size() == 0 ? getFreeURLs(closedUrls) : List.of();
+
+            if (!freeUrls.isEmpty()) {
+                return createUseURL(selectURL(freeUrls));
+            }
+
+            waiter = requestQueue.add(guildId);
+        }
+
+        return awaitUseURL(waiter);
+    }
+
+    private VoicevoxUseURL awaitUseURL(VoicevoxRequestQueue.Waiter waiter) throws InterruptedException {
+        try {
+            return waiter.future().get(QUEUE_TIMEOUT, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | InterruptedException e) {
+            synchronized (requestQueue) {
+                if (!requestQueue.remove(waiter)) {
+                    // 待機をやめる前に割り当てられていた場合は、使用せずに返す
+                    VoicevoxUseURL useURL = waiter.future().join();
+                    useURL.markCancelled();
+                    useURL.close();
+                }
+            }
+
+            if (e instanceof InterruptedException interruptedException) {
+                throw interruptedException;
+            }
+
+            throw new RuntimeException("Timed out waiting for an available URL.", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * 待機中のリクエストに空いているURLを割り当てる
+     */
+    private void dispatch() {
+        List<VVURL> urls = availableUrls;
+
+        if (urls == null) {
+            return;
+        }
+
+        synchronized (requestQueue) {
+            while (requestQueue.size() > 0) {
+                List<VVURL> freeUrls = getFreeURLs(urls.stream()
+                        .filter(r -> getCircuitBreaker(r).isClosed())
+                        .toList());
+
+                if (freeUrls.isEmpty()) {
+                    return;
+                }
+
+                VoicevoxRequestQueue.Waiter waiter = requestQueue.poll();
+                waiter.future().complete(createUseURL(selectURL(freeUrls)));
+            }
+        }
+    }
+
+    /**
+     * 同時リクエスト数の上限に達していないURLを取得
+     *
+     * @param urls URL
+     * @return 上限に達していないURL
+     */
+    private List<VVURL> getFreeURLs(List<VVURL> urls) {
+        int maxLimit = manager.getConfig().getMaxConcurrentRequests();
+        boolean adaptive = manager.getConfig().isAdaptiveConcurrency();
+
+        return urls.stream()
+                .filter(r -> getStats(r).getInFlight() < getConcurrencyLimit(r).getLimit(maxLimit, adaptive))
+                .toList();
+    }
+
+    /**
+     * ヘッジリクエスト用に、指定したURL以外のURLの使用インターフェイスを取得<br/>
+     * 待機中のリクエストがある場合や、同時リクエスト数の上限に達している場合は使用しない
+     *
+     * @param exclude 除外するURL
+     * @return URLの使用インターフェイス、使用できるURLがない場合はnull
+     */
+    protected VoicevoxUseURL getHedgeUseURL(VVURL exclude) {
+        List<VVURL> urls = availableUrls;
+
+        if (urls == null) {
+            return null;
+        }
+
+        synchronized (requestQueue) {
+            if (requestQueue.size() > 0) {
+                return null;
+            }
+
+            List<VVURL> freeUrls = getFreeURLs(urls.stream()
+                    .filter(r -> !r.equals(exclude) && getCircuitBreaker(r).isClosed())
+                    .toList());
+
+            if (freeUrls.isEmpty()) {
+                return null;
+            }
 
-        getUseCounter(vvurl).incrementAndGet();
+            return createUseURL(selectURL(freeUrls));
+        }
+    }
+
+    private VoicevoxUseURL createUseURL(VVURL vvurl) {
+        VVURLStats stats = getStats(vvurl);
+        VVURLCircuitBreaker circuitBreaker = getCircuitBreaker(vvurl);
+        VVURLConcurrencyLimit concurrencyLimit = getConcurrencyLimit(vvurl);
+        long startTime = System.nanoTime();
+        AtomicBoolean success = new AtomicBoolean();
+        AtomicBoolean rejected = new AtomicBoolean();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        AtomicBoolean closed = new AtomicBoolean();
+
+        stats.begin();
         return new VoicevoxUseURL() {
             @Override
             public VVURL getVVURL() {
                 return vvurl;
             }
 
+            @Override
+            public void markSuccess() {
+                success.set(true);
+            }
+
+            @Override
+            public void markRejected() {
+                rejected.set(true);
+            }
+
+            @Override
+            public void markCancelled() {
+                cancelled.set(true);
+            }
+
             @Override
             public void close() {
-                getUseCounter(vvurl).decrementAndGet();
+                if (!closed.compareAndSet(false, true)) {
+                    return;
+                }
+
+                if (cancelled.get() && !success.get()) {
+                    stats.cancel();
+                    dispatch();
+                    return;
+                }
+
+                // 拒否された場合はすぐに返されるため、応答時間と同時リクエスト数の上限には反映しない
+                if (rejected.get() && !success.get()) {
+                    stats.reject();
+                    recordSuccess(vvurl, circuitBreaker);
+                    dispatch();
+                    return;
+                }
+
+                double elapsed = (System.nanoTime() - startTime) / 1_000_000d;
+                concurrencyLimit.update(manager.getConfig().getMaxConcurrentRequests(), success.get(), elapsed, stats.getLatency());
+                stats.end(elapsed, success.get());
+
+                if (success.get()) {
+                    recordSuccess(vvurl, circuitBreaker);
+                } else {
+                    recordFailure(vvurl, circuitBreaker);
+                }
+
+                dispatch();
             }
         };
     }
+
+    /**
+     * 完了までの予想時間が短いURLを選ぶ<br/>
+     * URLが多い場合は、全てのURLを比べると同じURLに集中しやすいため、ランダムに選んだ2つのURLから選ぶ
+     *
+     * @param urls 使用可能なURL
+     * @return URL
+     */
+    private VVURL selectURL(List<VVURL> urls) {
+        if (urls.size() == 1) {
+            return urls.get(0);
+        }
+
+        Map<String, Double> weights = manager.getConfig().getApiUrlWeights();
+        double defaultLatency = getDefaultLatency(urls);
+
+        if (urls.size() <= 2) {
+            return urls.stream()
+                    .min(Comparator.comparingDouble(r -> getExpectedCost(r, weights, defaultLatency)))
+                    .get();
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(urls.size());
+        int second = (first + 1 + random.nextInt(urls.size() - 1)) % urls.size();
+        VVURL firstUrl = urls.get(first);
+        VVURL secondUrl = urls.get(second);
+
+        if (getExpectedCost(firstUrl, weights, defaultLatency) <= getExpectedCost(secondUrl, weights, defaultLatency)) {
+            return firstUrl;
+        }
+
+        return secondUrl;
+    }
+
+    private double getExpectedCost(VVURL vvurl, Map<String, Double> weights, double defaultLatency) {
+        double weight = weights.getOrDefault(vvurl.url(), VoicevoxConfig.DEFAULT_API_URL_WEIGHT);
+        return getStats(vvurl).getExpectedCost(Math.max(weight, MIN_WEIGHT), defaultLatency);
+    }
+
+    /**
+     * 未計測のURLに使用する応答時間を求める<br/>
+     * 計測済みのURLの平均を使用し、全て未計測の場合は既定値を使用する
+     *
+     * @param urls URL
+     * @return 応答時間(ms)
+     */
+    private double getDefaultLatency(List<VVURL> urls) {
+        return urls.stream()
+                .mapToDouble(r -> getStats(r).getLatency())
+                .filter(r -> !Double.isNaN(r))
+                .average()
+                .orElse(DEFAULT_LATENCY);
+    }
 }
@@ -6,6 +6,7 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import dev.felnull.itts.core.ITTSRuntime;
+import dev.felnull.itts.core.config.Config;
 import dev.felnull.itts.core.config.voicetype.VoicevoxConfig;
 import dev.felnull.itts.core.voice.VoiceType;
 
@@ -20,6 +21,11 @@ import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
 /**
@@ -34,6 +40,16 @@ public class VoicevoxManager {
      */
     private static final Gson GSON = new Gson();
 
+    /**
+     * 保持する音声合成の応答時間の数
+     */
+    private static final int LATENCY_WINDOW_SIZE = 128;
+
+    /**
+     * ヘッジリクエストを送るために必要な応答時間の記録の数
+     */
+    private static final int MIN_LATENCY_SAMPLES = 20;
+
     /**
      * VOICEVOX系の声カテゴリ
      */
@@ -54,6 +70,16 @@ public class VoicevoxManager {
      */
     private final Supplier<VoicevoxConfig> configSupplier;
 
+    /**
+     * 音声合成用クエリのキャッシュ
+     */
+    private final VoicevoxQueryCache queryCache;
+
+    /**
+     * 直近の音声合成の応答時間
+     */
+    private final LatencyWindow synthesisLatency = new LatencyWindow(LATENCY_WINDOW_SIZE, MIN_LATENCY_SAMPLES);
+
     /**
      * コンストラクタ
      *
@@ -65,6 +91,7 @@ public class VoicevoxManager {
         this.name = name;
         this.configSupplier = configSupplier;
         this.balancer = new VoicevoxBalancer(this, enginUrls);
+        this.queryCache = new VoicevoxQueryCache(() -> getConfig().getQueryCacheSize());
     }
 
     protected VoicevoxConfig getConfig() {
@@ -102,6 +129,14 @@ public class VoicevoxManager {
         return balancer;
     }
 
+    public VoicevoxQueryCache getQueryCache() {
+        return queryCache;
+    }
+
+    public VoicevoxRequestQueue getRequestQueue() {
+        return balancer.getRequestQueue();
+    }
+
     /**
      * エンジンのURLから話者一覧を取得
      *
@@ -131,20 +166,67 @@ public class VoicevoxManager {
         return speakerBuilder.build();
     }
 
-    private JsonObject getQuery(String text, int speakerId) {
-        text = URLEncoder.encode(text, StandardCharsets.UTF_8);
+    /**
+     * エンジンのURLからバージョンを取得<br/>
+     * 話者一覧の取得より軽いため、エンジンが生きているかの確認に使用する
+     *
+     * @param vvurl VOICEVOXのURL
+     * @return バージョン、エンジンがバージョンの取得に対応していない場合はnull
+     * @throws IOException          IO例外
+     * @throws InterruptedException 割り込み例外
+     */
+    protected String requestVersion(VVURL vvurl) throws IOException, InterruptedException {
+        HttpClient hc = ITTSRuntime.getInstance().getNetworkManager().getHttpClient();
+        HttpRequest req = HttpRequest.newBuilder(vvurl.createURI("version"))
+                .timeout(Duration.of(3000, ChronoUnit.MILLIS))
+                .build();
+        HttpResponse<String> rep = hc.send(req, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+
+        if (rep.statusCode() == 404) {
+            return null;
+        }
+
+        if (rep.statusCode() != 200) {
+            throw new IOException("Failed to get version: " + rep.statusCode());
+        }
+
+        return rep.body().strip();
+    }
+
+    private String getQuery(String text, int speakerId, long guildId) {
+        long generation = queryCache.getGeneration();
+        String cached = queryCache.get(text, speakerId);
 
-        try (var urlUse = balancer.getUseURL()) {
+        if (cached != null) {
+            return cached;
+        }
+
+        String encodedText = URLEncoder.encode(text, StandardCharsets.UTF_8);
+
+        try (var urlUse = balancer.getUseURL(guildId)) {
             HttpClient hc = ITTSRuntime.getInstance().getNetworkManager().getHttpClient();
-            HttpRequest req = HttpRequest.newBuilder(urlUse.getVVURL().createURI(String.format("audio_query?text=%s&speaker=%d", text, speakerId)))
+            HttpRequest req = HttpRequest.newBuilder(urlUse.getVVURL().createURI(String.format("audio_query?text=%s&speaker=%d", encodedText, speakerId)))
                     .POST(HttpRequest.BodyPublishers.noBody())
                     .timeout(Duration.of(10, ChronoUnit.SECONDS))
                     .build();
-            HttpResponse<InputStream> rep = hc.send(req, HttpResponse.BodyHandlers.ofInputStream());
+            HttpResponse<String> rep = hc.send(req, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
 
-            try (InputStream stream = new BufferedInputStream(rep.body()); Reader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
-                return GSON.fromJson(reader, JsonObject.class);
+            // エンジンが応答した場合は、テキストの問題などで失敗してもエンジンの異常としては扱わない
+            if (rep.statusCode() == 200) {
+                urlUse.markSuccess();
+            } else if (rep.statusCode() < 500) {
+                urlUse.markRejected();
             }
+
+            if (rep.statusCode() != 200) {
+                throw new IOException("Failed to create query: " + rep.statusCode());
+            }
+
+            // 空白などの違いをなくすために一度読み込む
+            String query = GSON.toJson(GSON.fromJson(rep.body(), JsonObject.class));
+            queryCache.put(text, speakerId, query, generation);
+
+            return query;
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -155,37 +237,186 @@ public class VoicevoxManager {
      *
      * @param text      読み上げるテキスト
      * @param speakerId 話者ID
+     * @param guildId   読み上げを行うサーバーID
      * @return 音声データのストリーム
      * @throws IOException          IO例外
      * @throws InterruptedException 割り込み例外
      */
-    protected InputStream openVoiceStream(String text, int speakerId) throws IOException, InterruptedException {
-        JsonObject qry = getQuery(text, speakerId);
-        try (var urlUse = balancer.getUseURL()) {
-            HttpClient hc = ITTSRuntime.getInstance().getNetworkManager().getHttpClient();
-            HttpRequest request = HttpRequest.newBuilder(urlUse.getVVURL().createURI(String.format("synthesis?speaker=%d", speakerId)))
-                    .timeout(Duration.of(10, ChronoUnit.SECONDS))
-                    .header("Content-Type", "application/json")
-                    .POST(HttpRequest.BodyPublishers.ofString(GSON.toJson(qry)))
-                    .build();
+    protected InputStream openVoiceStream(String text, int speakerId, long guildId) throws IOException, InterruptedException {
+        String qry = getQuery(text, speakerId, guildId);
+        HedgeBudget hedgeBudget = ITTSRuntime.getInstance().getVoiceManager().getHedgeBudget();
+        hedgeBudget.onRequest();
 
-            HttpResponse<InputStream> res = hc.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        SynthesisRequest primary = requestSynthesis(balancer.getUseURL(guildId), qry, speakerId);
+        long hedgeDelay = getHedgeDelay();
 
-            Optional<String> content = res.headers().firstValue("content-type");
-            int code = res.statusCode();
+        if (hedgeDelay >= 0) {
+            try {
+                return primary.result().get(hedgeDelay, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // 応答が遅い場合はヘッジリクエストを送る
+                SynthesisRequest hedge = requestHedge(primary, hedgeBudget, qry, speakerId);
 
-            if (content.isEmpty()) {
-                throw new IOException("Content Type does not exist: " + code);
+                if (hedge != null) {
+                    return await(firstSuccess(primary, hedge, hedgeBudget));
+                }
+            } catch (ExecutionException e) {
+                throw new RuntimeException(e.getCause());
             }
+        }
+
+        return await(primary.result());
+    }
+
+    private long getHedgeDelay() {
+        Config config = ITTSRuntime.getInstance().getConfigManager().getConfig();
+
+        if (!config.isHedgedRequests()) {
+            return -1;
+        }
+
+        return (long) synthesisLatency.getPercentile(config.getHedgePercentile());
+    }
 
+    private SynthesisRequest requestHedge(SynthesisRequest primary, HedgeBudget hedgeBudget, String qry, int speakerId) {
+        VoicevoxUseURL hedgeUrlUse = balancer.getHedgeUseURL(primary.vvurl());
 
-            if (content.get().startsWith("audio/")) {
-                return res.body();
+        if (hedgeUrlUse == null) {
+            return null;
+        }
+
+        if (!hedgeBudget.tryAcquire()) {
+            hedgeUrlUse.markCancelled();
+            hedgeUrlUse.close();
+            return null;
+        }
+
+        return requestSynthesis(hedgeUrlUse, qry, speakerId);
+    }
+
+    private static InputStream await(CompletableFuture<InputStream> result) throws InterruptedException {
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * 先に成功した方の応答を使用し、もう一方はキャンセルする
+     *
+     * @param primary     最初のリクエスト
+     * @param hedge       ヘッジリクエスト
+     * @param hedgeBudget ヘッジリクエストの予算
+     * @return 音声データのストリームのCompletableFuture
+     */
+    private static CompletableFuture<InputStream> firstSuccess(SynthesisRequest primary, SynthesisRequest hedge, HedgeBudget hedgeBudget) {
+        CompletableFuture<InputStream> ret = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+
+        for (SynthesisRequest request : List.of(primary, hedge)) {
+            request.result().whenComplete((stream, throwable) -> {
+                if (throwable != null) {
+                    if (failures.incrementAndGet() == 2) {
+                        ret.completeExceptionally(throwable);
+                    }
+                    return;
+                }
+
+                if (!ret.complete(stream)) {
+                    closeQuietly(stream);
+                    return;
+                }
+
+                if (request == hedge) {
+                    hedgeBudget.onHedgeWin();
+                }
+
+                primary.response().cancel(true);
+                hedge.response().cancel(true);
+            });
+        }
+
+        return ret;
+    }
+
+    private static void closeQuietly(InputStream stream) {
+        try {
+            stream.close();
+        } catch (IOException ignored) {
+            // 使用しないストリームのため無視
+        }
+    }
+
+    /**
+     * 音声合成のリクエストを送る
+     *
+     * @param urlUse    URLの使用インターフェイス
+     * @param qry       クエリ
+     * @param speakerId 話者ID
+     * @return 音声合成のリクエスト
+     */
+    private SynthesisRequest requestSynthesis(VoicevoxUseURL urlUse, String qry, int speakerId) {
+        HttpClient hc = ITTSRuntime.getInstance().getNetworkManager().getHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(urlUse.getVVURL().createURI(String.format("synthesis?speaker=%d", speakerId)))
+                .timeout(Duration.of(10, ChronoUnit.SECONDS))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(qry))
+                .build();
+
+        long startTime = System.nanoTime();
+        CompletableFuture<HttpResponse<InputStream>> response = hc.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream());
+
+        CompletableFuture<InputStream> result = response.handle((res, throwable) -> {
+            try (urlUse) {
+                if (throwable != null) {
+                    if (response.isCancelled()) {
+                        urlUse.markCancelled();
+                    }
+
+                    throw new CompletionException(throwable);
+                }
+
+                return getAudioStream(urlUse, res, startTime);
             }
+        });
 
-            throw new IOException("Not audio data: " + code);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
+        return new SynthesisRequest(urlUse.getVVURL(), response, result);
+    }
+
+    private InputStream getAudioStream(VoicevoxUseURL urlUse, HttpResponse<InputStream> res, long startTime) {
+        Optional<String> content = res.headers().firstValue("content-type");
+        int code = res.statusCode();
+
+        if (code >= 200 && code < 300) {
+            urlUse.markSuccess();
+        } else if (code < 500) {
+            urlUse.markRejected();
+        }
+
+        if (content.isPresent() && content.get().startsWith("audio/")) {
+            synthesisLatency.record((System.nanoTime() - startTime) / 1_000_000d);
+            return res.body();
+        }
+
+        closeQuietly(res.body());
+
+        if (content.isEmpty()) {
+            throw new CompletionException(new IOException("Content Type does not exist: " + code));
         }
+
+        throw new CompletionException(new IOException("Not audio data: " + code));
+    }
+
+    /**
+     * 音声合成のリクエスト
+     *
+     * @param vvurl    送信先のURL
+     * @param response 応答のCompletableFuture
+     * @param result   音声データのストリームのCompletableFuture
+     * @author MORIMORI0317
+     */
+    private record SynthesisRequest(VVURL vvurl, CompletableFuture<HttpResponse<InputStream>> response,
+                                    CompletableFuture<InputStream> result) {
     }
 }
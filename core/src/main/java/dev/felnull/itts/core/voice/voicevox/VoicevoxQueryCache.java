@@ -0,0 +1,123 @@
+package dev.felnull.itts.core.voice.voicevox;
+
+import dev.felnull.itts.core.cache.LruCache;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * VOICEVOX系エンジンの音声合成用クエリのキャッシュ<br/>
+ * クエリの作成はアクセント句の解析を行うため、同じテキストと話者の場合は再利用してエンジンへの問い合わせを減らす<br/>
+ * 合計サイズが上限を超えた場合は、最後に使用されてから最も時間が経っているものから破棄する<br/>
+ * クエリはエンジンのバージョンや話者によって変わるため、エンジンのバージョンもしくは話者が変わった場合は全て破棄する
+ *
+ * @author MORIMORI0317
+ */
+public class VoicevoxQueryCache {
+
+    /**
+     * 1エントリあたりの管理用の大きさの目安
+     */
+    private static final long ENTRY_OVERHEAD = 64L;
+
+    /**
+     * キャッシュ
+     */
+    private final LruCache<Key, String> cache;
+
+    /**
+     * 最大サイズの取得
+     */
+    private final LongSupplier maxSize;
+
+    /**
+     * 全て破棄した回数<br/>
+     * 破棄する前に問い合わせを開始したクエリを保存しないために使用する
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * コンストラクタ
+     *
+     * @param maxSize 最大サイズの取得
+     */
+    public VoicevoxQueryCache(@NotNull LongSupplier maxSize) {
+        this.maxSize = maxSize;
+        this.cache = new LruCache<>(maxSize, Key::getSize);
+    }
+
+    /**
+     * キャッシュを取得する
+     *
+     * @param text      テキスト
+     * @param speakerId 話者ID
+     * @return クエリのJson文字列、存在しなければnull
+     */
+    @Nullable
+    public String get(@NotNull String text, int speakerId) {
+        if (maxSize.getAsLong() <= 0) {
+            return null;
+        }
+
+        return cache.get(new Key(text, speakerId));
+    }
+
+    /**
+     * キャッシュに保存する<br/>
+     * 上限を超えた場合は古いものから破棄する<br/>
+     * 問い合わせを開始してから全て破棄された場合は、古いエンジンのクエリの可能性があるため保存しない
+     *
+     * @param text       テキスト
+     * @param speakerId  話者ID
+     * @param query      クエリのJson文字列
+     * @param generation 問い合わせを開始した時点の{@link #getGeneration()}
+     */
+    public void put(@NotNull String text, int speakerId, @NotNull String query, long generation) {
+        cache.put(new Key(text, speakerId), query, () -> generation == this.generation.get());
+    }
+
+    /**
+     * 全てのキャッシュを破棄する
+     */
+    public void clear() {
+        generation.incrementAndGet();
+        cache.clear();
+    }
+
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    public long getHitCount() {
+        return cache.getHitCount();
+    }
+
+    public long getMissCount() {
+        return cache.getMissCount();
+    }
+
+    /**
+     * キャッシュの数を取得
+     *
+     * @return キャッシュの数
+     */
+    public int getEntryCount() {
+        return cache.getEntryCount();
+    }
+
+    /**
+     * キャッシュのキー
+     *
+     * @param text      テキスト
+     * @param speakerId 話者ID
+     * @author MORIMORI0317
+     */
+    private record Key(String text, int speakerId) {
+
+        private long getSize(String query) {
+            return (text.length() + query.length()) * 2L + ENTRY_OVERHEAD;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package dev.felnull.itts.core.voice.voicevox;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * VOICEVOX系エンジンの空きを待つリクエストの待ち行列<br/>
+ * サーバーごとに列を分けて順番に取り出すため、1つのサーバーが大量にリクエストしても他のサーバーのリクエストが待たされ続けることはない
+ *
+ * @author MORIMORI0317
+ */
+public class VoicevoxRequestQueue {
+
+    /**
+     * 待機時間の指数移動平均の平滑化係数
+     */
+    private static final double ALPHA = 0.2d;
+
+    /**
+     * サーバーごとの待機中のリクエスト (次に取り出すサーバー順)
+     */
+    private final Map<Long, Deque<Waiter>> waiters = new LinkedHashMap<>();
+
+    /**
+     * 待機中のリクエスト数
+     */
+    private int size;
+
+    /**
+     * 待機時間の指数移動平均(ms)
+     */
+    private double averageWaitTime;
+
+    /**
+     * 待機中のリクエストを追加する
+     *
+     * @param guildId サーバーID
+     * @return 待機中のリクエスト
+     */
+    public synchronized Waiter add(long guildId) {
+        Waiter waiter = new Waiter(guildId, System.nanoTime(), new CompletableFuture<>());
+        waiters.computeIfAbsent(guildId, k -> new ArrayDeque<>()).add(waiter);
+        size++;
+
+        return waiter;
+    }
+
+    /**
+     * 待機中のリクエストを取り除く
+     *
+     * @param waiter 待機中のリクエスト
+     * @return 取り除いたかどうか、既に取り出されていた場合はfalse
+     */
+    public synchronized boolean remove(Waiter waiter) {
+        Deque<Waiter> queue = waiters.get(waiter.guildId());
+
+        if (queue == null || !queue.remove(waiter)) {
+            return false;
+        }
+
+        if (queue.isEmpty()) {
+            waiters.remove(waiter.guildId());
+        }
+
+        size--;
+        return true;
+    }
+
+    /**
+     * 次のサーバーの先頭のリクエストを取り出す<br/>
+     * 取り出したサーバーにまだリクエストが残っている場合は、そのサーバーを最後尾に回す
+     *
+     * @return 待機中のリクエスト、存在しなければnull
+     */
+    @Nullable
+    public synchronized Waiter poll() {
+        Iterator<Map.Entry<Long, Deque<Waiter>>> iterator = waiters.entrySet().iterator();
+
+        if (!iterator.hasNext()) {
+            return null;
+        }
+
+        Map.Entry<Long, Deque<Waiter>> entry = iterator.next();
+        Deque<Waiter> queue = entry.getValue();
+        Waiter waiter = queue.poll();
+        iterator.remove();
+
+        if (!queue.isEmpty()) {
+            waiters.put(entry.getKey(), queue);
+        }
+
+        size--;
+
+        double waitTime = (System.nanoTime() - waiter.enqueueTime()) / 1_000_000d;
+        averageWaitTime += ALPHA * (waitTime - averageWaitTime);
+
+        return waiter;
+    }
+
+    /**
+     * 待機中のリクエスト数を取得
+     *
+     * @return 待機中のリクエスト数
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * 待機時間の指数移動平均を取得
+     *
+     * @return 待機時間(ms)
+     */
+    public synchronized double getAverageWaitTime() {
+        return averageWaitTime;
+    }
+
+    /**
+     * 待機中のリクエスト
+     *
+     * @param guildId     サーバーID
+     * @param enqueueTime 追加した時刻(ns)
+     * @param future      URLの使用インターフェイスを受け取るCompletableFuture
+     * @author MORIMORI0317
+     */
+    public record Waiter(long guildId, long enqueueTime, CompletableFuture<VoicevoxUseURL> future) {
+    }
+}
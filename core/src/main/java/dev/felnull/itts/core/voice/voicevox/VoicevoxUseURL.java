@@ -13,4 +13,25 @@ public interface VoicevoxUseURL extends AutoCloseable {
      * @return VOICEVOXエンジンのURL
      */
     VVURL getVVURL();
+
+    /**
+     * リクエストが成功したことを記録する<br/>
+     * 記録せずに閉じた場合は失敗として扱う
+     */
+    void markSuccess();
+
+    /**
+     * エンジンが応答したが、テキストの問題などでリクエストが拒否されたことを記録する<br/>
+     * エンジンの異常としては扱わないが、すぐに返される応答のため応答時間には反映しない
+     */
+    void markRejected();
+
+    /**
+     * リクエストがキャンセルされたことを記録する<br/>
+     * キャンセルされたリクエストは成功と失敗のどちらとしても扱わない
+     */
+    void markCancelled();
+
+    @Override
+    void close();
 }
@@ -36,12 +36,19 @@ public class VoicevoxVoice extends CachedVoice {
     }
 
     @Override
-    protected InputStream openVoiceStream(String text) throws IOException, InterruptedException {
-        return this.manager.openVoiceStream(text, speaker.styles().get(0).id());
+    protected InputStream openVoiceStream(String text, long guildId) throws IOException, InterruptedException {
+        return this.manager.openVoiceStream(text, speaker.styles().get(0).id(), guildId);
     }
 
     @Override
     protected String createHashCodeChars() {
-        return this.speaker.uuid().toString();
+        // エンジンが更新された場合に以前の音声を使用しないように、バージョンを含める
+        String version = this.manager.getBalancer().getAvailableVersion();
+
+        if (version == null) {
+            return this.speaker.uuid().toString();
+        }
+
+        return this.speaker.uuid() + "/" + version;
     }
 }
@@ -1,5 +1,6 @@
 package dev.felnull.itts;
 
+import dev.felnull.itts.cache.RedisGlobalCache;
 import dev.felnull.itts.config.SelfHostConfigManager;
 import dev.felnull.itts.core.ITTSRuntimeContext;
 import dev.felnull.itts.core.cache.GlobalCacheAccess;
@@ -11,6 +12,7 @@ import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.net.URI;
 import java.util.function.Supplier;
 
 /**
@@ -20,6 +22,16 @@ import java.util.function.Supplier;
  */
 public class SelfHostITTSRuntimeContext implements ITTSRuntimeContext {
 
+    /**
+     * 仮想スレッドを使用するかどうかを指定するシステムプロパティ
+     */
+    private static final String VIRTUAL_THREADS_PROPERTY = "itts.virtualThreads";
+
+    /**
+     * グローバルキャッシュに使用するRedisのURIを指定するシステムプロパティ
+     */
+    private static final String REDIS_PROPERTY = "itts.redis";
+
     /**
      * ログコンテキスト
      */
@@ -37,7 +49,13 @@ public class SelfHostITTSRuntimeContext implements ITTSRuntimeContext {
 
     @Override
     public @Nullable Supplier<GlobalCacheAccess> getGlobalCacheAccessFactory() {
-        return null;
+        String redisUri = System.getProperty(REDIS_PROPERTY);
+
+        if (redisUri == null || redisUri.isBlank()) {
+            return null;
+        }
+
+        return new RedisGlobalCache(URI.create(redisUri));
     }
 
     @Override
@@ -45,6 +63,11 @@ public class SelfHostITTSRuntimeContext implements ITTSRuntimeContext {
         return logContext;
     }
 
+    @Override
+    public boolean isVirtualThreads() {
+        return Boolean.getBoolean(VIRTUAL_THREADS_PROPERTY);
+    }
+
     /**
      * ログコンテキストの実装
      *
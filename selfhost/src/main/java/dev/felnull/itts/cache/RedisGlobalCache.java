@@ -0,0 +1,285 @@
+package dev.felnull.itts.cache;
+
+import com.google.common.hash.HashCode;
+import dev.felnull.itts.Main;
+import dev.felnull.itts.core.cache.GlobalCacheAccess;
+import org.jetbrains.annotations.NotNull;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.params.SetParams;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Redisを使用したグローバルキャッシュ<br/>
+ * 複数のBOTで音声データを共有し、同じ音声の合成をロックで1つのBOTにまとめる<br/>
+ * 大きな音声データは一定の大きさごとに分割して保存し、読み込むたびに有効期限を延長する
+ *
+ * @author MORIMORI0317
+ */
+public class RedisGlobalCache implements Supplier<GlobalCacheAccess>, AutoCloseable {
+
+    /**
+     * キャッシュの有効期限(ms)
+     */
+    static final long CACHE_TTL = 1000 * 60 * 10;
+
+    /**
+     * 分割して保存する大きさ
+     */
+    static final int CHUNK_SIZE = 512 * 1024;
+
+    /**
+     * キーの接頭辞
+     */
+    private static final String KEY_PREFIX = "itts:cache:";
+
+    /**
+     * ロックの有効期限(ms)<br/>
+     * ロックしたBOTが停止した場合でも、この期間が過ぎると他のBOTがロックできる
+     */
+    private static final long LOCK_LEASE = 1000 * 60;
+
+    /**
+     * ロックの再試行までの最短の待機時間(ms)
+     */
+    private static final long LOCK_RETRY_MIN_WAIT = 50;
+
+    /**
+     * ロックの再試行までの最長の待機時間(ms)
+     */
+    private static final long LOCK_RETRY_MAX_WAIT = 1000;
+
+    /**
+     * 自分が取得したロックの場合のみ解除するスクリプト
+     */
+    private static final String UNLOCK_SCRIPT = "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end";
+
+    /**
+     * 接続の最大数
+     */
+    private static final int MAX_CONNECTIONS = 32;
+
+    /**
+     * 接続のプール
+     */
+    private final JedisPool pool;
+
+    /**
+     * コンストラクタ
+     *
+     * @param uri RedisのURI (redis://ホスト:ポート)
+     */
+    public RedisGlobalCache(@NotNull URI uri) {
+        this(createPool(uri));
+    }
+
+    /**
+     * コンストラクタ
+     *
+     * @param pool 接続のプール
+     */
+    public RedisGlobalCache(@NotNull JedisPool pool) {
+        this.pool = pool;
+    }
+
+    private static JedisPool createPool(URI uri) {
+        JedisPoolConfig config = new JedisPoolConfig();
+        config.setMaxTotal(MAX_CONNECTIONS);
+        config.setMaxIdle(MAX_CONNECTIONS);
+        return new JedisPool(config, uri);
+    }
+
+    @Override
+    public GlobalCacheAccess get() {
+        return new Access();
+    }
+
+    static byte[] metaKey(HashCode hashCode) {
+        return (KEY_PREFIX + hashCode).getBytes(StandardCharsets.UTF_8);
+    }
+
+    static byte[] chunkKey(HashCode hashCode, int index) {
+        return (KEY_PREFIX + hashCode + ":" + index).getBytes(StandardCharsets.UTF_8);
+    }
+
+    static String lockKey(HashCode hashCode) {
+        return KEY_PREFIX + hashCode + ":lock";
+    }
+
+    @Override
+    public void close() {
+        pool.close();
+    }
+
+    /**
+     * グローバルキャッシュへのアクセス<br/>
+     * 1回の読み込みごとに作成され、閉じる時に解除されていないロックを解除する<br/>
+     * Redisに接続できない場合は、キャッシュが存在しないものとして扱い、ロックせずに処理を続ける
+     *
+     * @author MORIMORI0317
+     */
+    private final class Access implements GlobalCacheAccess {
+
+        /**
+         * ロックの所有者を識別するトークン
+         */
+        private final String token = UUID.randomUUID().toString();
+
+        /**
+         * 取得したロック
+         */
+        private final Set<HashCode> locks = new HashSet<>();
+
+        @Override
+        public byte[] get(@NotNull HashCode hashCode) {
+            try (Jedis jedis = pool.getResource()) {
+                byte[] meta = jedis.get(metaKey(hashCode));
+
+                if (meta == null) {
+                    return null;
+                }
+
+                String[] metaValues = new String(meta, StandardCharsets.US_ASCII).split(":");
+                int chunkCount = Integer.parseInt(metaValues[0]);
+                int length = Integer.parseInt(metaValues[1]);
+
+                // 全ての分割したデータの取得と、有効期限の延長をまとめて送る
+                Pipeline pipeline = jedis.pipelined();
+                List<Response<byte[]>> chunks = new ArrayList<>(chunkCount);
+
+                for (int i = 0; i < chunkCount; i++) {
+                    byte[] key = chunkKey(hashCode, i);
+                    chunks.add(pipeline.get(key));
+                    pipeline.pexpire(key, CACHE_TTL);
+                }
+
+                pipeline.pexpire(metaKey(hashCode), CACHE_TTL);
+                pipeline.sync();
+
+                byte[] data = new byte[length];
+                int pos = 0;
+
+                for (Response<byte[]> chunk : chunks) {
+                    byte[] chunkData = chunk.get();
+
+                    // 一部のデータが期限切れの場合
+                    if (chunkData == null || pos + chunkData.length > length) {
+                        return null;
+                    }
+
+                    System.arraycopy(chunkData, 0, data, pos, chunkData.length);
+                    pos += chunkData.length;
+                }
+
+                return pos == length ? data : null;
+            } catch (JedisException | NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                Main.runtime.getLogger().warn("Failed to get global cache", e);
+                return null;
+            }
+        }
+
+        /**
+         * キャッシュを保存<br/>
+         * 読み込み中に不完全なデータを返さないように、分割したデータを全て保存した後に分割数と大きさを保存する
+         *
+         * @param hashCode キーとしてのハッシュコード
+         * @param data     キャッシュデータ
+         */
+        @Override
+        public void set(@NotNull HashCode hashCode, byte[] data) {
+            int chunkCount = Math.max((data.length + CHUNK_SIZE - 1) / CHUNK_SIZE, 1);
+
+            try (Jedis jedis = pool.getResource()) {
+                Pipeline pipeline = jedis.pipelined();
+
+                for (int i = 0; i < chunkCount; i++) {
+                    int from = i * CHUNK_SIZE;
+                    int to = Math.min(from + CHUNK_SIZE, data.length);
+                    pipeline.psetex(chunkKey(hashCode, i), CACHE_TTL, Arrays.copyOfRange(data, from, to));
+                }
+
+                pipeline.sync();
+
+                jedis.psetex(metaKey(hashCode), CACHE_TTL, (chunkCount + ":" + data.length).getBytes(StandardCharsets.US_ASCII));
+            } catch (JedisException e) {
+                Main.runtime.getLogger().warn("Failed to set global cache", e);
+            }
+        }
+
+        /**
+         * 指定されたキャッシュをロックする<br/>
+         * 他のBOTがロックしている場合は、解除されるかロックの有効期限が切れるまで待機する
+         *
+         * @param hashCode キーとしてのハッシュコード
+         */
+        @Override
+        public void lock(@NotNull HashCode hashCode) {
+            String key = lockKey(hashCode);
+            SetParams params = SetParams.setParams().nx().px(LOCK_LEASE);
+            long deadline = System.currentTimeMillis() + LOCK_LEASE;
+            long wait = LOCK_RETRY_MIN_WAIT;
+
+            try {
+                while (true) {
+                    try (Jedis jedis = pool.getResource()) {
+                        if (jedis.set(key, token, params) != null) {
+                            locks.add(hashCode);
+                            return;
+                        }
+                    }
+
+                    if (System.currentTimeMillis() >= deadline) {
+                        Main.runtime.getLogger().warn("Timed out waiting for global cache lock, continuing without lock");
+                        return;
+                    }
+
+                    Thread.sleep(wait);
+                    wait = Math.min(wait * 2, LOCK_RETRY_MAX_WAIT);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (JedisException e) {
+                Main.runtime.getLogger().warn("Failed to lock global cache, continuing without lock", e);
+            }
+        }
+
+        /**
+         * 指定されたキャッシュのロックを解除する<br/>
+         * 有効期限が切れて他のBOTがロックしている場合は解除しない
+         *
+         * @param hashCode キーとしてのハッシュコード
+         */
+        @Override
+        public void unlock(@NotNull HashCode hashCode) {
+            if (!locks.remove(hashCode)) {
+                return;
+            }
+
+            try (Jedis jedis = pool.getResource()) {
+                jedis.eval(UNLOCK_SCRIPT, List.of(lockKey(hashCode)), List.of(token));
+            } catch (JedisException e) {
+                Main.runtime.getLogger().warn("Failed to unlock global cache", e);
+            }
+        }
+
+        @Override
+        public void close() {
+            for (HashCode hashCode : List.copyOf(locks)) {
+                unlock(hashCode);
+            }
+        }
+    }
+}
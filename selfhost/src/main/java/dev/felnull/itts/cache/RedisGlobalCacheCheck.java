@@ -0,0 +1,419 @@
+package dev.felnull.itts.cache;
+
+import com.google.common.hash.HashCode;
+import dev.felnull.itts.Main;
+import dev.felnull.itts.core.cache.GlobalCacheAccess;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Redisを使用したグローバルキャッシュの動作確認<br/>
+ * Redisの代わりに、使用するコマンドのみに対応した簡易的なサーバーをこのプロセス内で起動し、分割した保存、読み込み時の有効期限の延長、ロックの解除を確認する<br/>
+ * 失敗した場合は例外を投げて終了する
+ *
+ * @author MORIMORI0317
+ */
+public final class RedisGlobalCacheCheck {
+
+    private RedisGlobalCacheCheck() {
+    }
+
+    /**
+     * 動作確認を行う
+     *
+     * @param args 引数
+     * @throws Exception 動作確認に失敗した場合
+     */
+    public static void main(String[] args) throws Exception {
+        try (RespServer server = new RespServer(); JedisPool pool = new JedisPool("127.0.0.1", server.getPort())) {
+            RedisGlobalCache globalCache = new RedisGlobalCache(pool);
+
+            checkChunks(globalCache, pool);
+            checkTtlRefresh(globalCache, pool);
+            checkLockWait(globalCache);
+            checkExpiredLockUnlock(globalCache, pool);
+            checkCloseUnlock(globalCache, pool);
+
+            Main.LOGGER.info("All global cache checks passed");
+        }
+    }
+
+    private static void checkChunks(RedisGlobalCache globalCache, JedisPool pool) throws Exception {
+        HashCode hash = hash("chunks");
+        byte[] data = new byte[RedisGlobalCache.CHUNK_SIZE * 2 + 1234];
+        new Random(0).nextBytes(data);
+
+        try (GlobalCacheAccess access = globalCache.get()) {
+            access.set(hash, data);
+            check(Arrays.equals(access.get(hash), data), "Chunked data does not match");
+        }
+
+        try (Jedis jedis = pool.getResource()) {
+            check("3:" + data.length, new String(jedis.get(RedisGlobalCache.metaKey(hash)), StandardCharsets.US_ASCII), "Unexpected meta value");
+            check(jedis.exists(RedisGlobalCache.chunkKey(hash, 2)) && !jedis.exists(RedisGlobalCache.chunkKey(hash, 3)), "Unexpected chunk count");
+
+            // 一部の分割したデータが期限切れになった場合
+            jedis.del(RedisGlobalCache.chunkKey(hash, 1));
+        }
+
+        try (GlobalCacheAccess access = globalCache.get()) {
+            check(access.get(hash) == null, "Partially expired data was returned");
+        }
+
+        HashCode emptyHash = hash("empty");
+        try (GlobalCacheAccess access = globalCache.get()) {
+            access.set(emptyHash, new byte[0]);
+            byte[] empty = access.get(emptyHash);
+            check(empty != null && empty.length == 0, "Empty data was not returned");
+        }
+
+        Main.LOGGER.info("Chunked set and get: OK");
+    }
+
+    private static void checkTtlRefresh(RedisGlobalCache globalCache, JedisPool pool) throws Exception {
+        HashCode hash = hash("ttl");
+        byte[] data = new byte[RedisGlobalCache.CHUNK_SIZE + 1];
+
+        try (GlobalCacheAccess access = globalCache.get()) {
+            access.set(hash, data);
+        }
+
+        try (Jedis jedis = pool.getResource()) {
+            jedis.pexpire(RedisGlobalCache.metaKey(hash), 1000);
+            jedis.pexpire(RedisGlobalCache.chunkKey(hash, 0), 1000);
+            jedis.pexpire(RedisGlobalCache.chunkKey(hash, 1), 1000);
+        }
+
+        try (GlobalCacheAccess access = globalCache.get()) {
+            check(access.get(hash) != null, "Data was not returned");
+        }
+
+        try (Jedis jedis = pool.getResource()) {
+            for (byte[] key : List.of(RedisGlobalCache.metaKey(hash), RedisGlobalCache.chunkKey(hash, 0), RedisGlobalCache.chunkKey(hash, 1))) {
+                check(jedis.pttl(key) > RedisGlobalCache.CACHE_TTL - 10_000, "TTL was not refreshed: " + new String(key, StandardCharsets.UTF_8));
+            }
+        }
+
+        Main.LOGGER.info("TTL refresh on get: OK");
+    }
+
+    private static void checkLockWait(RedisGlobalCache globalCache) throws Exception {
+        HashCode hash = hash("lock");
+
+        try (GlobalCacheAccess first = globalCache.get(); GlobalCacheAccess second = globalCache.get()) {
+            first.lock(hash);
+
+            CompletableFuture<Void> secondLock = CompletableFuture.runAsync(() -> second.lock(hash));
+
+            try {
+                secondLock.get(300, TimeUnit.MILLISECONDS);
+                throw new IllegalStateException("Lock was taken while held by another access");
+            } catch (TimeoutException e) {
+                // ロックを待機している
+            }
+
+            first.unlock(hash);
+            secondLock.get(5, TimeUnit.SECONDS);
+            second.unlock(hash);
+        }
+
+        Main.LOGGER.info("Lock waits for release: OK");
+    }
+
+    private static void checkExpiredLockUnlock(RedisGlobalCache globalCache, JedisPool pool) throws Exception {
+        HashCode hash = hash("lease");
+        String otherToken = "other-shard";
+
+        try (GlobalCacheAccess access = globalCache.get()) {
+            access.lock(hash);
+
+            // ロックの有効期限が切れ、他のBOTがロックした場合
+            try (Jedis jedis = pool.getResource()) {
+                jedis.del(RedisGlobalCache.lockKey(hash));
+                jedis.set(RedisGlobalCache.lockKey(hash), otherToken);
+            }
+
+            access.unlock(hash);
+        }
+
+        try (Jedis jedis = pool.getResource()) {
+            check(otherToken, jedis.get(RedisGlobalCache.lockKey(hash)), "Lock held by another shard was released");
+        }
+
+        Main.LOGGER.info("Compare-and-delete unlock: OK");
+    }
+
+    private static void checkCloseUnlock(RedisGlobalCache globalCache, JedisPool pool) throws Exception {
+        HashCode hash = hash("close");
+
+        try (GlobalCacheAccess access = globalCache.get()) {
+            access.lock(hash);
+        }
+
+        try (Jedis jedis = pool.getResource()) {
+            check(!jedis.exists(RedisGlobalCache.lockKey(hash)), "Lock was not released on close");
+        }
+
+        Main.LOGGER.info("Unlock on close: OK");
+    }
+
+    private static HashCode hash(String name) {
+        return HashCode.fromBytes(name.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new IllegalStateException(message);
+        }
+    }
+
+    private static void check(String expected, String actual, String message) {
+        check(expected.equals(actual), message + " (expected: " + expected + ", actual: " + actual + ")");
+    }
+
+    /**
+     * Redisの代わりの簡易的なサーバー<br/>
+     * グローバルキャッシュで使用するコマンドのみに対応し、EVALは自分が取得したロックの場合のみ解除するスクリプトとして扱う
+     *
+     * @author MORIMORI0317
+     */
+    private static final class RespServer implements AutoCloseable {
+
+        /**
+         * 保存された値
+         */
+        private final Map<String, Value> values = new ConcurrentHashMap<>();
+
+        /**
+         * サーバーソケット
+         */
+        private final ServerSocket serverSocket;
+
+        private RespServer() throws IOException {
+            this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+
+            Thread acceptThread = new Thread(this::acceptLoop, "resp-server-accept");
+            acceptThread.setDaemon(true);
+            acceptThread.start();
+        }
+
+        private int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        private void acceptLoop() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket socket = serverSocket.accept();
+                    Thread thread = new Thread(() -> handle(socket), "resp-server-connection");
+                    thread.setDaemon(true);
+                    thread.start();
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void handle(Socket socket) {
+            try (socket; InputStream in = new BufferedInputStream(socket.getInputStream());
+                 OutputStream out = new BufferedOutputStream(socket.getOutputStream())) {
+                while (true) {
+                    List<byte[]> command = readCommand(in);
+
+                    if (command == null) {
+                        return;
+                    }
+
+                    execute(command, out);
+
+                    // パイプラインの場合は、読み込み済みのコマンドを全て処理してから送る
+                    if (in.available() == 0) {
+                        out.flush();
+                    }
+                }
+            } catch (IOException e) {
+                // 切断された場合
+            }
+        }
+
+        private void execute(List<byte[]> command, OutputStream out) throws IOException {
+            String name = string(command.get(0)).toUpperCase();
+
+            switch (name) {
+                case "PING" -> writeSimple(out, "PONG");
+                case "GET" -> {
+                    Value value = getValue(string(command.get(1)));
+                    writeBulk(out, value != null ? value.data() : null);
+                }
+                case "EXISTS" -> writeInteger(out, getValue(string(command.get(1))) != null ? 1 : 0);
+                case "DEL" -> writeInteger(out, values.remove(string(command.get(1))) != null ? 1 : 0);
+                case "PSETEX" -> {
+                    long ttl = Long.parseLong(string(command.get(2)));
+                    values.put(string(command.get(1)), new Value(command.get(3), System.currentTimeMillis() + ttl));
+                    writeSimple(out, "OK");
+                }
+                case "PEXPIRE" -> {
+                    String key = string(command.get(1));
+                    Value value = getValue(key);
+
+                    if (value != null) {
+                        values.put(key, new Value(value.data(), System.currentTimeMillis() + Long.parseLong(string(command.get(2)))));
+                    }
+
+                    writeInteger(out, value != null ? 1 : 0);
+                }
+                case "PTTL" -> {
+                    Value value = getValue(string(command.get(1)));
+                    writeInteger(out, value == null ? -2 : value.expireTime() == Long.MAX_VALUE ? -1 : value.expireTime() - System.currentTimeMillis());
+                }
+                case "SET" -> set(command, out);
+                case "EVAL" -> {
+                    String key = string(command.get(3));
+                    Value value = getValue(key);
+                    boolean owned = value != null && Arrays.equals(value.data(), command.get(4));
+                    writeInteger(out, owned && values.remove(key, value) ? 1 : 0);
+                }
+                default -> writeError(out, "ERR unknown command '" + name + "'");
+            }
+        }
+
+        private void set(List<byte[]> command, OutputStream out) throws IOException {
+            String key = string(command.get(1));
+            boolean nx = false;
+            long expireTime = Long.MAX_VALUE;
+
+            for (int i = 3; i < command.size(); i++) {
+                String option = string(command.get(i)).toUpperCase();
+
+                if ("NX".equals(option)) {
+                    nx = true;
+                } else if ("PX".equals(option) && i + 1 < command.size()) {
+                    expireTime = System.currentTimeMillis() + Long.parseLong(string(command.get(i + 1)));
+                }
+            }
+
+            Value value = new Value(command.get(2), expireTime);
+
+            if (nx) {
+                getValue(key);
+
+                if (values.putIfAbsent(key, value) != null) {
+                    writeBulk(out, null);
+                    return;
+                }
+            } else {
+                values.put(key, value);
+            }
+
+            writeSimple(out, "OK");
+        }
+
+        private Value getValue(String key) {
+            Value value = values.get(key);
+
+            if (value != null && value.expireTime() <= System.currentTimeMillis()) {
+                values.remove(key, value);
+                return null;
+            }
+
+            return value;
+        }
+
+        private static List<byte[]> readCommand(InputStream in) throws IOException {
+            String header = readLine(in);
+
+            if (header == null) {
+                return null;
+            }
+
+            int count = Integer.parseInt(header.substring(1));
+            List<byte[]> args = new ArrayList<>(count);
+
+            for (int i = 0; i < count; i++) {
+                int length = Integer.parseInt(readLine(in).substring(1));
+                byte[] arg = in.readNBytes(length);
+                in.readNBytes(2);
+                args.add(arg);
+            }
+
+            return args;
+        }
+
+        private static String readLine(InputStream in) throws IOException {
+            StringBuilder sb = new StringBuilder();
+            int c;
+
+            while ((c = in.read()) != '\r') {
+                if (c == -1) {
+                    return null;
+                }
+
+                sb.append((char) c);
+            }
+
+            in.read();
+            return sb.toString();
+        }
+
+        private static String string(byte[] data) {
+            return new String(data, StandardCharsets.ISO_8859_1);
+        }
+
+        private static void writeSimple(OutputStream out, String value) throws IOException {
+            out.write(("+" + value + "\r\n").getBytes(StandardCharsets.ISO_8859_1));
+        }
+
+        private static void writeError(OutputStream out, String message) throws IOException {
+            out.write(("-" + message + "\r\n").getBytes(StandardCharsets.ISO_8859_1));
+        }
+
+        private static void writeInteger(OutputStream out, long value) throws IOException {
+            out.write((":" + value + "\r\n").getBytes(StandardCharsets.ISO_8859_1));
+        }
+
+        private static void writeBulk(OutputStream out, byte[] data) throws IOException {
+            if (data == null) {
+                out.write("$-1\r\n".getBytes(StandardCharsets.ISO_8859_1));
+                return;
+            }
+
+            out.write(("$" + data.length + "\r\n").getBytes(StandardCharsets.ISO_8859_1));
+            out.write(data);
+            out.write("\r\n".getBytes(StandardCharsets.ISO_8859_1));
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+        }
+
+        /**
+         * 保存された値
+         *
+         * @param data       値
+         * @param expireTime 有効期限の時刻、有効期限がない場合は{@link Long#MAX_VALUE}
+         * @author MORIMORI0317
+         */
+        private record Value(byte[] data, long expireTime) {
+        }
+    }
+}
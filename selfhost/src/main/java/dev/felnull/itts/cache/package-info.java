@@ -0,0 +1,4 @@
+/**
+ * キャッシュ関係
+ */
+package dev.felnull.itts.cache;
\ No newline at end of file
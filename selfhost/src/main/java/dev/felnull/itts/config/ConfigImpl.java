@@ -32,6 +32,66 @@ public class ConfigImpl implements Config {
      */
     private final long cacheTime;
 
+    /**
+     * メモリキャッシュの最大サイズ
+     */
+    private final long memoryCacheSize;
+
+    /**
+     * 永続キャッシュが有効かどうか
+     */
+    private final boolean persistentCache;
+
+    /**
+     * 永続キャッシュの最大サイズ
+     */
+    private final long persistentCacheSize;
+
+    /**
+     * 永続キャッシュを圧縮して保存するかどうか
+     */
+    private final boolean persistentCacheCompression;
+
+    /**
+     * Opusフレームキャッシュの最大サイズ
+     */
+    private final long opusFrameCacheSize;
+
+    /**
+     * 長いテキストを分割して読み込むかどうか
+     */
+    private final boolean chunkedSynthesis;
+
+    /**
+     * ヘッジリクエストを送るかどうか
+     */
+    private final boolean hedgedRequests;
+
+    /**
+     * ヘッジリクエストを送るまでの待機時間のパーセンタイル
+     */
+    private final double hedgePercentile;
+
+    /**
+     * ヘッジリクエストの予算
+     */
+    private final double hedgeBudget;
+
+    /**
+     * 全サーバーで同時に行う音声合成の最大数
+     */
+    private final int maxConcurrentSynthesis;
+
+    /**
+     * 予測できる読み上げを先に合成するかどうか
+     */
+    private final boolean speculativeSynthesis;
+
+    /**
+     * キャッシュを温めるテキストの数
+     */
+    private final int cacheWarmingCount;
+
     /**
      * VoiceTextのコンフィグ
      */
@@ -61,6 +121,18 @@ public class ConfigImpl implements Config {
         this.botToken = Json5Utils.getStringOrElse(jo, "bot_token", DEFAULT_BOT_TOKEN);
         this.themeColor = jo.getInt("theme_color", DEFAULT_THEME_COLOR);
         this.cacheTime = jo.getLong("cache_time", DEFAULT_CACHE_TIME);
+        this.memoryCacheSize = jo.getLong("memory_cache_size", DEFAULT_MEMORY_CACHE_SIZE);
+        this.persistentCache = jo.getBoolean("persistent_cache", DEFAULT_PERSISTENT_CACHE);
+        this.persistentCacheSize = jo.getLong("persistent_cache_size", DEFAULT_PERSISTENT_CACHE_SIZE);
+        this.persistentCacheCompression = jo.getBoolean("persistent_cache_compression", DEFAULT_PERSISTENT_CACHE_COMPRESSION);
+        this.opusFrameCacheSize = jo.getLong("opus_frame_cache_size", DEFAULT_OPUS_FRAME_CACHE_SIZE);
+        this.chunkedSynthesis = jo.getBoolean("chunked_synthesis", DEFAULT_CHUNKED_SYNTHESIS);
+        this.hedgedRequests = jo.getBoolean("hedged_requests", DEFAULT_HEDGED_REQUESTS);
+        this.hedgePercentile = jo.getDouble("hedge_percentile", DEFAULT_HEDGE_PERCENTILE);
+        this.hedgeBudget = jo.getDouble("hedge_budget", DEFAULT_HEDGE_BUDGET);
+        this.maxConcurrentSynthesis = jo.getInt("max_concurrent_synthesis", DEFAULT_MAX_CONCURRENT_SYNTHESIS);
+        this.speculativeSynthesis = jo.getBoolean("speculative_synthesis", DEFAULT_SPECULATIVE_SYNTHESIS);
+        this.cacheWarmingCount = jo.getInt("cache_warming_count", DEFAULT_CACHE_WARMING_COUNT);
         this.voiceTextConfig = new VoiceTextConfigImpl(Optional.ofNullable(jo.getObject("voice_text")).orElseGet(JsonObject::new));
         this.voicevoxConfig = new VoicevoxConfigImpl(Optional.ofNullable(jo.getObject("voicevox")).orElseGet(JsonObject::new));
         this.coeirolnkConfig = new VoicevoxConfigImpl(Optional.ofNullable(jo.getObject("coeirolnk")).orElseGet(JsonObject::new));
@@ -78,6 +150,18 @@ public class ConfigImpl implements Config {
         jo.put("bot_token", JsonPrimitive.of(this.botToken), "BOTのトークン");
         jo.put("theme_color", new JsonPrimitive(this.themeColor), "テーマカラー");
         jo.put("cache_time", new JsonPrimitive(this.cacheTime), "キャッシュを保存する期間(ms)");
+        jo.put("memory_cache_size", new JsonPrimitive(this.memoryCacheSize), "メモリ上にキャッシュする音声データの最大サイズ(byte) 0で無効");
+        jo.put("persistent_cache", JsonPrimitive.of(this.persistentCache), "再起動後も音声データのキャッシュを保持するかどうか");
+        jo.put("persistent_cache_size", new JsonPrimitive(this.persistentCacheSize), "再起動後も保持するキャッシュの最大サイズ(byte)");
+        jo.put("persistent_cache_compression", JsonPrimitive.of(this.persistentCacheCompression), "再起動後も保持するキャッシュを圧縮して保存するかどうか");
+        jo.put("opus_frame_cache_size", new JsonPrimitive(this.opusFrameCacheSize), "エンコード済みのOpusフレームをメモリ上にキャッシュする最大サイズ(byte) 0で無効");
+        jo.put("chunked_synthesis", JsonPrimitive.of(this.chunkedSynthesis), "長いテキストを文の区切りで分割し、並列で読み込んで続けて再生するかどうか");
+        jo.put("hedged_requests", JsonPrimitive.of(this.hedgedRequests), "VOICEVOX系エンジンの応答が遅い場合に、別のURLへ同じリクエストを送るかどうか");
+        jo.put("hedge_percentile", new JsonPrimitive(this.hedgePercentile), "別のURLへリクエストを送るまでの待機時間(直近の応答時間のパーセンタイル)");
+        jo.put("hedge_budget", new JsonPrimitive(this.hedgeBudget), "リクエスト数に対する、別のURLへ送るリクエスト数の上限の割合");
+        jo.put("max_concurrent_synthesis", new JsonPrimitive(this.maxConcurrentSynthesis), "全サーバーで同時に行う音声合成の最大数 0以下で上限なし");
+        jo.put("speculative_synthesis", JsonPrimitive.of(this.speculativeSynthesis), "VCの参加や退出の読み上げなど、予測できる読み上げを空いている時に先に合成しておくかどうか 永続キャッシュが有効な場合のみ使用");
+        jo.put("cache_warming_count", new JsonPrimitive(this.cacheWarmingCount), "起動時やエンジンのバージョンが変わった時に、先に音声合成を行うよく読み上げるテキストの数 0で無効 (永続キャッシュが必要、読み上げたテキストを30日間記録)");
         jo.put("voice_text", this.voiceTextConfig.toJson(), "VoiceTextのコンフィグ");
         jo.put("voicevox", this.voicevoxConfig.toJson(), "VOICEVOXのコンフィグ");
         jo.put("coeirolnk", this.coeirolnkConfig.toJson(), "COEIROLNKのコンフィグ");
@@ -100,6 +184,66 @@ public class ConfigImpl implements Config {
         return cacheTime;
     }
 
+    @Override
+    public long getMemoryCacheSize() {
+        return memoryCacheSize;
+    }
+
+    @Override
+    public boolean isPersistentCache() {
+        return persistentCache;
+    }
+
+    @Override
+    public long getPersistentCacheSize() {
+        return persistentCacheSize;
+    }
+
+    @Override
+    public boolean isPersistentCacheCompression() {
+        return persistentCacheCompression;
+    }
+
+    @Override
+    public long getOpusFrameCacheSize() {
+        return opusFrameCacheSize;
+    }
+
+    @Override
+    public boolean isChunkedSynthesis() {
+        return chunkedSynthesis;
+    }
+
+    @Override
+    public boolean isHedgedRequests() {
+        return hedgedRequests;
+    }
+
+    @Override
+    public double getHedgePercentile() {
+        return hedgePercentile;
+    }
+
+    @Override
+    public double getHedgeBudget() {
+        return hedgeBudget;
+    }
+
+    @Override
+    public int getMaxConcurrentSynthesis() {
+        return maxConcurrentSynthesis;
+    }
+
+    @Override
+    public boolean isSpeculativeSynthesis() {
+        return speculativeSynthesis;
+    }
+
+    @Override
+    public int getCacheWarmingCount() {
+        return cacheWarmingCount;
+    }
+
     @Override
     public VoiceTextConfig getVoiceTextConfig() {
         return voiceTextConfig;
@@ -8,6 +8,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Unmodifiable;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * VOICEVOXコンフィグの実装
@@ -26,6 +27,26 @@ public class VoicevoxConfigImpl extends VoiceTypeConfigImpl implements VoicevoxC
      */
     private final long checkTime;
 
+    /**
+     * クエリキャッシュの最大サイズ
+     */
+    private final long queryCacheSize;
+
+    /**
+     * エンジンURLごとの重み
+     */
+    private final Map<String, Double> apiUrlWeights;
+
+    /**
+     * エンジンURLごとの同時リクエスト数の上限
+     */
+    private final int maxConcurrentRequests;
+
+    /**
+     * 同時リクエスト数の上限を自動調整するかどうか
+     */
+    private final boolean adaptiveConcurrency;
+
     /**
      * コンストラクタ
      *
@@ -36,13 +57,21 @@ public class VoicevoxConfigImpl extends VoiceTypeConfigImpl implements VoicevoxC
         List<String> loadApiUrals = Json5Utils.getStringListOfJsonArray(jo, "api_url");
         this.apiUrls = loadApiUrals.isEmpty() ? DEFAULT_API_URLS : loadApiUrals;
         this.checkTime = jo.getLong("check_time", DEFAULT_CHECK_TIME);
+        this.queryCacheSize = jo.getLong("query_cache_size", DEFAULT_QUERY_CACHE_SIZE);
+        this.apiUrlWeights = Json5Utils.getDoubleMapOfJsonObject(jo, "api_url_weights");
+        this.maxConcurrentRequests = jo.getInt("max_concurrent_requests", DEFAULT_MAX_CONCURRENT_REQUESTS);
+        this.adaptiveConcurrency = jo.getBoolean("adaptive_concurrency", DEFAULT_ADAPTIVE_CONCURRENCY);
     }
 
     @Override
     protected JsonObject toJson() {
         JsonObject jo = super.toJson();
         jo.put("api_url", Json5Utils.toJsonArray(this.apiUrls), "EngineのURL");
+        jo.put("api_url_weights", Json5Utils.toJsonObject(this.apiUrlWeights), "EngineのURLごとの重み 大きいほど多く割り当てる(指定なしの場合は1)");
         jo.put("check_time", JsonPrimitive.of(checkTime), "APIが利用可能かどうか確認する間隔(ms)");
+        jo.put("query_cache_size", JsonPrimitive.of(queryCacheSize), "音声合成用クエリをメモリ上にキャッシュする最大サイズ(byte) 0で無効");
+        jo.put("max_concurrent_requests", new JsonPrimitive(maxConcurrentRequests), "EngineのURLごとの同時リクエスト数の上限 0以下で上限なし");
+        jo.put("adaptive_concurrency", JsonPrimitive.of(adaptiveConcurrency), "同時リクエスト数の上限を失敗と応答時間から自動調整するかどうか");
         return jo;
     }
 
@@ -56,4 +85,24 @@ public class VoicevoxConfigImpl extends VoiceTypeConfigImpl implements VoicevoxC
         return checkTime;
     }
 
+    @Override
+    public @NotNull @Unmodifiable Map<String, Double> getApiUrlWeights() {
+        return apiUrlWeights;
+    }
+
+    @Override
+    public long getQueryCacheSize() {
+        return queryCacheSize;
+    }
+
+    @Override
+    public int getMaxConcurrentRequests() {
+        return maxConcurrentRequests;
+    }
+
+    @Override
+    public boolean isAdaptiveConcurrency() {
+        return adaptiveConcurrency;
+    }
+
 }
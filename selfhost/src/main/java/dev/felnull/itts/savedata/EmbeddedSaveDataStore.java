@@ -0,0 +1,384 @@
+package dev.felnull.itts.savedata;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import dev.felnull.itts.Main;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * 全てのセーブデータを1つのファイルに保存する保存先<br/>
+ * セーブデータは追記のみを行うログ形式で保存し、セーブデータごとの最新の位置をメモリ上のインデックスで管理する<br/>
+ * 書き込みはまとめて{@link #commit()}でディスクに反映し、書き込み途中で終了した場合は次回の起動時に壊れた末尾を切り捨てる<br/>
+ * 古いセーブデータが一定以上の割合を占める場合は、起動時と{@link #compactIfNeeded()}で最新のセーブデータのみのファイルに作り直す<br/>
+ * 作り直しの間も読み込みを行えるように、ファイルを置き換える間のみ読み込みを止める
+ *
+ * @author MORIMORI0317
+ */
+public final class EmbeddedSaveDataStore implements SaveDataStore, Closeable {
+
+    /**
+     * GSON
+     */
+    private static final Gson GSON = new Gson();
+
+    /**
+     * レコードの識別子
+     */
+    private static final int RECORD_MAGIC = 0x49545453;
+
+    /**
+     * レコードのヘッダーの大きさ (識別子、キーの長さ、値の長さ、CRC)
+     */
+    private static final int HEADER_SIZE = Integer.BYTES * 4;
+
+    /**
+     * 作り直しを行う最小のファイルの大きさ
+     */
+    private static final long COMPACT_MIN_SIZE = 1024 * 1024;
+
+    /**
+     * キーの基準となるディレクトリ
+     */
+    private static final Path BASE_DIR = new File(".").getAbsoluteFile().toPath().normalize();
+
+    /**
+     * キーごとの最新のセーブデータの位置
+     */
+    private final NavigableMap<String, Location> index = new ConcurrentSkipListMap<>();
+
+    /**
+     * 書き込みのロック
+     */
+    private final Object writeLock = new Object();
+
+    /**
+     * ファイルのチャンネルとインデックスを置き換えるためのロック<br/>
+     * 読み込みは共有ロック、置き換えは排他ロックを使用する
+     */
+    private final ReadWriteLock channelLock = new ReentrantReadWriteLock();
+
+    /**
+     * 保存先ファイル
+     */
+    private final File file;
+
+    /**
+     * ファイルのチャンネル
+     */
+    private FileChannel channel;
+
+    /**
+     * 次に書き込む位置
+     */
+    private long writePosition;
+
+    /**
+     * 最新のセーブデータのレコードの大きさの合計
+     */
+    private long liveSize;
+
+    /**
+     * 確定していない書き込みがあるかどうか
+     */
+    private boolean uncommitted;
+
+    private EmbeddedSaveDataStore(File file) {
+        this.file = file;
+    }
+
+    /**
+     * 保存先を開く<br/>
+     * ファイルが存在しない場合は作成する
+     *
+     * @param file 保存先ファイル
+     * @return 保存先
+     * @throws IOException IO例外
+     */
+    public static EmbeddedSaveDataStore open(@NotNull File file) throws IOException {
+        EmbeddedSaveDataStore store = new EmbeddedSaveDataStore(file);
+        store.load();
+        store.compactIfNeeded();
+
+        return store;
+    }
+
+    private void load() throws IOException {
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        long size = channel.size();
+        long position = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+
+        while (position + HEADER_SIZE <= size) {
+            header.clear();
+            readFully(header, position);
+            header.flip();
+
+            int magic = header.getInt();
+            int keyLength = header.getInt();
+            int valueLength = header.getInt();
+            int crc = header.getInt();
+
+            long recordSize = (long) HEADER_SIZE + keyLength + valueLength;
+            if (magic != RECORD_MAGIC || keyLength < 0 || valueLength < 0 || position + recordSize > size) {
+                break;
+            }
+
+            ByteBuffer body = ByteBuffer.allocate(keyLength + valueLength);
+            readFully(body, position + HEADER_SIZE);
+
+            CRC32 crc32 = new CRC32();
+            crc32.update(body.array());
+            if ((int) crc32.getValue() != crc) {
+                break;
+            }
+
+            String key = new String(body.array(), 0, keyLength, StandardCharsets.UTF_8);
+            putIndex(key, new Location(position + HEADER_SIZE + keyLength, valueLength, recordSize));
+            position += recordSize;
+        }
+
+        if (position < size) {
+            Main.runtime.getLogger().warn("Truncated the corrupted end of the save data store. ({} bytes)", size - position);
+            channel.truncate(position);
+            channel.force(true);
+        }
+
+        writePosition = position;
+    }
+
+    /**
+     * 古いセーブデータが半分以上を占める場合は、最新のセーブデータのみを書き込んだファイルに置き換える
+     *
+     * @throws IOException IO例外
+     */
+    @Override
+    public void compactIfNeeded() throws IOException {
+        synchronized (writeLock) {
+            if (writePosition >= COMPACT_MIN_SIZE && liveSize * 2 < writePosition) {
+                compact();
+            }
+        }
+    }
+
+    /**
+     * 最新のセーブデータのみを書き込んだファイルに置き換える<br/>
+     * 書き込みは作り直しが終わるまで待機し、読み込みはファイルを置き換える間のみ待機する
+     *
+     * @throws IOException IO例外
+     */
+    private void compact() throws IOException {
+        File tmpFile = new File(file.getParentFile(), file.getName() + ".tmp");
+        long beforeSize;
+
+        synchronized (writeLock) {
+            beforeSize = writePosition;
+            Map<String, byte[]> values = new LinkedHashMap<>();
+            for (Map.Entry<String, Location> entry : index.entrySet()) {
+                values.put(entry.getKey(), readValue(entry.getValue()));
+            }
+
+            Files.deleteIfExists(tmpFile.toPath());
+            EmbeddedSaveDataStore compacted = new EmbeddedSaveDataStore(tmpFile);
+            compacted.load();
+            for (Map.Entry<String, byte[]> entry : values.entrySet()) {
+                compacted.append(entry.getKey(), entry.getValue());
+            }
+            compacted.close();
+
+            channelLock.writeLock().lock();
+            try {
+                channel.close();
+
+                try {
+                    try {
+                        Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                    } catch (AtomicMoveNotSupportedException e) {
+                        Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                    }
+                } finally {
+                    // 置き換えに失敗した場合は元のファイルを開き直す
+                    index.clear();
+                    liveSize = 0;
+                    load();
+                }
+
+                // 確定していない書き込みも作り直したファイルには確定済み
+                uncommitted = false;
+            } finally {
+                channelLock.writeLock().unlock();
+            }
+        }
+
+        Main.runtime.getLogger().info("Compacted the save data store. ({} bytes -> {} bytes)", beforeSize, writePosition);
+    }
+
+    @Override
+    public @Nullable JsonObject read(@NotNull File file) throws IOException {
+        byte[] value;
+
+        channelLock.readLock().lock();
+        try {
+            Location location = index.get(toKey(file));
+
+            if (location == null) {
+                return null;
+            }
+
+            value = readValue(location);
+        } finally {
+            channelLock.readLock().unlock();
+        }
+
+        return GSON.fromJson(new String(value, StandardCharsets.UTF_8), JsonObject.class);
+    }
+
+    @Override
+    public void write(@NotNull File file, @NotNull JsonObject jo) throws IOException {
+        append(toKey(file), GSON.toJson(jo).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public @NotNull @Unmodifiable List<String> list(@NotNull File folder) {
+        String prefix = toKey(folder) + "/";
+
+        channelLock.readLock().lock();
+        try {
+            return index.subMap(prefix, true, prefix + Character.MAX_VALUE, false).keySet().stream()
+                    .map(it -> it.substring(prefix.length()))
+                    .filter(it -> it.indexOf('/') < 0)
+                    .toList();
+        } finally {
+            channelLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void commit() throws IOException {
+        synchronized (writeLock) {
+            if (!uncommitted) {
+                return;
+            }
+
+            channel.force(false);
+            uncommitted = false;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        commit();
+        channel.close();
+    }
+
+    /**
+     * レコードを追記する
+     *
+     * @param key   キー
+     * @param value 値
+     * @throws IOException IO例外
+     */
+    private void append(String key, byte[] value) throws IOException {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+
+        CRC32 crc32 = new CRC32();
+        crc32.update(keyBytes);
+        crc32.update(value);
+
+        ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + keyBytes.length + value.length);
+        record.putInt(RECORD_MAGIC);
+        record.putInt(keyBytes.length);
+        record.putInt(value.length);
+        record.putInt((int) crc32.getValue());
+        record.put(keyBytes);
+        record.put(value);
+        record.flip();
+
+        synchronized (writeLock) {
+            long position = writePosition;
+
+            while (record.hasRemaining()) {
+                position += channel.write(record, position);
+            }
+
+            putIndex(key, new Location(writePosition + HEADER_SIZE + keyBytes.length, value.length, record.limit()));
+            writePosition = position;
+            uncommitted = true;
+        }
+    }
+
+    private void putIndex(String key, Location location) {
+        Location old = index.put(key, location);
+        liveSize += location.recordSize();
+
+        if (old != null) {
+            liveSize -= old.recordSize();
+        }
+    }
+
+    private byte[] readValue(Location location) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(location.length());
+        readFully(buf, location.position());
+        return buf.array();
+    }
+
+    private void readFully(ByteBuffer buf, long position) throws IOException {
+        long pos = position;
+
+        while (buf.hasRemaining()) {
+            int read = channel.read(buf, pos);
+            if (read < 0) {
+                throw new EOFException();
+            }
+            pos += read;
+        }
+    }
+
+    /**
+     * 保存先ファイルのパスからキーを作成する
+     *
+     * @param file 保存先ファイル
+     * @return 起動ディレクトリからの相対パス
+     */
+    private static String toKey(File file) {
+        return BASE_DIR.relativize(file.getAbsoluteFile().toPath().normalize()).toString().replace(File.separatorChar, '/');
+    }
+
+    public int getEntryCount() {
+        return index.size();
+    }
+
+    /**
+     * セーブデータの位置
+     *
+     * @param position   値の位置
+     * @param length     値の長さ
+     * @param recordSize レコード全体の大きさ
+     * @author MORIMORI0317
+     */
+    private record Location(long position, int length, long recordSize) {
+    }
+}
@@ -0,0 +1,83 @@
+package dev.felnull.itts.savedata;
+
+import com.google.common.collect.ImmutableList;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import dev.felnull.fnjl.util.FNDataUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * セーブデータごとにJSONファイルとして保存する保存先
+ *
+ * @author MORIMORI0317
+ */
+public class JsonFileSaveDataStore implements SaveDataStore {
+
+    /**
+     * GSON
+     */
+    private static final Gson GSON = new Gson();
+
+    @Override
+    public @Nullable JsonObject read(@NotNull File file) throws IOException {
+        if (!file.exists()) {
+            return null;
+        }
+
+        try (Reader reader = new FileReader(file); Reader bufReader = new BufferedReader(reader)) {
+            return GSON.fromJson(bufReader, JsonObject.class);
+        }
+    }
+
+    /**
+     * 一時ファイルに書き込んでから置き換えることで、書き込み途中の状態のファイルが残らないように保存する
+     *
+     * @param file 保存先ファイル
+     * @param jo   セーブデータ
+     * @throws IOException IO例外
+     */
+    @Override
+    public void write(@NotNull File file, @NotNull JsonObject jo) throws IOException {
+        FNDataUtil.wishMkdir(file.getParentFile());
+
+        File tmpFile = new File(file.getParentFile(), file.getName() + ".tmp");
+        try (Writer writer = new FileWriter(tmpFile); Writer bufWriter = new BufferedWriter(writer)) {
+            GSON.toJson(jo, bufWriter);
+        }
+
+        try {
+            Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @Override
+    public @NotNull @Unmodifiable List<String> list(@NotNull File folder) {
+        File[] files = folder.listFiles(File::isFile);
+
+        if (files == null) {
+            return ImmutableList.of();
+        }
+
+        return Arrays.stream(files)
+                .map(File::getName)
+                .toList();
+    }
+}
@@ -7,6 +7,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Unmodifiable;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -126,6 +127,10 @@ public class KeySaveDataManage<K extends Record & SaveDataKey, S extends SaveDat
         }
     }
 
+    public File getSaveFolder() {
+        return saveFolder;
+    }
+
     @NotNull
     @Unmodifiable
     public Map<K, S> getAll() {
@@ -147,7 +152,12 @@ public class KeySaveDataManage<K extends Record & SaveDataKey, S extends SaveDat
     @NotNull
     @Unmodifiable
     public Map<K, CompletableFuture<S>> loadAll() {
-        List<K> keys = savedFileFinder.find(saveFolder);
+        List<K> keys;
+        try {
+            keys = savedFileFinder.find(SelfHostSaveDataManager.getInstance().getStore().list(saveFolder));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
         Map<K, CompletableFuture<S>> ret = new HashMap<>();
 
         for (K key : keys) {
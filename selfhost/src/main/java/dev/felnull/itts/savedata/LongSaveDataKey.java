@@ -1,12 +1,10 @@
 package dev.felnull.itts.savedata;
 
-import com.google.common.collect.ImmutableList;
 import com.google.common.primitives.Longs;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Unmodifiable;
 
 import java.io.File;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 
@@ -43,15 +41,8 @@ public record LongSaveDataKey(long id) implements SaveDataKey {
      */
     private static class SavedFileFinderImpl implements SavedFileFinder<LongSaveDataKey> {
         @Override
-        public @Unmodifiable @NotNull List<LongSaveDataKey> find(File folder) {
-            File[] files = folder.listFiles();
-
-            if (files == null) {
-                return ImmutableList.of();
-            }
-
-            return Arrays.stream(files)
-                    .map(File::getName)
+        public @Unmodifiable @NotNull List<LongSaveDataKey> find(List<String> fileNames) {
+            return fileNames.stream()
                     .filter(it -> it.length() > ".json".length())
                     .map(it -> it.substring(0, it.length() - ".json".length()))
                     .map(Longs::tryParse)
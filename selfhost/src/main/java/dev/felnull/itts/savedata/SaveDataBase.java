@@ -1,15 +1,11 @@
 package dev.felnull.itts.savedata;
 
-import com.google.gson.Gson;
 import com.google.gson.JsonObject;
-import dev.felnull.fnjl.util.FNDataUtil;
 import dev.felnull.itts.Main;
 import dev.felnull.itts.core.util.JsonUtils;
 import org.jetbrains.annotations.NotNull;
 
-import java.io.*;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.atomic.AtomicLong;
+import java.io.File;
 
 /**
  * セーブデータのベース
@@ -18,31 +14,11 @@ import java.util.concurrent.atomic.AtomicLong;
  */
 public abstract class SaveDataBase {
 
-    /**
-     * GSON
-     */
-    private static final Gson GSON = new Gson();
-
-    /**
-     * セーブデータの保存までの期間
-     */
-    private static final long SAVE_WAIT = 3000;
-
-    /**
-     * 保存すべきかののロック
-     */
-    private final Object dirtyLock = new Object();
-
     /**
      * 保存のロック
      */
     private final Object saveLock = new Object();
 
-    /**
-     * 更新した時の時間
-     */
-    private final AtomicLong dirtyTime = new AtomicLong(-1);
-
     /**
      * 保存先ファイル
      */
@@ -69,17 +45,16 @@ public abstract class SaveDataBase {
         this.saveFile = saveFile;
         this.saveDataKey = saveDataKey;
 
-        if (this.saveFile.exists()) {
-            try (Reader reader = new FileReader(this.saveFile); Reader bufReader = new BufferedReader(reader)) {
-                JsonObject jo = GSON.fromJson(bufReader, JsonObject.class);
-                int version = JsonUtils.getInt(jo, "version", -1);
+        JsonObject jo = getStore().read(this.saveFile);
 
-                if (version != getVersion()) {
-                    throw new RuntimeException("Unsupported config version.");
-                }
+        if (jo != null) {
+            int version = JsonUtils.getInt(jo, "version", -1);
 
-                loadFromJson(jo);
+            if (version != getVersion()) {
+                throw new RuntimeException("Unsupported config version.");
             }
+
+            loadFromJson(jo);
         } else {
             setDefault();
         }
@@ -93,7 +68,12 @@ public abstract class SaveDataBase {
      * @throws Exception 例外
      */
     public void dispose() throws Exception {
-        saveOnly();
+        SelfHostSaveDataManager.getInstance().getFlusher().unmark(this);
+
+        synchronized (saveLock) {
+            saveOnly();
+            getStore().commit();
+        }
     }
 
     /**
@@ -131,41 +111,23 @@ public abstract class SaveDataBase {
     protected abstract int getVersion();
 
     /**
-     * 保存すべきかを更新
+     * 保存すべきかを更新<br/>
+     * 保存は{@link SaveDataFlusher}でまとめて行う
      */
     protected void dirty() {
         if (!canSave) {
             return;
         }
 
-        synchronized (dirtyLock) {
-            if (this.dirtyTime.compareAndSet(-1, System.currentTimeMillis())) {
-                saveWaitStart();
-            } else {
-                this.dirtyTime.set(System.currentTimeMillis());
-            }
-        }
-    }
-
-    private void saveWaitStart() {
-        CompletableFuture.runAsync(this::saveWait, Main.runtime.getAsyncWorkerExecutor())
-                .thenAcceptAsync(v -> save(), Main.runtime.getAsyncWorkerExecutor());
-    }
-
-    private void saveWait() {
-        long wait = SAVE_WAIT;
-        do {
-            try {
-                Thread.sleep(wait);
-            } catch (InterruptedException e) {
-                throw new RuntimeException(e);
-            }
-            wait = SAVE_WAIT - System.currentTimeMillis() - this.dirtyTime.get();
-        } while (wait > 0);
-        this.dirtyTime.set(-1);
+        SelfHostSaveDataManager.getInstance().getFlusher().markDirty(this);
     }
 
-    private void save() {
+    /**
+     * 保存する
+     *
+     * @return 保存に成功したかどうか
+     */
+    protected boolean save() {
         synchronized (saveLock) {
             String name = getName();
             if (saveDataKey != null) {
@@ -175,19 +137,23 @@ public abstract class SaveDataBase {
             try {
                 saveOnly();
                 Main.runtime.getLogger().debug("Succeeded to save saved data. ({})", name);
+                return true;
             } catch (Exception ex) {
                 Main.runtime.getLogger().error("Failed to save saved data. ({})", name, ex);
+                return false;
             }
         }
     }
 
     private void saveOnly() throws Exception {
-        FNDataUtil.wishMkdir(saveFile.getParentFile());
-        try (Writer writer = new FileWriter(saveFile); Writer bufWriter = new BufferedWriter(writer)) {
-            JsonObject jo = new JsonObject();
-            saveToJson(jo);
-            jo.addProperty("version", getVersion());
-            GSON.toJson(jo, bufWriter);
-        }
+        JsonObject jo = new JsonObject();
+        saveToJson(jo);
+        jo.addProperty("version", getVersion());
+
+        getStore().write(saveFile, jo);
+    }
+
+    private static SaveDataStore getStore() {
+        return SelfHostSaveDataManager.getInstance().getStore();
     }
 }
@@ -0,0 +1,198 @@
+package dev.felnull.itts.savedata;
+
+import dev.felnull.itts.Main;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 更新されたセーブデータをまとめて保存するフラッシャー<br/>
+ * セーブデータごとに待機するスレッドを用意せず、1つのスレッドで一定間隔ごとに保存待ちのセーブデータを確認し、最初の更新から一定時間たったものを保存する<br/>
+ * 保存待ちの間に何度更新されても、保存は1回にまとめられる<br/>
+ * 保存先への書き込みは、確認ごとにまとめて確定し、古いセーブデータが多くなった場合は保存先を作り直す
+ *
+ * @author MORIMORI0317
+ */
+public class SaveDataFlusher {
+
+    /**
+     * 最初の更新から保存までの期間(ms)
+     */
+    private static final long SAVE_WAIT = 3000;
+
+    /**
+     * 保存待ちのセーブデータを確認する間隔(ms)
+     */
+    private static final long FLUSH_INTERVAL = 500;
+
+    /**
+     * 保存待ちのセーブデータと最初に更新された時刻
+     */
+    private final Map<SaveDataBase, Long> dirtyData = new ConcurrentHashMap<>();
+
+    /**
+     * 保存を行うスレッド
+     */
+    private final ScheduledExecutorService flushExecutor = Executors.newSingleThreadScheduledExecutor(
+            new BasicThreadFactory.Builder().namingPattern("save-data-flusher-%d").daemon(true).build());
+
+    /**
+     * 保存した回数
+     */
+    private final AtomicLong flushCount = new AtomicLong();
+
+    /**
+     * 保存に失敗した回数
+     */
+    private final AtomicLong failedCount = new AtomicLong();
+
+    /**
+     * 最初の更新から保存完了までの時間の合計(ms)
+     */
+    private final AtomicLong totalFlushLatency = new AtomicLong();
+
+    /**
+     * 最後に保存した時の、最初の更新から保存完了までの時間(ms)
+     */
+    private final AtomicLong lastFlushLatency = new AtomicLong();
+
+    /**
+     * コンストラクタ
+     */
+    public SaveDataFlusher() {
+        flushExecutor.scheduleWithFixedDelay(this::flushExpired, FLUSH_INTERVAL, FLUSH_INTERVAL, TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flushAll));
+    }
+
+    /**
+     * セーブデータを保存待ちにする<br/>
+     * 既に保存待ちの場合は何もしない
+     *
+     * @param saveData セーブデータ
+     */
+    public void markDirty(SaveDataBase saveData) {
+        dirtyData.putIfAbsent(saveData, System.currentTimeMillis());
+    }
+
+    /**
+     * セーブデータを保存待ちから外す
+     *
+     * @param saveData セーブデータ
+     */
+    public void unmark(SaveDataBase saveData) {
+        dirtyData.remove(saveData);
+    }
+
+    /**
+     * 最初の更新から一定時間たったセーブデータを保存する
+     */
+    private void flushExpired() {
+        long now = System.currentTimeMillis();
+
+        dirtyData.forEach((saveData, dirtyTime) -> {
+            if (now - dirtyTime >= SAVE_WAIT) {
+                flush(saveData, dirtyTime);
+            }
+        });
+
+        commit();
+    }
+
+    /**
+     * 全ての保存待ちのセーブデータを保存する
+     */
+    public void flushAll() {
+        dirtyData.forEach(this::flush);
+        commit();
+
+        Main.LOGGER.info("Flushed save data (Saved: {}, Failed: {}, Average latency: {}ms)",
+                getFlushCount(), getFailedCount(), String.format("%.1f", getAverageFlushLatency()));
+    }
+
+    /**
+     * セーブデータを保存する<br/>
+     * 保存前に保存待ちから外すため、保存中に更新された場合は再度保存待ちになる<br/>
+     * 保存に失敗した場合も再度保存待ちにする
+     *
+     * @param saveData  セーブデータ
+     * @param dirtyTime 最初に更新された時刻
+     */
+    private void flush(SaveDataBase saveData, long dirtyTime) {
+        if (!dirtyData.remove(saveData, dirtyTime)) {
+            return;
+        }
+
+        if (saveData.save()) {
+            long latency = System.currentTimeMillis() - dirtyTime;
+            flushCount.incrementAndGet();
+            totalFlushLatency.addAndGet(latency);
+            lastFlushLatency.set(latency);
+        } else {
+            // 失敗した場合は、一定時間後に再度保存する
+            failedCount.incrementAndGet();
+            dirtyData.putIfAbsent(saveData, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * 保存先への書き込みをまとめて確定し、必要であれば保存先を作り直す
+     */
+    private void commit() {
+        SaveDataStore store = SelfHostSaveDataManager.getInstance().getStore();
+
+        if (store == null) {
+            return;
+        }
+
+        try {
+            store.commit();
+        } catch (IOException ex) {
+            failedCount.incrementAndGet();
+            Main.runtime.getLogger().error("Failed to commit saved data.", ex);
+            return;
+        }
+
+        try {
+            store.compactIfNeeded();
+        } catch (IOException ex) {
+            Main.runtime.getLogger().error("Failed to compact save data store.", ex);
+        }
+    }
+
+    public int getQueueSize() {
+        return dirtyData.size();
+    }
+
+    public long getFlushCount() {
+        return flushCount.get();
+    }
+
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    public long getLastFlushLatency() {
+        return lastFlushLatency.get();
+    }
+
+    /**
+     * 最初の更新から保存完了までの平均時間を取得
+     *
+     * @return 平均時間(ms)
+     */
+    public double getAverageFlushLatency() {
+        long count = flushCount.get();
+
+        if (count == 0) {
+            return 0;
+        }
+
+        return (double) totalFlushLatency.get() / count;
+    }
+}
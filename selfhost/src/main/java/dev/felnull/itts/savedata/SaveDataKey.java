@@ -31,11 +31,11 @@ public interface SaveDataKey {
         /**
          * 探す
          *
-         * @param folder 検索先フォルダー
-         * @return ファイル
+         * @param fileNames 保存先フォルダー内のファイル名一覧
+         * @return キー
          */
         @Unmodifiable
         @NotNull
-        List<T> find(File folder);
+        List<T> find(List<String> fileNames);
     }
 }
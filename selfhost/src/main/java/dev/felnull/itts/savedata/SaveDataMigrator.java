@@ -0,0 +1,84 @@
+package dev.felnull.itts.savedata;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import dev.felnull.itts.Main;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+/**
+ * JSONファイル形式のセーブデータを、1つのファイルに保存する形式に移行する
+ *
+ * @author MORIMORI0317
+ */
+public final class SaveDataMigrator {
+
+    private SaveDataMigrator() {
+    }
+
+    /**
+     * JSONファイル形式のセーブデータを全て読み込み、1つのファイルに書き込む<br/>
+     * 途中で失敗した場合に移行済みとして扱われないように、一時ファイルに書き込んでから置き換える<br/>
+     * 移行元のJSONファイルは削除しない
+     *
+     * @param target  移行先ファイル
+     * @param folders 移行するセーブデータのフォルダー
+     * @param files   移行するセーブデータのファイル
+     * @return 移行したセーブデータの数
+     * @throws IOException IO例外
+     */
+    public static int migrate(File target, List<File> folders, List<File> files) throws IOException {
+        JsonFileSaveDataStore source = new JsonFileSaveDataStore();
+        File tmpFile = new File(target.getAbsoluteFile().getParentFile(), target.getName() + ".migrating");
+        Files.deleteIfExists(tmpFile.toPath());
+
+        int count = 0;
+
+        try (EmbeddedSaveDataStore store = EmbeddedSaveDataStore.open(tmpFile)) {
+            for (File folder : folders) {
+                for (String name : source.list(folder)) {
+                    if (name.endsWith(".json") && copy(source, store, new File(folder, name))) {
+                        count++;
+                    }
+                }
+            }
+
+            for (File file : files) {
+                if (copy(source, store, file)) {
+                    count++;
+                }
+            }
+        }
+
+        try {
+            Files.move(tmpFile.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmpFile.toPath(), target.toPath());
+        }
+
+        Main.runtime.getLogger().info("Migrated {} save data files to {}", count, target.getName());
+        return count;
+    }
+
+    private static boolean copy(JsonFileSaveDataStore source, EmbeddedSaveDataStore store, File file) throws IOException {
+        JsonObject jo;
+        try {
+            jo = source.read(file);
+        } catch (JsonParseException e) {
+            Main.runtime.getLogger().warn("Skipped save data that could not be read. ({})", file.getPath(), e);
+            return false;
+        }
+
+        if (jo == null) {
+            return false;
+        }
+
+        store.write(file, jo);
+        return true;
+    }
+}
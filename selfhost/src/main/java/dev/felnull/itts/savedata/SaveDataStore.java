@@ -0,0 +1,66 @@
+package dev.felnull.itts.savedata;
+
+import com.google.gson.JsonObject;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * セーブデータの保存先<br/>
+ * セーブデータはJSONファイルとしての保存先のパスで識別する
+ *
+ * @author MORIMORI0317
+ */
+public interface SaveDataStore {
+
+    /**
+     * セーブデータを読み込む
+     *
+     * @param file 保存先ファイル
+     * @return セーブデータ、存在しない場合はnull
+     * @throws IOException IO例外
+     */
+    @Nullable
+    JsonObject read(@NotNull File file) throws IOException;
+
+    /**
+     * セーブデータを書き込む<br/>
+     * 書き込んだ内容が確実に保存されるのは{@link #commit()}の後
+     *
+     * @param file 保存先ファイル
+     * @param jo   セーブデータ
+     * @throws IOException IO例外
+     */
+    void write(@NotNull File file, @NotNull JsonObject jo) throws IOException;
+
+    /**
+     * フォルダー内のセーブデータのファイル名一覧を取得
+     *
+     * @param folder フォルダー
+     * @return ファイル名一覧
+     * @throws IOException IO例外
+     */
+    @NotNull
+    @Unmodifiable
+    List<String> list(@NotNull File folder) throws IOException;
+
+    /**
+     * ここまでの書き込みをまとめて確定する
+     *
+     * @throws IOException IO例外
+     */
+    default void commit() throws IOException {
+    }
+
+    /**
+     * 古いセーブデータが一定以上の割合を占める場合は、最新のセーブデータのみに作り直す
+     *
+     * @throws IOException IO例外
+     */
+    default void compactIfNeeded() throws IOException {
+    }
+}
@@ -7,12 +7,14 @@ import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Unmodifiable;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * セルフホスト用セーブデータ管理
@@ -31,6 +33,21 @@ public class SelfHostSaveDataManager implements SaveDataAccess {
      */
     private static final File GLOBAL_DICT_DIR = new File("./global_dict.json");
 
+    /**
+     * セーブデータの保存先を指定するシステムプロパティ
+     */
+    private static final String STORE_PROPERTY = "itts.saveDataStore";
+
+    /**
+     * 全てのセーブデータを1つのファイルに保存する場合の、システムプロパティの値
+     */
+    private static final String EMBEDDED_STORE = "embedded";
+
+    /**
+     * 全てのセーブデータを保存するファイル
+     */
+    private static final File EMBEDDED_STORE_FILE = new File("./save_data.db");
+
     /**
      * サーバーデータ
      */
@@ -61,6 +78,16 @@ public class SelfHostSaveDataManager implements SaveDataAccess {
     private final KeySaveDataManage<LongSaveDataKey, ServerDictData> serverDict =
             new KeySaveDataManage<>(new File("./save_data/server_dict"), ServerDictData::new, LongSaveDataKey.getFinder());
 
+    /**
+     * セーブデータの保存を行うフラッシャー
+     */
+    private final SaveDataFlusher flusher = new SaveDataFlusher();
+
+    /**
+     * セーブデータの保存先
+     */
+    private SaveDataStore store;
+
     /**
      * グローバル辞書データ
      */
@@ -70,8 +97,23 @@ public class SelfHostSaveDataManager implements SaveDataAccess {
         return INSTANCE;
     }
 
+    public SaveDataFlusher getFlusher() {
+        return flusher;
+    }
+
+    public SaveDataStore getStore() {
+        return store;
+    }
+
     @Override
     public boolean init() {
+        try {
+            store = createStore();
+        } catch (IOException e) {
+            Main.runtime.getLogger().error("Failed to open save data store", e);
+            return false;
+        }
+
         globalDict = globalDictComputeInitAsync(GlobalDictData::new);
 
         botStateData.loadAll();
@@ -160,6 +202,29 @@ public class SelfHostSaveDataManager implements SaveDataAccess {
         }
     }
 
+    /**
+     * システムプロパティで指定された保存先を作成する<br/>
+     * 1つのファイルに保存する場合で、ファイルがまだ存在しない場合はJSONファイル形式のセーブデータを移行する
+     *
+     * @return 保存先
+     * @throws IOException IO例外
+     */
+    private SaveDataStore createStore() throws IOException {
+        if (!EMBEDDED_STORE.equals(System.getProperty(STORE_PROPERTY))) {
+            return new JsonFileSaveDataStore();
+        }
+
+        if (!EMBEDDED_STORE_FILE.exists()) {
+            List<File> folders = Stream.of(serverData, serverUsersData, serverDictUseData, botStateData, serverDict)
+                    .map(KeySaveDataManage::getSaveFolder)
+                    .toList();
+
+            SaveDataMigrator.migrate(EMBEDDED_STORE_FILE, folders, List.of(GLOBAL_DICT_DIR));
+        }
+
+        return EmbeddedSaveDataStore.open(EMBEDDED_STORE_FILE);
+    }
+
     private <T extends SaveDataBase> CompletableFuture<T> globalDictComputeInitAsync(Supplier<T> newInstance) {
         return CompletableFuture.supplyAsync(() -> {
             T ni = newInstance.get();
@@ -180,4 +245,10 @@ public class SelfHostSaveDataManager implements SaveDataAccess {
                 .map(Map.Entry::getKey)
                 .toList();
     }
+
+    @Override
+    public @NotNull SaveDataFlushStats getFlushStats() {
+        return new SaveDataFlushStats(flusher.getQueueSize(), flusher.getFlushCount(), flusher.getFailedCount(),
+                flusher.getLastFlushLatency(), flusher.getAverageFlushLatency());
+    }
 }
@@ -5,10 +5,12 @@ import blue.endless.jankson.JsonElement;
 import blue.endless.jankson.JsonObject;
 import blue.endless.jankson.JsonPrimitive;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Unmodifiable;
 
 import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
 
 /**
@@ -85,6 +87,46 @@ public class Json5Utils {
         return getListOfJsonArray(jo, keyName, JsonPrimitive::asString);
     }
 
+    /**
+     * 数値のJsonオブジェクトからマップを取得
+     *
+     * @param jo      Json
+     * @param keyName キー名
+     * @return キーと数値のマップ
+     */
+    @NotNull
+    @Unmodifiable
+    public static Map<String, Double> getDoubleMapOfJsonObject(@NotNull JsonObject jo, @NotNull String keyName) {
+        JsonObject mapJo = jo.getObject(keyName);
+
+        if (mapJo == null) {
+            return ImmutableMap.of();
+        }
+
+        ImmutableMap.Builder<String, Double> builder = new ImmutableMap.Builder<>();
+        for (Map.Entry<String, JsonElement> entry : mapJo.entrySet()) {
+            if (entry.getValue() instanceof JsonPrimitive primitive && primitive.getValue() instanceof Number number) {
+                builder.put(entry.getKey(), number.doubleValue());
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * MapからJsonオブジェクトへ変換
+     *
+     * @param map マップ
+     * @return Jsonオブジェクト
+     */
+    @NotNull
+    public static JsonObject toJsonObject(@NotNull Map<String, ?> map) {
+        JsonObject jo = new JsonObject();
+        for (Map.Entry<String, ?> entry : map.entrySet()) {
+            jo.put(entry.getKey(), new JsonPrimitive(entry.getValue()));
+        }
+        return jo;
+    }
+
     /**
      * ListからJson配列へ変換
      *
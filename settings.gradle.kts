@@ -1,3 +1,4 @@
 rootProject.name = "I-TTS"
 include("core")
 include("selfhost")
+include("benchmarks")